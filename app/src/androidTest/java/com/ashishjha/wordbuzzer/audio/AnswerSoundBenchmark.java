@@ -0,0 +1,72 @@
+package com.ashishjha.wordbuzzer.audio;
+
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.media.SoundPool;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.R;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/*
+* Time from an answer to its sound being started, with the per-answer MediaPlayer the game used to create
+* (decode the clip, allocate a native player, start) against a SoundPool holding clips decoded up front
+* (AnswerSoundPlayer). Audio output latency of the device comes on top of both and is not measured.
+* Results are logged under tag "AnswerSoundBenchmark".
+* */
+public class AnswerSoundBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "AnswerSoundBenchmark";
+
+    private static final int PLAYS = 20;
+
+    @SuppressWarnings("deprecation")
+    public void testMediaPlayerPerAnswerAgainstSoundPool() throws InterruptedException {
+        long mediaPlayerTotalUs = 0;
+        long mediaPlayerWorstUs = 0;
+        for (int i = 0; i < PLAYS; i++) {
+            long start = System.nanoTime();
+            MediaPlayer mediaPlayer = MediaPlayer.create(getContext(), i % 2 == 0 ? R.raw.correct_answer : R.raw.wrong_answer);
+            mediaPlayer.start();
+            long us = (System.nanoTime() - start) / 1000;
+            mediaPlayerTotalUs += us;
+            mediaPlayerWorstUs = Math.max(mediaPlayerWorstUs, us);
+            mediaPlayer.release();
+        }
+
+        final CountDownLatch loaded = new CountDownLatch(2);
+        long loadStart = System.nanoTime();
+        SoundPool soundPool = new SoundPool(2, AudioManager.STREAM_MUSIC, 0);
+        soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+            @Override
+            public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
+                assertEquals(0, status);
+                loaded.countDown();
+            }
+        });
+        int correctSoundId = soundPool.load(getContext(), R.raw.correct_answer, 1);
+        int wrongSoundId = soundPool.load(getContext(), R.raw.wrong_answer, 1);
+        assertTrue("Sounds not decoded", loaded.await(10, TimeUnit.SECONDS));
+        long loadUs = (System.nanoTime() - loadStart) / 1000;
+
+        long soundPoolTotalUs = 0;
+        long soundPoolWorstUs = 0;
+        for (int i = 0; i < PLAYS; i++) {
+            long start = System.nanoTime();
+            int streamId = soundPool.play(i % 2 == 0 ? correctSoundId : wrongSoundId, 0f, 0f, 1, 0, 1f);
+            long us = (System.nanoTime() - start) / 1000;
+            assertTrue(streamId != 0);
+            soundPoolTotalUs += us;
+            soundPoolWorstUs = Math.max(soundPoolWorstUs, us);
+        }
+        soundPool.release();
+
+        Log.i(TAG, "answer to sound started, average / worst of " + PLAYS + ": MediaPlayer.create "
+                + mediaPlayerTotalUs / PLAYS + " / " + mediaPlayerWorstUs + " us, SoundPool "
+                + soundPoolTotalUs / PLAYS + " / " + soundPoolWorstUs + " us (both clips decoded once in "
+                + loadUs + " us)");
+    }
+}
@@ -0,0 +1,117 @@
+package com.ashishjha.wordbuzzer.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.ArrayList;
+
+/*
+* Compares rows/sec of the legacy import path (one insert per row, no surrounding transaction)
+* against WordBuzzerDataSource.insertTranslations (one transaction per batch, precompiled statement).
+* android.database is not available on the JVM, so this runs as an instrumentation test.
+* Results are logged under tag "BulkInsertBenchmark".
+* */
+public class BulkInsertBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "BulkInsertBenchmark";
+
+    private static final int[] SIZES = {10000, 100000, 1000000};
+
+    // Legacy path commits every row - above this size it takes too long to be worth running
+    private static final int LEGACY_MAX_SIZE = 100000;
+
+    private RenamingDelegatingContext mContext;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        super.tearDown();
+    }
+
+    public void testRowsPerSecond() {
+        for (int size : SIZES) {
+            if (size <= LEGACY_MAX_SIZE) {
+                report("legacy", size, runLegacy(size));
+            }
+            report("bulk", size, runBulk(size, Util.IMPORT_BATCH_SIZE));
+        }
+    }
+
+    private long runLegacy(int size) {
+        clear();
+        ContentValues values = new ContentValues();
+        long start = SystemClock.elapsedRealtime();
+        int pos = 1;
+        while (pos <= size) {
+            // Legacy path opened a new data source for every batch of MAX_TRANSLATIONS_IN_MEMORY
+            WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+            dataSource.open();
+            for (int i = 0; i < Util.MAX_TRANSLATIONS_IN_MEMORY && pos <= size; i++, pos++) {
+                values.put(Util.TEXT_ENGLISH, "english " + pos);
+                values.put(Util.TEXT_SPA, "spanish " + pos);
+                values.put(Util.WORD_POSITION, pos);
+                dataSource.insertIntoTable(Util.DATABASE_NAME, values);
+            }
+            dataSource.close();
+        }
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        assertEquals(size, count());
+        return elapsed;
+    }
+
+    private long runBulk(int size, int batchSize) {
+        clear();
+        ArrayList<Translation> batch = new ArrayList<>(batchSize);
+        long start = SystemClock.elapsedRealtime();
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        int startPos = 1;
+        for (int pos = 1; pos <= size; pos++) {
+            batch.add(new Translation("english " + pos, "spanish " + pos));
+            if (batch.size() == batchSize || pos == size) {
+                dataSource.insertTranslations(batch, startPos);
+                startPos = pos + 1;
+                batch.clear();
+            }
+        }
+        dataSource.close();
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        assertEquals(size, count());
+        return elapsed;
+    }
+
+    private void clear() {
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        dataSource.deleteFromTable(Util.DATABASE_NAME, null, null);
+        dataSource.close();
+    }
+
+    private int count() {
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        Cursor cursor = dataSource.getContents(Util.DATABASE_NAME, new String[]{Util.WORD_POSITION}, null, null);
+        int count = cursor.getCount();
+        cursor.close();
+        dataSource.close();
+        return count;
+    }
+
+    private void report(String path, int size, long elapsedMs) {
+        long rowsPerSec = size * 1000L / Math.max(1, elapsedMs);
+        Log.i(TAG, path + " size=" + size + " time=" + elapsedMs + "ms rows/sec=" + rowsPerSec);
+    }
+}
@@ -0,0 +1,193 @@
+package com.ashishjha.wordbuzzer.database;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.utils.SimilarityKey;
+import com.ashishjha.wordbuzzer.utils.TranslationFingerprint;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* Checks that the dictionary queries of WordLoaderService are index lookups (EXPLAIN QUERY PLAN)
+* and that installs on older schema versions are migrated in place without losing translations.
+* */
+public class WordBuzzerSchemaTest extends AndroidTestCase {
+
+    private RenamingDelegatingContext mContext;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = new RenamingDelegatingContext(getContext(), "schema_test_");
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        super.tearDown();
+    }
+
+    public void testLookupByPositionUsesPrimaryKey() {
+        assertIndexedPlan("select " + Util.TEXT_ENGLISH + " from " + Util.DATABASE_NAME
+                + " where " + Util.WORD_POSITION + "=?", new String[]{"1"});
+    }
+
+    public void testRandomWordsLookupUsesPrimaryKey() {
+        assertIndexedPlan("select " + Util.TEXT_SPA + " from " + Util.DATABASE_NAME
+                + " where " + Util.WORD_POSITION + " in (?,?,?)", new String[]{"1", "2", "3"});
+    }
+
+    public void testLookupByChallengeUsesIndex() {
+        assertIndexedPlan("select " + Util.TEXT_SPA + " from " + Util.DATABASE_NAME
+                + " where " + Util.TEXT_ENGLISH + "=?", new String[]{"teacher"});
+    }
+
+    public void testVersionOneIsMigratedInPlace() {
+        // Schema and data as written by version 1 of the app
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(mContext.getDatabasePath(Util.DATABASE_NAME), null);
+        db.execSQL("create table " + Util.DATABASE_NAME + "(" + Util.TEXT_ENGLISH + " text not null, "
+                + Util.TEXT_SPA + " text not null, " + Util.WORD_POSITION + " int);");
+        db.execSQL("insert into " + Util.DATABASE_NAME + " values ('teacher', 'profesor / profesora', 1)");
+        db.execSQL("insert into " + Util.DATABASE_NAME + " values ('pupil', 'alumno / alumna', 2)");
+        db.setVersion(1);
+        db.close();
+
+        WordBuzzerSqliteOpenHelper helper = new WordBuzzerSqliteOpenHelper(mContext);
+        SQLiteDatabase migrated = helper.getWritableDatabase();
+        assertEquals(Util.DATABASE_VERSION, migrated.getVersion());
+        Cursor cursor = migrated.rawQuery("select " + Util.TEXT_SPA + " from " + Util.DATABASE_NAME
+                + " where " + Util.WORD_POSITION + "=?", new String[]{"2"});
+        assertTrue(cursor.moveToFirst());
+        assertEquals("alumno / alumna", cursor.getString(0));
+        cursor.close();
+        helper.close();
+        assertIndexedPlan("select " + Util.TEXT_SPA + " from " + Util.DATABASE_NAME
+                + " where " + Util.TEXT_ENGLISH + "=?", new String[]{"teacher"});
+    }
+
+    public void testVersionTwoGetsFingerprints() {
+        // Schema and data as written by version 2 of the app
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(mContext.getDatabasePath(Util.DATABASE_NAME), null);
+        db.execSQL("create table " + Util.DATABASE_NAME + "(" + Util.WORD_POSITION + " integer primary key, "
+                + Util.TEXT_ENGLISH + " text not null, " + Util.TEXT_SPA + " text not null);");
+        db.execSQL("insert into " + Util.DATABASE_NAME + " values (1, 'teacher', 'profesor / profesora')");
+        db.execSQL("insert into " + Util.DATABASE_NAME + " values (2, 'pupil', 'alumno / alumna')");
+        db.setVersion(2);
+        db.close();
+
+        WordBuzzerSqliteOpenHelper helper = new WordBuzzerSqliteOpenHelper(mContext);
+        SQLiteDatabase migrated = helper.getWritableDatabase();
+        assertEquals(Util.DATABASE_VERSION, migrated.getVersion());
+        Cursor cursor = migrated.rawQuery("select " + Util.FINGERPRINT + ", " + Util.IS_APPENDED + " from "
+                + Util.DATABASE_NAME + " where " + Util.WORD_POSITION + "=?", new String[]{"2"});
+        assertTrue(cursor.moveToFirst());
+        assertEquals(TranslationFingerprint.of("pupil", "alumno / alumna"), cursor.getLong(0));
+        assertEquals(0, cursor.getInt(1));
+        cursor.close();
+        helper.close();
+    }
+
+    public void testVersionFourGetsLanguagePairRegistry() {
+        // Schema as written by version 4 of the app, with a checkpoint of an interrupted import
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(mContext.getDatabasePath(Util.DATABASE_NAME), null);
+        db.execSQL("create table " + Util.DATABASE_NAME + "(" + Util.WORD_POSITION + " integer primary key, "
+                + Util.TEXT_ENGLISH + " text not null, " + Util.TEXT_SPA + " text not null, "
+                + Util.FINGERPRINT + " integer not null default 0, " + Util.IS_APPENDED + " integer not null default 0);");
+        db.execSQL(WordBuzzerSqliteOpenHelper.TEXT_ENGLISH_INDEX_CREATE);
+        db.execSQL(WordBuzzerSqliteOpenHelper.IMPORT_CHECKPOINT_TABLE_CREATE);
+        db.execSQL("insert into " + Util.DATABASE_NAME + "(" + Util.WORD_POSITION + ", " + Util.TEXT_ENGLISH + ", "
+                + Util.TEXT_SPA + ") values (1, 'teacher', 'profesor / profesora')");
+        db.execSQL("insert into " + Util.IMPORT_CHECKPOINT_TABLE + " values ('words.json@1', 2, 0)");
+        db.setVersion(4);
+        db.close();
+
+        WordBuzzerSqliteOpenHelper helper = new WordBuzzerSqliteOpenHelper(mContext);
+        SQLiteDatabase migrated = helper.getWritableDatabase();
+        assertEquals(Util.DATABASE_VERSION, migrated.getVersion());
+        assertEquals(0, DatabaseUtils.queryNumEntries(migrated, Util.LANGUAGE_PAIR_TABLE));
+        assertEquals(0, DatabaseUtils.queryNumEntries(migrated, Util.IMPORT_CHECKPOINT_TABLE));
+        assertEquals(1, DatabaseUtils.queryNumEntries(migrated, Util.DATABASE_NAME));
+        helper.close();
+    }
+
+    public void testLanguagePairTableUsesPrimaryKey() {
+        LanguagePair pair = LanguagePair.of("eng", "fra");
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, pair);
+        dataSource.open();
+        dataSource.createTranslationTable();
+        dataSource.close();
+        assertIndexedPlan("select " + pair.getColumnTwo() + " from " + pair.getTableName()
+                + " where " + Util.WORD_POSITION + "=?", new String[]{"1"});
+        assertIndexedPlan("select " + pair.getColumnTwo() + " from " + pair.getTableName()
+                + " where " + pair.getColumnOne() + "=?", new String[]{"teacher"});
+    }
+
+    public void testVersionSixGetsSimilarityKeys() {
+        // Schema as written by version 6 of the app, default pair and one more
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(mContext.getDatabasePath(Util.DATABASE_NAME), null);
+        String[][] tables = {{Util.DATABASE_NAME, Util.TEXT_ENGLISH, Util.TEXT_SPA},
+                {Util.DATABASE_NAME + "_eng_fra", "text_eng", "text_fra"}};
+        for (String[] table : tables) {
+            db.execSQL("create table " + table[0] + "(" + Util.WORD_POSITION + " integer primary key, "
+                    + table[1] + " text not null, " + table[2] + " text not null, "
+                    + Util.FINGERPRINT + " integer not null default 0, " + Util.IS_APPENDED + " integer not null default 0, "
+                    + Util.BOX + " integer not null default 3, " + Util.CORRECT_COUNT + " integer not null default 0, "
+                    + Util.WRONG_COUNT + " integer not null default 0);");
+        }
+        db.execSQL("insert into " + tables[0][0] + "(" + Util.WORD_POSITION + ", " + tables[0][1] + ", " + tables[0][2]
+                + ") values (1, 'tree', 'Árbol')");
+        db.execSQL("insert into " + tables[1][0] + "(" + Util.WORD_POSITION + ", " + tables[1][1] + ", " + tables[1][2]
+                + ") values (1, 'tree', 'arbre')");
+        db.execSQL(WordBuzzerSqliteOpenHelper.IMPORT_CHECKPOINT_TABLE_CREATE);
+        db.execSQL(WordBuzzerSqliteOpenHelper.LANGUAGE_PAIR_TABLE_CREATE);
+        db.setVersion(6);
+        db.close();
+
+        WordBuzzerSqliteOpenHelper helper = new WordBuzzerSqliteOpenHelper(mContext);
+        SQLiteDatabase migrated = helper.getWritableDatabase();
+        assertEquals(Util.DATABASE_VERSION, migrated.getVersion());
+        assertEquals(SimilarityKey.of("Árbol"), DatabaseUtils.longForQuery(migrated, "select " + Util.SIMILARITY_KEY
+                + " from " + tables[0][0] + " where " + Util.WORD_POSITION + "=1", null));
+        assertEquals(SimilarityKey.of("arbre"), DatabaseUtils.longForQuery(migrated, "select " + Util.SIMILARITY_KEY
+                + " from " + tables[1][0] + " where " + Util.WORD_POSITION + "=1", null));
+        helper.close();
+        assertIndexedPlan("select " + Util.TEXT_SPA + " from " + Util.DATABASE_NAME + " where " + Util.SIMILARITY_KEY
+                + "=? and " + Util.WORD_POSITION + ">=?", new String[]{"1", "1"});
+    }
+
+    public void testPlausibleDistractorLookupUsesIndex() {
+        LanguagePair pair = LanguagePair.of("eng", "fra");
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, pair);
+        dataSource.open();
+        dataSource.createTranslationTable();
+        dataSource.close();
+        assertIndexedPlan("select " + pair.getColumnTwo() + " from " + pair.getTableName() + " where "
+                + Util.SIMILARITY_KEY + "=? and " + Util.WORD_POSITION + ">=? order by " + Util.WORD_POSITION
+                + " limit 12", new String[]{"1", "1"});
+        assertIndexedPlan("select " + pair.getColumnTwo() + " from " + pair.getTableName() + " where "
+                + Util.SIMILARITY_KEY + ">? and " + Util.SIMILARITY_KEY + "<=? order by " + Util.SIMILARITY_KEY
+                + " limit 12", new String[]{"1", "2"});
+    }
+
+    private void assertIndexedPlan(String query, String[] args) {
+        WordBuzzerSqliteOpenHelper helper = new WordBuzzerSqliteOpenHelper(mContext);
+        SQLiteDatabase db = helper.getReadableDatabase();
+        Cursor cursor = db.rawQuery("explain query plan " + query, args);
+        StringBuilder plan = new StringBuilder();
+        while (cursor.moveToNext()) {
+            // Last column holds the human readable step, e.g. "SEARCH TABLE t USING INTEGER PRIMARY KEY (rowid=?)"
+            plan.append(cursor.getString(cursor.getColumnCount() - 1)).append('\n');
+        }
+        cursor.close();
+        helper.close();
+        String steps = plan.toString();
+        assertTrue("Full table scan: " + steps, !steps.contains("SCAN TABLE " + Util.DATABASE_NAME));
+        assertTrue("No index used: " + steps, steps.contains("INTEGER PRIMARY KEY") || steps.contains("USING INDEX")
+                || steps.contains("USING COVERING INDEX"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ashishjha.wordbuzzer.game;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+
+/*
+* Cost of a QuestionScheduler pick on a dictionary of a million words: one weighted pick (FenwickTree.find())
+* followed by the weight update of an answer, on the device's runtime.
+* Results are logged under tag "FenwickTreeBenchmark".
+* */
+public class FenwickTreeBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "FenwickTreeBenchmark";
+
+    private static final int WORDS = 1000000;
+
+    private static final int OPERATIONS = 1000000;
+
+    public void testPickAndUpdateOnMillionWords() {
+        FenwickTree tree = new FenwickTree(WORDS, 8);
+        RandomSource random = new SplitMixRandomSource(3);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int index = tree.find(random.nextInt((int) tree.total()));
+            checksum += index;
+            // Like answers - weights jump up or halve, never below 1
+            long weight = tree.get(index);
+            tree.add(index, random.nextInt(2) == 0 ? 56 : -(weight / 2));
+        }
+        long nanos = System.nanoTime() - start;
+
+        Log.i(TAG, WORDS + " words: " + nanos / OPERATIONS + " ns per pick + update (checksum " + checksum + ")");
+        assertEquals(WORDS, tree.size());
+        assertTrue(tree.total() > 0);
+    }
+}
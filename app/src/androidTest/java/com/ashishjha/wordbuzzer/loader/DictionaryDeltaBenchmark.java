@@ -0,0 +1,120 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.store.TranslationStoreWriter;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/*
+* Cost of bringing DB in line with a dictionary where 1% of translations changed:
+* full rebuild (clear DB, parse and insert everything, rewrite store - the previous update path)
+* against DictionaryDeltaImporter (diff by fingerprint, write only changed rows, rewrite store).
+* Results are logged under tag "DictionaryDeltaBenchmark".
+* */
+public class DictionaryDeltaBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "DictionaryDeltaBenchmark";
+
+    private static final int WORDS = 100000;
+
+    // 1 in CHANGE_INTERVAL translations replaced
+    private static final int CHANGE_INTERVAL = 100;
+
+    private RenamingDelegatingContext mContext;
+
+    private File mFilesDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFilesDir = new File(getContext().getCacheDir(), "benchmark_files");
+        mFilesDir.mkdirs();
+        // Store file of the app must not be replaced
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_") {
+            @Override
+            public File getFilesDir() {
+                return mFilesDir;
+            }
+        };
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        TranslationStoreFactory.getStoreFile(mContext).delete();
+        mFilesDir.delete();
+        super.tearDown();
+    }
+
+    public void testRebuildAgainstDelta() throws IOException {
+        byte[] original = buildDictionary(WORDS, -1);
+        byte[] changed = buildDictionary(WORDS, CHANGE_INTERVAL);
+
+        rebuild(original);
+        long start = SystemClock.elapsedRealtime();
+        assertEquals(WORDS, rebuild(changed));
+        long rebuildMs = SystemClock.elapsedRealtime() - start;
+
+        rebuild(original);
+        DictionaryDeltaImporter importer = new DictionaryDeltaImporter();
+        start = SystemClock.elapsedRealtime();
+        assertEquals(WORDS, importer.importDictionary(mContext, new ByteArrayInputStream(changed), false));
+        long deltaMs = SystemClock.elapsedRealtime() - start;
+
+        Log.i(TAG, WORDS + " words, 1/" + CHANGE_INTERVAL + " changed: rebuild " + rebuildMs + " ms, delta "
+                + deltaMs + " ms (" + importer.getReport() + ")");
+    }
+
+    private int rebuild(byte[] json) throws IOException {
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        TranslationStoreWriter storeWriter = new TranslationStoreWriter(TranslationStoreFactory.getStoreFile(mContext));
+        try {
+            dataSource.deleteFromTable(Util.DATABASE_NAME, null, null);
+            DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+            ArrayList<Translation> batch = new ArrayList<>(Util.IMPORT_BATCH_SIZE);
+            int startPos = 1;
+            int count = 0;
+            Translation translation = new Translation(null, null);
+            while (parser.next(translation)) {
+                batch.add(new Translation(translation.getWordInLanguageOne(), translation.getWordInLanguageTwo()));
+                storeWriter.add(translation.getWordInLanguageOne(), translation.getWordInLanguageTwo());
+                count++;
+                if (batch.size() == Util.IMPORT_BATCH_SIZE) {
+                    dataSource.insertTranslations(batch, startPos);
+                    startPos = count + 1;
+                    batch.clear();
+                }
+            }
+            dataSource.insertTranslations(batch, startPos);
+            storeWriter.finish();
+            return count;
+        } finally {
+            storeWriter.close();
+            dataSource.close();
+        }
+    }
+
+    // changeInterval - every changeInterval-th translation gets a new word, -1 for none
+    private static byte[] buildDictionary(int words, int changeInterval) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            String english = changeInterval > 0 && i % changeInterval == 0 ? "changed word " + i : "english word " + i;
+            json.append("  {\"text_eng\": \"").append(english)
+                    .append("\", \"text_spa\": \"palabra española ").append(i).append("\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,93 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.JsonReader;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/*
+* Compares the previous words.json parser (InputStreamReader + android.util.JsonReader, a String per key)
+* against DictionaryJsonParser on the same synthetic multi-MB dictionary.
+* JsonReader is not available on the JVM, so this runs as an instrumentation test.
+* Results are logged under tag "DictionaryParserBenchmark".
+* */
+public class DictionaryParserBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "DictionaryParserBenchmark";
+
+    private static final int WORDS = 100000;
+
+    private static final int RUNS = 3;
+
+    public void testParsers() throws IOException {
+        byte[] json = buildDictionary(WORDS);
+        for (int run = 0; run < RUNS; run++) {
+            long start = SystemClock.elapsedRealtime();
+            assertEquals(WORDS, parseWithJsonReader(json));
+            long jsonReaderMs = SystemClock.elapsedRealtime() - start;
+
+            start = SystemClock.elapsedRealtime();
+            assertEquals(WORDS, parseWithDictionaryParser(json));
+            long dictionaryParserMs = SystemClock.elapsedRealtime() - start;
+
+            Log.i(TAG, json.length / 1024 + " KB, " + WORDS + " translations: JsonReader " + jsonReaderMs
+                    + " ms, DictionaryJsonParser " + dictionaryParserMs + " ms");
+        }
+    }
+
+    private static int parseWithJsonReader(byte[] json) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), "UTF-8"));
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String english = null, spa = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals(Util.TEXT_ENGLISH)) {
+                    english = reader.nextString();
+                } else if (name.equals(Util.TEXT_SPA)) {
+                    spa = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (english != null && spa != null) {
+                count++;
+            }
+        }
+        reader.endArray();
+        reader.close();
+        return count;
+    }
+
+    private static int parseWithDictionaryParser(byte[] json) throws IOException {
+        DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+        Translation translation = new Translation(null, null);
+        int count = 0;
+        while (parser.next(translation)) {
+            if (translation.getWordInLanguageOne() != null && translation.getWordInLanguageTwo() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] buildDictionary(int words) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            json.append("  {\"text_eng\": \"english word ").append(i)
+                    .append("\", \"text_spa\": \"palabra española ").append(i).append("\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,155 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.sampler.PointLookupDistractorSampler;
+import com.ashishjha.wordbuzzer.sampler.UniquePositionSampler;
+import com.ashishjha.wordbuzzer.store.TranslationStore;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/*
+* Cost of switching language pair and of a round (challenge + answer + Util.DISTRACTOR_BATCH_SIZE random words)
+* with the default pair alone in DB, then with PAIRS pairs imported - switching and rounds must not get slower
+* as pairs are added, since every pair has its own table and store file.
+* A switch repeats what WordLoaderService.setLanguagePair() does: word count from registry, store and sampler reopened.
+* Results are logged under tag "LanguagePairBenchmark".
+* */
+public class LanguagePairBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "LanguagePairBenchmark";
+
+    private static final String[] LANGUAGES = {"spa", "fra", "deu", "ita", "por", "nld", "swe", "pol", "tur", "ces",
+            "fin", "dan"};
+
+    // Pairs eng -> LANGUAGES[i], first one is the default pair
+    private static final int PAIRS = LANGUAGES.length;
+
+    private static final int WORDS = 20000;
+
+    private static final int ROUNDS = 1000;
+
+    private RenamingDelegatingContext mContext;
+
+    private File mFilesDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFilesDir = new File(getContext().getCacheDir(), "benchmark_files");
+        mFilesDir.mkdirs();
+        // Store files of the app must not be replaced
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_") {
+            @Override
+            public File getFilesDir() {
+                return mFilesDir;
+            }
+        };
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        for (String language : LANGUAGES) {
+            TranslationStoreFactory.getStoreFile(mContext, LanguagePair.of("eng", language)).delete();
+        }
+        mFilesDir.delete();
+        super.tearDown();
+    }
+
+    public void testSwitchAndRoundLatencyWithManyPairs() throws IOException {
+        importPair(LanguagePair.DEFAULT);
+        long[] alone = measure(LanguagePair.DEFAULT);
+
+        for (int i = 1; i < PAIRS; i++) {
+            importPair(LanguagePair.of("eng", LANGUAGES[i]));
+        }
+        WordBuzzerDataSource registry = new WordBuzzerDataSource(mContext);
+        registry.open();
+        List<LanguagePair> languagePairs = registry.getLanguagePairs();
+        registry.close();
+        assertEquals(PAIRS, languagePairs.size());
+
+        StringBuilder report = new StringBuilder();
+        long worstSwitchUs = 0;
+        long worstRoundUs = 0;
+        for (LanguagePair languagePair : languagePairs) {
+            long[] result = measure(languagePair);
+            worstSwitchUs = Math.max(worstSwitchUs, result[0]);
+            worstRoundUs = Math.max(worstRoundUs, result[1]);
+            report.append(languagePair).append(": switch ").append(result[0]).append(" us, round ")
+                    .append(result[1]).append(" us; ");
+        }
+        long[] crowded = measure(LanguagePair.DEFAULT);
+        Log.i(TAG, "default pair alone: switch " + alone[0] + " us, round " + alone[1] + " us; with " + PAIRS
+                + " pairs: switch " + crowded[0] + " us, round " + crowded[1] + " us; worst pair: switch "
+                + worstSwitchUs + " us, round " + worstRoundUs + " us");
+        Log.i(TAG, report.toString());
+    }
+
+    private void importPair(LanguagePair languagePair) throws IOException {
+        byte[] json = buildDictionary(languagePair, WORDS);
+        int count = new WordLoader().loadDictionary(mContext, languagePair, new ByteArrayInputStream(json),
+                "benchmark", null);
+        assertEquals(WORDS, count);
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, languagePair);
+        dataSource.open();
+        dataSource.registerLanguagePair(count);
+        dataSource.close();
+    }
+
+    // {switch us, average round us}
+    private long[] measure(LanguagePair languagePair) {
+        long start = System.nanoTime();
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, languagePair);
+        dataSource.open();
+        int wordCount = dataSource.getRegisteredWordCount();
+        TranslationStore store = TranslationStoreFactory.open(mContext, languagePair, wordCount);
+        UniquePositionSampler positionSampler = new UniquePositionSampler(new SplitMixRandomSource(7));
+        PointLookupDistractorSampler sampler = new PointLookupDistractorSampler(dataSource, positionSampler);
+        long switchUs = (System.nanoTime() - start) / 1000;
+        assertEquals(WORDS, wordCount);
+
+        String[] randomWords = new String[Util.DISTRACTOR_BATCH_SIZE];
+        String prefixTwo = languagePair.getLanguageTwo() + " ";
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            int pos = Util.getRandomNumber(1, wordCount);
+            Translation translation = store.getTranslation(pos);
+            int found = sampler.sample(wordCount, Util.DISTRACTOR_BATCH_SIZE, pos, randomWords);
+            assertEquals(languagePair.getLanguageOne() + " " + pos, translation.getWordInLanguageOne());
+            assertEquals(Util.DISTRACTOR_BATCH_SIZE, found);
+            assertTrue(randomWords[0], randomWords[0].startsWith(prefixTwo));
+        }
+        long roundUs = (System.nanoTime() - start) / 1000 / ROUNDS;
+        sampler.close();
+        store.close();
+        dataSource.close();
+        return new long[]{switchUs, roundUs};
+    }
+
+    private static byte[] buildDictionary(LanguagePair languagePair, int words) throws IOException {
+        String one = languagePair.getLanguageOne();
+        String two = languagePair.getLanguageTwo();
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            json.append("  {\"").append(languagePair.getColumnOne()).append("\": \"").append(one).append(' ').append(i)
+                    .append("\", \"").append(languagePair.getColumnTwo()).append("\": \"").append(two).append(' ')
+                    .append(i).append("\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,91 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.store.SqliteTranslationStore;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+/*
+* Time-to-first-question on a clean install: the game used to wait for the whole import (Util.LOAD_DICTIONARY_COMPLETE),
+* it now starts once Util.DICTIONARY_READY_WORD_COUNT words are committed (Util.LOAD_DICTIONARY_READY).
+* A first question is read from the committed positions at that moment, the way WordLoaderService does.
+* Results are logged under tag "TimeToFirstQuestionBenchmark".
+* */
+public class TimeToFirstQuestionBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "TimeToFirstQuestionBenchmark";
+
+    private static final int WORDS = 100000;
+
+    private RenamingDelegatingContext mContext;
+
+    private File mFilesDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFilesDir = new File(getContext().getCacheDir(), "benchmark_files");
+        mFilesDir.mkdirs();
+        // Store file of the app must not be replaced
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_") {
+            @Override
+            public File getFilesDir() {
+                return mFilesDir;
+            }
+        };
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        TranslationStoreFactory.getStoreFile(mContext).delete();
+        mFilesDir.delete();
+        super.tearDown();
+    }
+
+    public void testTimeToFirstQuestion() throws IOException {
+        byte[] json = buildDictionary(WORDS);
+        final long start = SystemClock.elapsedRealtime();
+        final long[] firstQuestionMs = {-1};
+        int count = new WordLoader().loadDictionary(mContext, new ByteArrayInputStream(json), "benchmark",
+                new WordLoader.ProgressListener() {
+                    @Override
+                    public void onProgress(int committedCount) {
+                        if (firstQuestionMs[0] >= 0 || committedCount < Util.DICTIONARY_READY_WORD_COUNT) {
+                            return;
+                        }
+                        SqliteTranslationStore store = new SqliteTranslationStore(mContext, committedCount);
+                        Translation question = store.getTranslation(Util.getRandomNumber(1, committedCount));
+                        store.close();
+                        assertNotNull(question);
+                        firstQuestionMs[0] = SystemClock.elapsedRealtime() - start;
+                    }
+                });
+        long wholeDictionaryMs = SystemClock.elapsedRealtime() - start;
+        assertEquals(WORDS, count);
+        assertTrue(firstQuestionMs[0] >= 0);
+        assertTrue(firstQuestionMs[0] < wholeDictionaryMs);
+        Log.i(TAG, WORDS + " words: first question after " + firstQuestionMs[0] + " ms (first "
+                + Util.DICTIONARY_READY_WORD_COUNT + " words), whole dictionary after " + wholeDictionaryMs + " ms");
+    }
+
+    private static byte[] buildDictionary(int words) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            json.append("  {\"text_eng\": \"english word ").append(i)
+                    .append("\", \"text_spa\": \"palabra española ").append(i).append("\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
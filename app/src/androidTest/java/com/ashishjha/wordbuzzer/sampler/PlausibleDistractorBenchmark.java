@@ -0,0 +1,182 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.loader.WordLoader;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.SimilarityKey;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+/*
+* Cost of the similarity_key index: import time of a dictionary of WORDS made up words, time and size of
+* building the index alone, and latency of a round's wrong options - Util.DISTRACTOR_BATCH_SIZE random words
+* (point lookups) against the same batch with Util.PLAUSIBLE_DISTRACTOR_COUNT of them looked up
+* by PlausibleDistractorFinder. Also the cost of SimilarityKey.of(), computed for every word imported.
+* Results are logged under tag "PlausibleDistractorBenchmark".
+* */
+public class PlausibleDistractorBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "PlausibleDistractorBenchmark";
+
+    private static final int WORDS = 100000;
+
+    private static final int ROUNDS = 1000;
+
+    // Index takes one (key, rowid) entry per word, a few bytes each plus b-tree overhead
+    private static final int MAX_INDEX_BYTES_PER_WORD = 32;
+
+    private static final String[] SYLLABLES = {"a", "al", "ba", "ca", "ción", "de", "e", "es", "fe", "ga", "jo", "la",
+            "lle", "ma", "mi", "ña", "no", "pe", "por", "que", "ra", "rro", "sa", "ta", "to", "tre", "u", "za"};
+
+    private RenamingDelegatingContext mContext;
+
+    private File mFilesDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFilesDir = new File(getContext().getCacheDir(), "benchmark_files");
+        mFilesDir.mkdirs();
+        // Store file of the app must not be replaced
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_") {
+            @Override
+            public File getFilesDir() {
+                return mFilesDir;
+            }
+        };
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        TranslationStoreFactory.getStoreFile(mContext, LanguagePair.DEFAULT).delete();
+        mFilesDir.delete();
+        super.tearDown();
+    }
+
+    public void testIndexCostAndRoundLatency() throws IOException {
+        long start = System.nanoTime();
+        int count = new WordLoader().loadDictionary(mContext, LanguagePair.DEFAULT,
+                new ByteArrayInputStream(buildDictionary(WORDS)), "benchmark", null);
+        long importMs = (System.nanoTime() - start) / 1000000;
+        assertEquals(WORDS, count);
+
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(mContext.getDatabasePath(Util.DATABASE_NAME).getPath(),
+                null, SQLiteDatabase.OPEN_READWRITE);
+        String index = Util.DATABASE_NAME + "_" + Util.SIMILARITY_KEY + "_index";
+        db.execSQL("drop index " + index);
+        db.execSQL("vacuum");
+        long bytesWithoutIndex = getDatabaseBytes(db);
+        start = System.nanoTime();
+        db.execSQL("create index " + index + " on " + Util.DATABASE_NAME + "(" + Util.SIMILARITY_KEY + ")");
+        long indexMs = (System.nanoTime() - start) / 1000000;
+        long indexBytes = getDatabaseBytes(db) - bytesWithoutIndex;
+        db.close();
+
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        RandomSource random = new SplitMixRandomSource(11);
+        PointLookupDistractorSampler sampler = new PointLookupDistractorSampler(dataSource,
+                new UniquePositionSampler(random));
+        PlausibleDistractorFinder finder = new PlausibleDistractorFinder(dataSource, random);
+        String[] words = new String[Util.DISTRACTOR_BATCH_SIZE];
+        String[] plausible = new String[Util.PLAUSIBLE_DISTRACTOR_COUNT];
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sampler.sample(WORDS, Util.DISTRACTOR_BATCH_SIZE, i + 1, words);
+        }
+        long randomUs = (System.nanoTime() - start) / 1000 / ROUNDS;
+
+        int sameKey = 0;
+        int sameFirstLetter = 0;
+        int found = 0;
+        long plausibleNanos = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            int pos = Util.getRandomNumber(random, 1, WORDS);
+            String answer = words[i % Util.DISTRACTOR_BATCH_SIZE];
+            sampler.sample(WORDS, Util.DISTRACTOR_BATCH_SIZE - Util.PLAUSIBLE_DISTRACTOR_COUNT, pos, words);
+            long findStart = System.nanoTime();
+            int n = finder.find(answer, pos, WORDS, Util.PLAUSIBLE_DISTRACTOR_COUNT, plausible);
+            plausibleNanos += System.nanoTime() - findStart;
+            long key = SimilarityKey.of(answer);
+            for (int j = 0; j < n; j++) {
+                long otherKey = SimilarityKey.of(plausible[j]);
+                assertFalse(answer.equals(plausible[j]));
+                if (otherKey == key) {
+                    sameKey++;
+                }
+                if (otherKey >= SimilarityKey.firstLetterStart(key) && otherKey <= SimilarityKey.firstLetterEnd(key)) {
+                    sameFirstLetter++;
+                }
+            }
+            found += n;
+        }
+        long mixedUs = (System.nanoTime() - start) / 1000 / ROUNDS;
+        sampler.close();
+        dataSource.close();
+
+        Log.i(TAG, WORDS + " words imported in " + importMs + " ms; similarity_key index: built in " + indexMs
+                + " ms, " + indexBytes + " bytes (" + indexBytes / WORDS + " per word); round: "
+                + Util.DISTRACTOR_BATCH_SIZE + " random words " + randomUs + " us, with "
+                + Util.PLAUSIBLE_DISTRACTOR_COUNT + " plausible " + mixedUs + " us (lookup "
+                + plausibleNanos / 1000 / ROUNDS + " us); plausible words found " + found + ", same key " + sameKey
+                + ", same first letter " + sameFirstLetter);
+        assertTrue("Index too big: " + indexBytes + " bytes", indexBytes <= (long) MAX_INDEX_BYTES_PER_WORD * WORDS);
+        assertEquals(found, sameFirstLetter);
+        assertTrue(found > ROUNDS * Util.PLAUSIBLE_DISTRACTOR_COUNT / 2);
+    }
+
+    public void testKeyCostPerWord() {
+        String[] words = new String[WORDS];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = (i % 3 == 0 ? "ñandú " : "palabra ") + i;
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (String word : words) {
+            checksum += SimilarityKey.of(word);
+        }
+        long nanos = System.nanoTime() - start;
+
+        Log.i(TAG, "SimilarityKey: " + nanos / words.length + " ns per word (checksum " + checksum + ")");
+        assertTrue(checksum != 0);
+    }
+
+    private static long getDatabaseBytes(SQLiteDatabase db) {
+        return DatabaseUtils.longForQuery(db, "pragma page_count", null)
+                * DatabaseUtils.longForQuery(db, "pragma page_size", null);
+    }
+
+    // Made up words of 1 - 4 syllables, so keys are spread like in a real dictionary
+    private static byte[] buildDictionary(int words) throws IOException {
+        RandomSource random = new SplitMixRandomSource(5);
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 1 + random.nextInt(4);
+            for (int j = 0; j < syllables; j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            json.append("  {\"").append(Util.TEXT_ENGLISH).append("\": \"word ").append(i)
+                    .append("\", \"").append(Util.TEXT_SPA).append("\": \"").append(word).append(' ').append(i % 7)
+                    .append("\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
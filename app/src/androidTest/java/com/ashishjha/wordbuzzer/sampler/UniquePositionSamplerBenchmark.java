@@ -0,0 +1,36 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* Throughput of UniquePositionSampler on a dictionary of a million words: batches of
+* Util.DISTRACTOR_BATCH_SIZE distinct positions, the positions a round's random words are read from.
+* Results are logged under tag "UniquePositionSamplerBenchmark".
+* */
+public class UniquePositionSamplerBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "UniquePositionSamplerBenchmark";
+
+    private static final int WORDS = 1000000;
+
+    private static final int BATCHES = 100000;
+
+    public void testBatchesOnMillionWords() {
+        UniquePositionSampler sampler = new UniquePositionSampler(new SplitMixRandomSource(5));
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < BATCHES; i++) {
+            int n = sampler.sample(WORDS, Util.DISTRACTOR_BATCH_SIZE, i % WORDS + 1);
+            checksum += sampler.getPositions()[n - 1];
+        }
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        Log.i(TAG, BATCHES * 1000000000L / nanos + " batches/sec of " + Util.DISTRACTOR_BATCH_SIZE
+                + " positions out of " + WORDS + " (checksum " + checksum + ")");
+        assertTrue(checksum > 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ashishjha.wordbuzzer.store;
+
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+* Compares per-round lookups (challenge + answer by position) of the cursor path (SqliteTranslationStore)
+* against the memory-mapped store (MappedTranslationStore) on the same dictionary.
+* JMH does not run on Android, so this is an instrumentation test; results are logged under tag "TranslationStoreBenchmark".
+* */
+public class TranslationStoreBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "TranslationStoreBenchmark";
+
+    private static final int WORD_COUNT = 100000;
+
+    private static final int LOOKUPS = 2000;
+
+    private RenamingDelegatingContext mContext;
+
+    private File mStoreFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = new RenamingDelegatingContext(getContext(), "benchmark_");
+        mStoreFile = new File(getContext().getCacheDir(), "benchmark_" + Util.TRANSLATION_STORE_FILE);
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext);
+        dataSource.open();
+        dataSource.deleteFromTable(Util.DATABASE_NAME, null, null);
+        TranslationStoreWriter writer = new TranslationStoreWriter(mStoreFile);
+        ArrayList<Translation> batch = new ArrayList<>(Util.IMPORT_BATCH_SIZE);
+        int startPos = 1;
+        for (int pos = 1; pos <= WORD_COUNT; pos++) {
+            batch.add(new Translation("english " + pos, "spanish " + pos));
+            writer.add("english " + pos, "spanish " + pos);
+            if (batch.size() == Util.IMPORT_BATCH_SIZE) {
+                dataSource.insertTranslations(batch, startPos);
+                startPos = pos + 1;
+                batch.clear();
+            }
+        }
+        dataSource.insertTranslations(batch, startPos);
+        dataSource.close();
+        writer.finish();
+        writer.close();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mContext.deleteDatabase(Util.DATABASE_NAME);
+        mStoreFile.delete();
+        super.tearDown();
+    }
+
+    public void testLookupLatency() throws Exception {
+        TranslationStore cursorStore = new SqliteTranslationStore(mContext, WORD_COUNT);
+        TranslationStore mappedStore = new MappedTranslationStore(mStoreFile);
+        // Warm up both paths
+        run(cursorStore, LOOKUPS / 10);
+        run(mappedStore, LOOKUPS / 10);
+        report("cursor", run(cursorStore, LOOKUPS));
+        report("mapped", run(mappedStore, LOOKUPS));
+        cursorStore.close();
+        mappedStore.close();
+    }
+
+    private long run(TranslationStore store, int lookups) {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            int pos = random.nextInt(WORD_COUNT) + 1;
+            assertEquals("english " + pos, store.getWordInLanguageOne(pos));
+            assertEquals("spanish " + pos, store.getWordInLanguageTwo(pos));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void report(String path, long elapsedNanos) {
+        Log.i(TAG, path + " rounds=" + LOOKUPS + " avg=" + (elapsedNanos / LOOKUPS / 1000) + "us/round");
+    }
+}
@@ -9,6 +9,7 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.support.v4.content.LocalBroadcastManager;
 
+import com.ashishjha.wordbuzzer.BuildConfig;
 import com.ashishjha.wordbuzzer.R;
 import com.ashishjha.wordbuzzer.services.DictionaryBuilderService;
 import com.ashishjha.wordbuzzer.utils.Util;
@@ -22,15 +23,26 @@ import com.ashishjha.wordbuzzer.utils.Util;
 * It starts service which loads dictionary to DB.
 * Once Dictionary is loaded, this activity receives BroadcastReceiver
 * and then launches WordBuzzerGameActivity
+* After an app update the dictionary in DB is brought in line with the new "words.json" the same way,
+* by applying only the difference (Util.UPDATE_DICTIONARY).
+* On a clean launch the game starts as soon as the first words are committed (Util.LOAD_DICTIONARY_READY),
+* the rest of the dictionary is imported while playing.
 * */
 public class SplashScreenActivity extends Activity {
 
     private boolean mIsCleanApp = true;
 
+    // Dictionary in DB comes from an older version of the app
+    private boolean mIsDictionaryOutdated;
+
+    // Dictionary is still being imported, but enough words are committed to play
+    private boolean mIsPlayable;
+
     private BroadcastReceiver mInterestingShowAdditionReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
-            if (intent.getAction() != null && intent.getAction().equals(Util.LOAD_DICTIONARY_COMPLETE)) {
+            if (Util.LOAD_DICTIONARY_COMPLETE.equals(intent.getAction())
+                    || Util.LOAD_DICTIONARY_READY.equals(intent.getAction())) {
                 launchWordBuzzerActivity();
                 finish();
             }
@@ -42,8 +54,17 @@ public class SplashScreenActivity extends Activity {
         super.onCreate(savedInstanceState);
         checkIsCleanLaunch();
         if (mIsCleanApp) {
+            // Also resumes an import interrupted on an earlier launch
+            startDictionaryBuilderService(Util.LOAD_DICTIONARY);
+            if (mIsPlayable) {
+                launchWordBuzzerActivity();
+                finish();
+            } else {
+                setContentView(R.layout.splash_screen_layout);
+            }
+        } else if (mIsDictionaryOutdated) {
             setContentView(R.layout.splash_screen_layout);
-            startDictionaryBuilderService();
+            startDictionaryBuilderService(Util.UPDATE_DICTIONARY);
         } else {
             launchWordBuzzerActivity();
             finish();
@@ -55,12 +76,13 @@ public class SplashScreenActivity extends Activity {
         super.onStart();
         // Check again - status of dictionary load may be changed while app in background
         checkIsCleanLaunch();
-        if (!mIsCleanApp) {
+        if ((!mIsCleanApp && !mIsDictionaryOutdated) || mIsPlayable) {
             launchWordBuzzerActivity();
             finish();
         } else {
             IntentFilter filter = new IntentFilter();
             filter.addAction(Util.LOAD_DICTIONARY_COMPLETE);
+            filter.addAction(Util.LOAD_DICTIONARY_READY);
             LocalBroadcastManager.getInstance(this).registerReceiver(mInterestingShowAdditionReceiver, filter);
         }
     }
@@ -81,15 +103,18 @@ public class SplashScreenActivity extends Activity {
         startActivity(intent);
     }
 
-    private void startDictionaryBuilderService() {
+    private void startDictionaryBuilderService(String action) {
         Intent intent = new Intent(this, DictionaryBuilderService.class);
-        intent.setAction(Util.LOAD_DICTIONARY);
+        intent.setAction(action);
         startService(intent);
     }
 
     private void checkIsCleanLaunch() {
         SharedPreferences prefs = getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE);
         mIsCleanApp = prefs.getBoolean(Util.IS_CLEAN_LAUNCH, true);
+        mIsDictionaryOutdated = prefs.getInt(Util.DICTIONARY_VERSION, 0) != BuildConfig.VERSION_CODE;
+        mIsPlayable = mIsCleanApp
+                && prefs.getInt(Util.WORDS_COUNT_IN_DICTIONARY, 0) >= Util.DICTIONARY_READY_WORD_COUNT;
     }
 
 }
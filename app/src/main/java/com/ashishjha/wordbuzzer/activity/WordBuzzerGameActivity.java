@@ -5,11 +5,14 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.ServiceConnection;
-import android.media.MediaPlayer;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.SystemClock;
 import android.support.v7.app.AppCompatActivity;
+import android.util.Log;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
@@ -17,8 +20,15 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import com.ashishjha.wordbuzzer.R;
+import com.ashishjha.wordbuzzer.audio.AnswerSoundPlayer;
+import com.ashishjha.wordbuzzer.game.BuzzerArbiter;
+import com.ashishjha.wordbuzzer.game.OptionSequencer;
+import com.ashishjha.wordbuzzer.game.WordTimeline;
+import com.ashishjha.wordbuzzer.model.QuizRound;
 import com.ashishjha.wordbuzzer.services.WordLoaderService;
+import com.ashishjha.wordbuzzer.store.WordTable;
 import com.ashishjha.wordbuzzer.utils.Util;
+import com.ashishjha.wordbuzzer.view.WordRendererView;
 
 /**
  * Created by ashish on 30/1/16.
@@ -33,13 +43,15 @@ import com.ashishjha.wordbuzzer.utils.Util;
 * move over the screen and then fade out again within 2 seconds. After one word is faded out, a new word is faded in (from opposite direction).
 * The players hit their buzzer when they think the correct translation set is presented.
 *
-* The first one hitting his button will get score incremented and score is display as text on button. Wrong answer decrements score.
+* The first one hitting his button (earliest touch down, see BuzzerArbiter) will get score incremented and score is display as text on button. Wrong answer decrements score.
 * No answer keeps score unchanged.
 *
 * The correct words are arranged randomly at a frequency of 20% (but placed randomly in the sequence).
 */
 public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoaderService.QuizChangeListener {
 
+    private static final String TAG = "WordBuzzerGameActivity";
+
     // Buttons representing four players at four corners of screen
     private Button mBuzzer1, mBuzzer2, mBuzzer3, mBuzzer4;
 
@@ -53,44 +65,77 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
     // For example, there should be no animation while user has clicked on buzzer and button animation is playing
     private boolean mIsGameInProgress;
 
-    // Click Listener for buzzer button click. Correct Answer gives button green color animation with "win" sound.
-    // Wrong answer gives red color animation with "loose" sound.
+    // Touch Listener for buzzer presses. Presses compete by the time they happened (mBuzzerArbiter), the winner's buzzer
+    // gets green color animation with "win" sound for a correct answer, red color animation with "loose" sound otherwise.
     // Also, new words (language "one" and "two") needs to be loaded. New set of random words to be shown also needs to be loaded.
-    private OnBuzzerClickListener mClickListener;
+    private OnBuzzerTouchListener mTouchListener;
+
+    // Decides who buzzed first from MotionEvent times. Armed while a round is played.
+    private BuzzerArbiter mBuzzerArbiter;
+
+    // Slot of every option word on the clock of the round, and when each word was on screen.
+    // Words keep their pace after a stall, a buzz is judged against the word on screen when it was pressed.
+    private WordTimeline mWordTimeline;
+
+    // Buzzers by player index of mBuzzerArbiter
+    private View[] mBuzzers;
+
+    // Sounds of answers, decoded while the activity is started (onStart .. onStop)
+    private AnswerSoundPlayer mSoundPlayer;
+
+    // Runs mDecideWinner at the end of the tie window opened by the first press
+    private Handler mHandler;
+
+    private final Runnable mDecideWinner = new Runnable() {
+        @Override
+        public void run() {
+            decideWinner();
+        }
+    };
+
+    // Animation of the buzzer answering (ans_anim), loaded once and restarted for every answer
+    private Animation mAnswerAnimation;
 
-    // Animation Listener for transition of language "two" words. Once animation ends, the direction of transition must be reverse from previous.
-    private WordTransitionAnimationListener mWordAnimationListener;
+    // Buzzer mAnswerAnimation is playing on
+    private View mAnsweringBuzzer;
 
     private Context mContext;
 
-    // To represent transition animations alternatively from left-to-right and right-to-left, two TextViews are saved (left-aligned and right-aligned)
-    private TextView mLeftToRightTV, mRightToLeftTV;
+    // Draws the words (language "two") moving alternatively left-to-right (top row) and right-to-left (bottom row).
+    // Once a word has moved out of the screen, the next one is shown from the opposite direction.
+    private WordRendererView mWordRenderer;
 
     // The TextView representing challenge (word in language "one")
     private TextView mQuizTV;
 
-    // Service with which this activity binds. The service is responsible for loading random words in background (50 at a time).
+    // Service with which this activity binds. The service is responsible for loading random words in background (a batch at a time).
     // Service also finds next "challenge" (language "one" word) and its associated correct answer.
     // Service notifies Activity through QuizChangeListener (defined in the service) which is implemented by this activity.
     // Activity gets its required members through instance of service fetched during "onServiceConnected" callback.
     private WordLoaderService mWordLoaderService;
 
-    // Stores array of random words. WordLoaderService provides about 50 random words which can be shown as options to players.
-    // Only 50 words are fetched in service as query in DB is done through random "word positions" stored in DB by using "IN" operator
-    // which is slow for large number of arguments
-    private String[] mRandomWords;
+    // Decides next option shown to players. WordLoaderService provides a batch of random words (Util.DISTRACTOR_BATCH_SIZE)
+    // and sequencer mixes correct answer in them at fixed frequency (Util.CORRECT_ANSWERS_PER_BLOCK in Util.OPTION_BLOCK_LENGTH).
+    private OptionSequencer mOptionSequencer;
 
-    // It holds the current index of the String displayed as option to players from mRandomWords
-    private int mCurrentRandomWordIndex;
+    // Text of words of the current round (QuizRound.getWordTable()). Words are passed around as handles (int) into this table,
+    // options are decoded straight into the buffer of mWordRenderer, a String is created only for the challenge. Equal words have equal handles.
+    private WordTable mWordTable;
 
     // Stores correct translation (in language "two" for language "one")
-    private String mCorrectAnswer;
+    private int mCorrectAnswer;
 
-    // Stores the current challenge String (language "one" displayed in center of screen")
-    private String mCurrentChallenge;
+    // Stores the current challenge (language "one" displayed in center of screen")
+    private int mCurrentChallenge;
 
-    // Stores current String which is displayed to players. This variable is useful for comparing equality with mCorrectAnswer.
-    private String mCurrentOptionInString;
+    // Round being played, answers are reported to WordLoaderService with it
+    private QuizRound mCurrentRound;
+
+    // Stores current word which is displayed to players.
+    private int mCurrentOption;
+
+    // Word on screen when the winning buzzer was pressed, compared with mCorrectAnswer. WordTimeline.NO_WORD if none.
+    private int mAnsweredOption = WordTimeline.NO_WORD;
 
     // Is this activity bound to WordLoaderService
     private boolean mBound = false;
@@ -113,7 +158,7 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
             mWordLoaderService = binder.getService();
             // Notify WordLoaderService that this Activity implements QuizChangeListener. Service uses this listener to notify Activity (callback)
             mWordLoaderService.setQuizChangeListener(mSelf);
-            // Initiate loading of 50 random words. Finding next random challenge and its correct translation.
+            // Initiate loading of a batch of random words. Finding next random challenge and its correct translation.
             // Activity is notified through QuizChangeListener callback
             mWordLoaderService.initGameWithWords();
             mBound = true;
@@ -134,21 +179,39 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
         mSelf = this;
 
         mQuizTV = (TextView) findViewById(R.id.quiz_word);
-        mLeftToRightTV = (TextView) findViewById(R.id.quiz_sol_top);
-        mRightToLeftTV = (TextView) findViewById(R.id.quiz_sol_bottom);
+        mWordRenderer = (WordRendererView) findViewById(R.id.word_renderer);
 
         mBuzzer1 = (Button) findViewById(R.id.buzzer_1);
         mBuzzer2 = (Button) findViewById(R.id.buzzer_2);
         mBuzzer3 = (Button) findViewById(R.id.buzzer_3);
         mBuzzer4 = (Button) findViewById(R.id.buzzer_4);
 
-        mClickListener = new OnBuzzerClickListener();
-        mWordAnimationListener = new WordTransitionAnimationListener();
+        mTouchListener = new OnBuzzerTouchListener();
+        mBuzzerArbiter = new BuzzerArbiter(4, Util.BUZZER_TIE_WINDOW_MS, Util.getRandomSource());
+        mBuzzers = new View[]{mBuzzer1, mBuzzer2, mBuzzer3, mBuzzer4};
+        // A press is decided within the tie window, a few words of history are plenty
+        mWordTimeline = new WordTimeline(Util.WORD_DURATION_MS, 4);
+        mHandler = new Handler();
+        mSoundPlayer = new AnswerSoundPlayer(this);
+        mWordRenderer.setListener(new WordRendererView.Listener() {
+            @Override
+            public void onWordEnd() {
+                showNextOptionForQuiz();
+            }
+        });
+        mAnswerAnimation = AnimationUtils.loadAnimation(this, R.anim.ans_anim);
+        mAnswerAnimation.setAnimationListener(new AnswerAnimationListener());
+        mOptionSequencer = new OptionSequencer(Util.getRandomSource(), new OptionSequencer.RandomWordsProvider() {
+            @Override
+            public int[] getRandomWords() {
+                return mWordLoaderService.getRandomWords();
+            }
+        }, Util.CORRECT_ANSWERS_PER_BLOCK, Util.OPTION_BLOCK_LENGTH);
 
-        mBuzzer1.setOnClickListener(mClickListener);
-        mBuzzer2.setOnClickListener(mClickListener);
-        mBuzzer3.setOnClickListener(mClickListener);
-        mBuzzer4.setOnClickListener(mClickListener);
+        mBuzzer1.setOnTouchListener(mTouchListener);
+        mBuzzer2.setOnTouchListener(mTouchListener);
+        mBuzzer3.setOnTouchListener(mTouchListener);
+        mBuzzer4.setOnTouchListener(mTouchListener);
 
         if (savedInstanceState != null) {
             // Currently we are saving and restoring only the scores
@@ -170,6 +233,7 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
         super.onStart();
         // TODO - Currently we reset game whenever Activity enters onStart state. We need to extend it to save and restore entire previous game state.
         clearAllWordsTransition();
+        mSoundPlayer.load();
         if (mLoadingProgressDialog == null) {
             mLoadingProgressDialog = new ProgressDialog(this);
         }
@@ -178,7 +242,6 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
         // Bind to the service
         Intent intent = new Intent(this, WordLoaderService.class);
         bindService(intent, mConnection, Context.BIND_AUTO_CREATE);
-        mCurrentRandomWordIndex = 0;
     }
 
     @Override
@@ -186,6 +249,13 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
         super.onStop();
         clearAllWordsTransition();
         mIsGameInProgress = false;
+        mBuzzerArbiter.disarm();
+        mHandler.removeCallbacks(mDecideWinner);
+        mSoundPlayer.release();
+        Log.d(TAG, "Word frames: " + mWordRenderer.getFrameStats().getReport());
+        mWordRenderer.getFrameStats().reset();
+        Log.d(TAG, "Word slots skipped after stalls: " + mWordTimeline.getSkippedSlots() + ", latest word start "
+                + mWordTimeline.getMaxLateMillis() + " ms into its slot");
         // Dismiss Progress Dialog if visible
         if (mLoadingProgressDialog != null && mLoadingProgressDialog.isShowing()) {
             mLoadingProgressDialog.dismiss();
@@ -207,102 +277,104 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
     }
 
     /*
-    * This callback is called from WordLoaderService when reset state is called (WordLoaderService.initGameWithWords).
-    * This is the first callback called as a result of call to the WordLoaderService.initGameWithWords.
-    * String[] randomWords - array of about 50 random words which can be shown as options to user
-    */
-    @Override
-    public void setNextRandomWords(String[] randomWords) {
-        mCurrentRandomWordIndex = 0;
-        mRandomWords = randomWords;
-    }
-
-    /*
-    * This method is called after call to setNextRandomWords().
-    * String nextChallenge - The challenge (language "one" quiz) to be displayed at center of screen
+    * This callback is called from WordLoaderService as a result of call to WordLoaderService.initGameWithWords,
+    * either on UI thread (prefetched round) or on service's background thread.
+    * QuizRound round - challenge (language "one" quiz) to be displayed at center of screen, its correct translation
+    * (language "two") and batch of random words which can be shown as options to user.
+    * Round is applied on UI thread only, so game state is never mutated from service's thread.
     */
     @Override
-    public void setNextChallenge(String nextChallenge) {
-        mCurrentChallenge = nextChallenge;
+    public void onNextRound(final QuizRound round) {
         runOnUiThread(new Runnable() {
             @Override
             public void run() {
-                // Set Current Challenge Word
-                mQuizTV.setText(mCurrentChallenge);
+                startRound(round);
             }
         });
     }
 
-    /*
-    * This method is called after call to setNextChallenge().
-    * String correctAnswer - The correct translation (in language "two") of the "challenge" displayed in center of screen (in language "one"
-    */
-    @Override
-    public void setCorrectAnswer(String correctAnswer) {
-        mCorrectAnswer = correctAnswer;
-        // Update random word list by inserting correct answer at random positions
-        updateListWithCorrectAnswers();
-        // Send request to service to prepare next list of random words
-        // for the same challenge
-        mWordLoaderService.getNextRandomWords();
-        runOnUiThread(new Runnable() {
-            @Override
-            public void run() {
-                // Dismiss Progress Dialog
-                if (mLoadingProgressDialog != null && mLoadingProgressDialog.isShowing()) {
-                    mLoadingProgressDialog.dismiss();
-                }
-                // Start animations - word transition animations since we have now all the data to start the game.
-                mIsGameInProgress = true;
-                showNextOptionForQuiz();
-            }
-        });
-    }
-
-    /*
-    * Inserts correct answer at frequency of 20% in the  mRandomWords[] (list of random words) obtained from service.
-    * The placement of correct answer is also based on random order.
-    * Therefore as a result of this array - mRandomWords is extended to included correct answers at frequency of 20% at random position.
-    */
-    private void updateListWithCorrectAnswers() {
-        // 20% of random words should be correct answers
-        int noOfEntryToAddForCorrect = mRandomWords.length / 5;
-        int newSize = mRandomWords.length + noOfEntryToAddForCorrect;
-        String[] newRandomStr = new String[newSize];
-        for (int i = 0; i < mRandomWords.length; i++) {
-            newRandomStr[i] = mRandomWords[i];
-        }
-        int indexForAdding = mRandomWords.length;
-        for (int i = 0; i < noOfEntryToAddForCorrect; i++) {
-            int randomIndex = Util.getRandomNumber(0, mRandomWords.length - 1);
-            insertCorrectAnswer(newRandomStr, randomIndex, indexForAdding++);
+    private void startRound(QuizRound round) {
+        mCurrentRound = round;
+        mCurrentChallenge = round.getChallenge();
+        mCorrectAnswer = round.getCorrectAnswer();
+        // Rounds may come with another table than the previous one - word shown was already decoded
+        mWordTable = round.getWordTable();
+        mWordRenderer.setWordTable(mWordTable);
+        // Set Current Challenge Word
+        mQuizTV.setText(mWordTable.getWord(mCurrentChallenge));
+        // Options are random words with correct answer at random positions
+        // (service prepares next list of random words for the same challenge in background)
+        mOptionSequencer.start(mCorrectAnswer, round.getRandomWords());
+        // Dismiss Progress Dialog
+        if (mLoadingProgressDialog != null && mLoadingProgressDialog.isShowing()) {
+            mLoadingProgressDialog.dismiss();
         }
-        mCurrentRandomWordIndex = 0;
-        mRandomWords = newRandomStr;
-    }
-
-    private void insertCorrectAnswer(String[] newRandomStr, int x, int y) {
-        newRandomStr[y] = newRandomStr[x];
-        newRandomStr[x] = mCorrectAnswer;
+        // Start animations - word transition animations since we have now all the data to start the game.
+        mIsGameInProgress = true;
+        mHandler.removeCallbacks(mDecideWinner);
+        long now = SystemClock.uptimeMillis();
+        mBuzzerArbiter.arm(now);
+        mWordTimeline.start(now);
+        showNextOptionForQuiz();
     }
 
     private void clearAllWordsTransition() {
-        mLeftToRightTV.clearAnimation();
-        mRightToLeftTV.clearAnimation();
+        mWordRenderer.stop();
+        mWordTimeline.stop(SystemClock.uptimeMillis());
     }
 
-    class OnBuzzerClickListener implements View.OnClickListener {
+    /*
+    * Every finger touching down on a buzzer (ACTION_DOWN, ACTION_POINTER_DOWN) is a press at its event time -
+    * when the screen was touched, not when the event reached this thread. The first press freezes the option shown
+    * and the winner is decided once the tie window is over, so a press delivered late still wins if it came first.
+    * Events are not consumed, buttons keep their pressed state.
+    * */
+    class OnBuzzerTouchListener implements View.OnTouchListener {
 
         @Override
-        public void onClick(View v) {
-            if (v == null) {
-                return;
+        public boolean onTouch(View v, MotionEvent event) {
+            int action = event.getActionMasked();
+            if (action != MotionEvent.ACTION_DOWN && action != MotionEvent.ACTION_POINTER_DOWN) {
+                return false;
+            }
+            boolean isFirstPress = !mBuzzerArbiter.hasPress();
+            if (!mBuzzerArbiter.onPress(getPlayer(v), event.getEventTime())) {
+                return false;
+            }
+            if (isFirstPress) {
+                // Option on screen now is the one answered, whoever wins
+                mIsGameInProgress = false;
             }
-            showBuzzerResponseAnimation(v);
+            // A press delivered late may have happened before the first one - window then ends earlier
+            mHandler.removeCallbacks(mDecideWinner);
+            mHandler.postAtTime(mDecideWinner, mBuzzerArbiter.getDecisionTime());
+            return false;
         }
     }
 
-    class WordTransitionAnimationListener implements Animation.AnimationListener {
+    private int getPlayer(View buzzer) {
+        for (int i = 0; i < mBuzzers.length; i++) {
+            if (mBuzzers[i] == buzzer) {
+                return i;
+            }
+        }
+        return BuzzerArbiter.NO_PLAYER;
+    }
+
+    private void decideWinner() {
+        int winner = mBuzzerArbiter.decide(SystemClock.uptimeMillis());
+        if (winner == BuzzerArbiter.NO_PLAYER) {
+            return;
+        }
+        // The word players saw when pressing, the one on screen now may have changed since
+        mAnsweredOption = mWordTimeline.getWordAt(mBuzzerArbiter.getWinnerPressTime());
+        showBuzzerResponseAnimation(mBuzzers[winner]);
+    }
+
+    /*
+    * End of answer animation on mAnsweringBuzzer - its score is updated and next round is loaded.
+    * */
+    class AnswerAnimationListener implements Animation.AnimationListener {
 
         @Override
         public void onAnimationStart(Animation animation) {
@@ -311,7 +383,53 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
 
         @Override
         public void onAnimationEnd(Animation animation) {
-            showNextOptionForQuiz();
+            View view = mAnsweringBuzzer;
+            boolean isCorrect = mAnsweredOption == mCorrectAnswer;
+            switch (view.getId()) {
+                case R.id.buzzer_1:
+                    setViewBackground(view, R.drawable.buzzer_1_drawable);
+                    if (isCorrect) {
+                        mScore1++;
+                    } else {
+                        mScore1--;
+                    }
+                    mBuzzer1.setText(mScore1 + "");
+                    break;
+                case R.id.buzzer_2:
+                    setViewBackground(view, R.drawable.buzzer_2_drawable);
+                    if (isCorrect) {
+                        mScore2++;
+                    } else {
+                        mScore2--;
+                    }
+                    mBuzzer2.setText(mScore2 + "");
+                    break;
+                case R.id.buzzer_3:
+                    setViewBackground(view, R.drawable.buzzer_3_drawable);
+                    if (isCorrect) {
+                        mScore3++;
+                    } else {
+                        mScore3--;
+                    }
+                    mBuzzer3.setText(mScore3 + "");
+                    break;
+                case R.id.buzzer_4:
+                    setViewBackground(view, R.drawable.buzzer_4_drawable);
+                    if (isCorrect) {
+                        mScore4++;
+                    } else {
+                        mScore4--;
+                    }
+                    mBuzzer4.setText(mScore4 + "");
+                    break;
+            }
+
+            // Refresh all data
+            mWordLoaderService.initGameWithWords();
+
+            // mLoadingProgressDialog = ProgressDialog.show(mContext, "Loading...", "", true);
+            // mLoadingProgressDialog.setCancelable(false);
+            // mLoadingProgressDialog.show();
         }
 
         @Override
@@ -327,78 +445,23 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
         setAnimationBasedOnAnswer(v);
     }
 
-    private void setAnimationBasedOnAnswer(final View view) {
-        boolean isCorrect = mCurrentOptionInString.equals(mCorrectAnswer);
+    private void setAnimationBasedOnAnswer(View view) {
+        boolean isCorrect = mAnsweredOption == mCorrectAnswer;
+        if (mBound) {
+            // Words players miss come back more often
+            mWordLoaderService.recordAnswer(mCurrentRound, isCorrect);
+        }
+        // Right away rather than when the animation starts (next frame)
+        mSoundPlayer.play(isCorrect, mBuzzerArbiter.getWinnerPressTime());
         if (isCorrect) {
             setViewBackground(view, R.drawable.correct_answer_drawable);
         } else {
             setViewBackground(view, R.drawable.wrong_answer_drawable);
         }
-        Animation anim = AnimationUtils.loadAnimation(WordBuzzerGameActivity.this,
-                R.anim.ans_anim);
-        anim.setAnimationListener(new Animation.AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
-                boolean isCorrect = mCurrentOptionInString.equals(mCorrectAnswer);
-                playSoundForAnswer(isCorrect);
-            }
-
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                boolean isCorrect = mCurrentOptionInString.equals(mCorrectAnswer);
-                switch (view.getId()) {
-                    case R.id.buzzer_1:
-                        setViewBackground(view, R.drawable.buzzer_1_drawable);
-                        if (isCorrect) {
-                            mScore1++;
-                        } else {
-                            mScore1--;
-                        }
-                        mBuzzer1.setText(mScore1 + "");
-                        break;
-                    case R.id.buzzer_2:
-                        setViewBackground(view, R.drawable.buzzer_2_drawable);
-                        if (isCorrect) {
-                            mScore2++;
-                        } else {
-                            mScore2--;
-                        }
-                        mBuzzer2.setText(mScore2 + "");
-                        break;
-                    case R.id.buzzer_3:
-                        setViewBackground(view, R.drawable.buzzer_3_drawable);
-                        if (isCorrect) {
-                            mScore3++;
-                        } else {
-                            mScore3--;
-                        }
-                        mBuzzer3.setText(mScore3 + "");
-                        break;
-                    case R.id.buzzer_4:
-                        setViewBackground(view, R.drawable.buzzer_4_drawable);
-                        if (isCorrect) {
-                            mScore4++;
-                        } else {
-                            mScore4--;
-                        }
-                        mBuzzer4.setText(mScore4 + "");
-                        break;
-                }
-
-                // Refresh all data
-                mWordLoaderService.initGameWithWords();
-
-                // mLoadingProgressDialog = ProgressDialog.show(mContext, "Loading...", "", true);
-                // mLoadingProgressDialog.setCancelable(false);
-                // mLoadingProgressDialog.show();
-            }
-
-            @Override
-            public void onAnimationRepeat(Animation animation) {
-
-            }
-        });
-        view.startAnimation(anim);
+        mAnsweringBuzzer = view;
+        // Same animation object every answer, rewound
+        mAnswerAnimation.reset();
+        view.startAnimation(mAnswerAnimation);
     }
 
     /*
@@ -406,12 +469,8 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
     */
     private void showNextOptionForQuiz() {
         if (mIsGameInProgress) {
-            if (mCurrentRandomWordIndex == mRandomWords.length) {
-                // All previous random word list finished. Fetch new random word list from service.
-                mRandomWords = mWordLoaderService.getRandomWords();
-                updateListWithCorrectAnswers();
-            }
-            mCurrentOptionInString = mRandomWords[mCurrentRandomWordIndex];
+            // Once previous random word list is finished, sequencer fetches new random word list from service.
+            mCurrentOption = mOptionSequencer.next();
             startWordTransitionAnimation();
         }
     }
@@ -420,48 +479,12 @@ public class WordBuzzerGameActivity extends AppCompatActivity implements WordLoa
     * Responsible for controlling direction of transition animation for word option (word in language "two").
     */
     private void startWordTransitionAnimation() {
-        if (mIsLeftToRightTransitionInProgress) {
-            // previous transition was "left to right". Now start "right to left"
-            mIsLeftToRightTransitionInProgress = false;
-            mLeftToRightTV.setVisibility(View.GONE);
-            mRightToLeftTV.setVisibility(View.VISIBLE);
-
-            mRightToLeftTV.setText(mRandomWords[mCurrentRandomWordIndex++]);
-
-            Animation anim = AnimationUtils.loadAnimation(WordBuzzerGameActivity.this,
-                    R.anim.right_to_left);
-            mRightToLeftTV.startAnimation(anim);
-            anim.setAnimationListener(mWordAnimationListener);
-        } else {
-            // previous transition was "right to left". Now start "left to right"
-            mIsLeftToRightTransitionInProgress = true;
-            mRightToLeftTV.setVisibility(View.GONE);
-            mLeftToRightTV.setVisibility(View.VISIBLE);
-
-            mLeftToRightTV.setText(mRandomWords[mCurrentRandomWordIndex++]);
-
-            Animation anim = AnimationUtils.loadAnimation(WordBuzzerGameActivity.this,
-                    R.anim.left_to_right);
-            mLeftToRightTV.setAnimation(anim);
-            anim.setAnimationListener(mWordAnimationListener);
-        }
-    }
-
-    private void playSoundForAnswer(boolean isCorrect) {
-        MediaPlayer mediaPlayer;
-        if (isCorrect) {
-            mediaPlayer = MediaPlayer.create(getApplicationContext(), R.raw.correct_answer);
-        } else {
-            mediaPlayer = MediaPlayer.create(getApplicationContext(), R.raw.wrong_answer);
-        }
-        mediaPlayer.start();
-        mediaPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-
-            @Override
-            public void onCompletion(MediaPlayer mp) {
-                mp.release();
-            }
-        });
+        // previous transition was "left to right" - now "right to left", and the other way round
+        mIsLeftToRightTransitionInProgress = !mIsLeftToRightTransitionInProgress;
+        // Word leaves the screen at the end of its slot, whenever this runs
+        long start = mWordTimeline.scheduleWord(mCurrentOption, SystemClock.uptimeMillis());
+        mWordRenderer.showWord(mCurrentOption, mIsLeftToRightTransitionInProgress, start,
+                start + mWordTimeline.getWordDurationMillis());
     }
 
     private void setViewBackground(View view, int drawable) {
@@ -0,0 +1,121 @@
+package com.ashishjha.wordbuzzer.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.SoundPool;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.R;
+
+/*
+* Sounds of correct and wrong answers. Both clips are decoded once by load() (WordBuzzerGameActivity.onStart)
+* into a SoundPool, so playing one is a call into an already prepared native player - no decoding, no allocation.
+* release() (onStop) frees the pool and its decoded clips right away instead of waiting for finalization.
+*
+* Decoding is asynchronous; an answer given before its clip is decoded plays no sound (logged).
+* Every play logs buzz-to-sound latency: from the winning press (MotionEvent time) to the clip being started.
+* Used from UI thread only.
+* */
+public class AnswerSoundPlayer {
+
+    private static final String TAG = "AnswerSoundPlayer";
+
+    // Correct and wrong answer sounds never play at the same time, one more stream lets a sound fade out
+    private static final int MAX_STREAMS = 2;
+
+    private final Context mContext;
+
+    private SoundPool mSoundPool;
+
+    private int mCorrectSoundId;
+
+    private int mWrongSoundId;
+
+    private boolean mIsCorrectSoundLoaded;
+
+    private boolean mIsWrongSoundLoaded;
+
+    private long mLoadStartTime;
+
+    public AnswerSoundPlayer(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    // Decodes both clips in background, no-op if already loaded
+    public void load() {
+        if (mSoundPool != null) {
+            return;
+        }
+        mLoadStartTime = SystemClock.uptimeMillis();
+        mSoundPool = createSoundPool();
+        mSoundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+            @Override
+            public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
+                onSoundLoaded(soundPool, sampleId, status);
+            }
+        });
+        mCorrectSoundId = mSoundPool.load(mContext, R.raw.correct_answer, 1);
+        mWrongSoundId = mSoundPool.load(mContext, R.raw.wrong_answer, 1);
+    }
+
+    private void onSoundLoaded(SoundPool soundPool, int sampleId, int status) {
+        if (soundPool != mSoundPool) {
+            // Released meanwhile
+            return;
+        }
+        if (status != 0) {
+            Log.d(TAG, "Could not decode sound " + sampleId + ", status " + status);
+            return;
+        }
+        if (sampleId == mCorrectSoundId) {
+            mIsCorrectSoundLoaded = true;
+        } else if (sampleId == mWrongSoundId) {
+            mIsWrongSoundLoaded = true;
+        }
+        if (mIsCorrectSoundLoaded && mIsWrongSoundLoaded) {
+            Log.d(TAG, "Answer sounds decoded in " + (SystemClock.uptimeMillis() - mLoadStartTime) + " ms");
+        }
+    }
+
+    /*
+    * Plays sound of an answer. buzzTime - event time (SystemClock.uptimeMillis() clock) of the press answering,
+    * used to log buzz-to-sound latency.
+    * */
+    public void play(boolean isCorrect, long buzzTime) {
+        boolean isLoaded = isCorrect ? mIsCorrectSoundLoaded : mIsWrongSoundLoaded;
+        if (mSoundPool == null || !isLoaded) {
+            Log.d(TAG, "Answer sound not decoded yet, not played");
+            return;
+        }
+        mSoundPool.play(isCorrect ? mCorrectSoundId : mWrongSoundId, 1f, 1f, 1, 0, 1f);
+        Log.d(TAG, "Buzz to sound: " + (SystemClock.uptimeMillis() - buzzTime) + " ms");
+    }
+
+    // Frees the decoded clips, load() must be called again before next play()
+    public void release() {
+        if (mSoundPool != null) {
+            mSoundPool.release();
+            mSoundPool = null;
+        }
+        mIsCorrectSoundLoaded = false;
+        mIsWrongSoundLoaded = false;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static SoundPool createSoundPool() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            AudioAttributes attributes = new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_GAME)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build();
+            return new SoundPool.Builder()
+                    .setMaxStreams(MAX_STREAMS)
+                    .setAudioAttributes(attributes)
+                    .build();
+        }
+        return new SoundPool(MAX_STREAMS, AudioManager.STREAM_MUSIC, 0);
+    }
+}
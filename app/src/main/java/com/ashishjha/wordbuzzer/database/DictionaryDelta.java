@@ -0,0 +1,237 @@
+package com.ashishjha.wordbuzzer.database;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.TranslationFingerprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+* Difference between dictionary rows in DB and a new dictionary, found by fingerprint (TranslationFingerprint).
+* 1) addRow() every row of DB, in position order
+* 2) offer() every translation of the new dictionary
+* 3) finish() plans the changes:
+*    - rows whose translation is not in the new dictionary are deleted (full sync only, never appended rows),
+*    - new translations take the lowest free positions (deleted rows and gaps), then follow the last position,
+*    - if holes are left, last rows are moved down into them,
+* so positions stay contiguous from 1 without rewriting unchanged rows.
+* Equal translations are counted - a translation listed twice keeps two rows.
+* Pure Java, applied to DB by WordBuzzerDataSource.applyDelta().
+* */
+public class DictionaryDelta {
+
+    private static final int NO_ROW = -1;
+
+    private final boolean mIsAppend;
+
+    // DB rows, ordered by position
+    private int[] mPositions = new int[1024];
+
+    private long[] mFingerprints = new long[1024];
+
+    // Appended rows (Util.IS_APPENDED) are never deleted by a sync of bundled dictionary
+    private boolean[] mIsAppended = new boolean[1024];
+
+    private boolean[] mIsMatched;
+
+    private int mRowCount;
+
+    // Open addressing index of rows by fingerprint, NO_ROW for empty slot
+    private int[] mSlots;
+
+    private final ArrayList<Translation> mNewTranslations = new ArrayList<>();
+
+    private int mOfferedCount;
+
+    // Result of finish()
+    private int[] mDeletedPositions = new int[0];
+
+    private int[] mMoveFrom = new int[0], mMoveTo = new int[0];
+
+    private int[] mInsertPositions = new int[0];
+
+    private int mLastPosition;
+
+    /*
+    * isAppend - true when adding an extra dictionary file: nothing is deleted, only new translations are inserted.
+    * */
+    public DictionaryDelta(boolean isAppend) {
+        mIsAppend = isAppend;
+    }
+
+    public boolean isAppend() {
+        return mIsAppend;
+    }
+
+    // Adds a DB row. Rows must come in ascending position order.
+    public void addRow(int position, long fingerprint, boolean isAppended) {
+        if (mRowCount > 0 && position <= mPositions[mRowCount - 1]) {
+            throw new IllegalArgumentException("Rows must be added in ascending position order");
+        }
+        if (mRowCount == mPositions.length) {
+            mPositions = Arrays.copyOf(mPositions, mRowCount * 2);
+            mFingerprints = Arrays.copyOf(mFingerprints, mRowCount * 2);
+            mIsAppended = Arrays.copyOf(mIsAppended, mRowCount * 2);
+        }
+        mPositions[mRowCount] = position;
+        mFingerprints[mRowCount] = fingerprint;
+        mIsAppended[mRowCount] = isAppended;
+        mRowCount++;
+    }
+
+    /*
+    * Offers a translation of the new dictionary. Translations with a missing word are ignored.
+    * */
+    public void offer(String wordInLanguageOne, String wordInLanguageTwo) {
+        if (wordInLanguageOne == null || wordInLanguageTwo == null) {
+            return;
+        }
+        if (mSlots == null) {
+            buildIndex();
+        }
+        mOfferedCount++;
+        long fingerprint = TranslationFingerprint.of(wordInLanguageOne, wordInLanguageTwo);
+        int mask = mSlots.length - 1;
+        int slot = spread(fingerprint) & mask;
+        int row;
+        while ((row = mSlots[slot]) != NO_ROW) {
+            if (mFingerprints[row] == fingerprint && !mIsMatched[row]) {
+                mIsMatched[row] = true;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        mNewTranslations.add(new Translation(wordInLanguageOne, wordInLanguageTwo));
+    }
+
+    private void buildIndex() {
+        int slots = Integer.highestOneBit(Math.max(mRowCount, 2) * 2 - 1) << 1;
+        mSlots = new int[slots];
+        Arrays.fill(mSlots, NO_ROW);
+        mIsMatched = new boolean[mRowCount];
+        int mask = slots - 1;
+        for (int row = 0; row < mRowCount; row++) {
+            int slot = spread(mFingerprints[row]) & mask;
+            while (mSlots[slot] != NO_ROW) {
+                slot = (slot + 1) & mask;
+            }
+            mSlots[slot] = row;
+        }
+    }
+
+    private static int spread(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    /*
+    * Plans deletes, inserts and moves once every row and translation has been added.
+    * */
+    public void finish() {
+        if (mSlots == null) {
+            buildIndex();
+        }
+        boolean[] isDeleted = new boolean[mRowCount];
+        int deletedCount = 0;
+        if (!mIsAppend) {
+            for (int row = 0; row < mRowCount; row++) {
+                if (!mIsMatched[row] && !mIsAppended[row]) {
+                    isDeleted[row] = true;
+                    deletedCount++;
+                }
+            }
+        }
+        mDeletedPositions = new int[deletedCount];
+        int lastPosition = mRowCount == 0 ? 0 : mPositions[mRowCount - 1];
+        // Holes - positions of deleted rows and positions never used (gaps), ascending
+        int[] holes = new int[lastPosition - mRowCount + deletedCount];
+        int holeCount = 0;
+        int row = 0;
+        int deleted = 0;
+        for (int position = 1; position <= lastPosition; position++) {
+            if (mPositions[row] != position) {
+                holes[holeCount++] = position;
+            } else {
+                if (isDeleted[row]) {
+                    mDeletedPositions[deleted++] = position;
+                    holes[holeCount++] = position;
+                }
+                row++;
+            }
+        }
+
+        // New translations fill holes first, then go after the last position
+        int newCount = mNewTranslations.size();
+        mInsertPositions = new int[newCount];
+        int nextHole = 0;
+        for (int i = 0; i < newCount; i++) {
+            mInsertPositions[i] = nextHole < holeCount ? holes[nextHole++] : ++lastPosition;
+        }
+
+        // Remaining holes are filled with the last surviving rows
+        int moveCount = 0;
+        int[] moveFrom = new int[holeCount - nextHole];
+        int[] moveTo = new int[holeCount - nextHole];
+        int tail = mRowCount - 1;
+        int lastHole = holeCount - 1;
+        while (nextHole <= lastHole) {
+            // Drop holes at the end - nothing to move into them
+            if (holes[lastHole] == lastPosition) {
+                lastHole--;
+                lastPosition--;
+                continue;
+            }
+            while (tail >= 0 && isDeleted[tail]) {
+                tail--;
+            }
+            if (tail < 0 || mPositions[tail] != lastPosition) {
+                // lastPosition is a gap or deleted row not listed as hole - can not happen, positions are consistent
+                throw new IllegalStateException("Inconsistent positions at " + lastPosition);
+            }
+            moveFrom[moveCount] = lastPosition;
+            moveTo[moveCount] = holes[nextHole++];
+            moveCount++;
+            tail--;
+            lastPosition--;
+        }
+        mMoveFrom = Arrays.copyOf(moveFrom, moveCount);
+        mMoveTo = Arrays.copyOf(moveTo, moveCount);
+        mLastPosition = lastPosition;
+    }
+
+    // Number of translations offered (with both words)
+    public int getOfferedCount() {
+        return mOfferedCount;
+    }
+
+    public int[] getDeletedPositions() {
+        return mDeletedPositions;
+    }
+
+    public List<Translation> getNewTranslations() {
+        return mNewTranslations;
+    }
+
+    // Position of each of getNewTranslations()
+    public int[] getInsertPositions() {
+        return mInsertPositions;
+    }
+
+    // Rows to move - getMoveFrom()[i] goes to getMoveTo()[i]
+    public int[] getMoveFrom() {
+        return mMoveFrom;
+    }
+
+    public int[] getMoveTo() {
+        return mMoveTo;
+    }
+
+    // Word count (last position) once the delta is applied
+    public int getLastPosition() {
+        return mLastPosition;
+    }
+
+    public boolean isEmpty() {
+        return mDeletedPositions.length == 0 && mNewTranslations.isEmpty() && mMoveFrom.length == 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ashishjha.wordbuzzer.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/*
+* One step of schema upgrade - from getStartVersion() to getStartVersion() + 1.
+* Runs inside the upgrade transaction opened by SQLiteOpenHelper, so a failing step leaves DB on its old version.
+* Migrations must keep the data - existing installs are upgraded in place, not reimported.
+* */
+public abstract class Migration {
+
+    private final int mStartVersion;
+
+    protected Migration(int startVersion) {
+        mStartVersion = startVersion;
+    }
+
+    public int getStartVersion() {
+        return mStartVersion;
+    }
+
+    public abstract void migrate(SQLiteDatabase db);
+}
@@ -3,8 +3,22 @@ package com.ashishjha.wordbuzzer.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.ashishjha.wordbuzzer.game.QuestionScheduler;
+import com.ashishjha.wordbuzzer.model.ImportCheckpoint;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.model.WordStats;
+import com.ashishjha.wordbuzzer.utils.SimilarityKey;
+import com.ashishjha.wordbuzzer.utils.TranslationFingerprint;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by ashish on 30/1/16.
@@ -12,35 +26,382 @@ import android.database.sqlite.SQLiteDatabase;
 /*
 * Abstraction for SqliteDatabase class - WordBuzzerSqliteOpenHelper
 * Provides interface for insertion, deletion and query
+* Connection is shared through WordBuzzerDatabaseManager - open() and close() only acquire and release it.
+* An instance works on the translation table of one language pair (LanguagePair.DEFAULT unless given).
 * */
 public class WordBuzzerDataSource {
 
     private SQLiteDatabase mDatabase;
-    private WordBuzzerSqliteOpenHelper mWordBuzzerSQLiteOpenHelper;
+    private WordBuzzerDatabaseManager mDatabaseManager;
+
+    // Compiled once per open connection and reused for every row of a bulk import
+    private SQLiteStatement mInsertTranslationStatement;
+
+    private SQLiteStatement mCheckpointStatement;
+
+    private static final String CHECKPOINT_SQL = "insert or replace into "
+            + Util.IMPORT_CHECKPOINT_TABLE + "("
+            + Util.CHECKPOINT_SOURCE + ", "
+            + Util.NEXT_POSITION + ", "
+            + Util.IS_COMPLETE
+            + ") values (?, ?, ?)";
+
+    private static final String REGISTER_LANGUAGE_PAIR_SQL = "insert or replace into "
+            + Util.LANGUAGE_PAIR_TABLE + "("
+            + Util.PAIR_ID + ", "
+            + Util.LANGUAGE_ONE + ", "
+            + Util.LANGUAGE_TWO + ", "
+            + Util.WORD_COUNT
+            + ") values (?, ?, ?, ?)";
+
+    // Translation table and columns of mLanguagePair
+    private final LanguagePair mLanguagePair;
 
+    private final String mInsertTranslationSql;
+
+    private final String mDeleteTranslationSql;
+
+    private final String mMoveTranslationSql;
+
+    private final String mUpdateWordStatsSql;
+
+    // Default language pair (LanguagePair.DEFAULT)
     public WordBuzzerDataSource(Context context) {
-        mWordBuzzerSQLiteOpenHelper = new WordBuzzerSqliteOpenHelper(
-                context);
+        this(context, LanguagePair.DEFAULT);
+    }
+
+    /*
+    * Translations are read and written in the table of languagePair. Import checkpoints and the language_pair
+    * registry are shared by all pairs.
+    * */
+    public WordBuzzerDataSource(Context context, LanguagePair languagePair) {
+        mDatabaseManager = WordBuzzerDatabaseManager.getInstance(context);
+        mLanguagePair = languagePair;
+        String table = languagePair.getTableName();
+        mInsertTranslationSql = "insert into "
+                + table + "("
+                + languagePair.getColumnOne() + ", "
+                + languagePair.getColumnTwo() + ", "
+                + Util.WORD_POSITION + ", "
+                + Util.FINGERPRINT + ", "
+                + Util.IS_APPENDED + ", "
+                + Util.SIMILARITY_KEY
+                + ") values (?, ?, ?, ?, ?, ?)";
+        mDeleteTranslationSql = "delete from "
+                + table + " where "
+                + Util.WORD_POSITION + "=?";
+        mMoveTranslationSql = "update "
+                + table + " set "
+                + Util.WORD_POSITION + "=? where "
+                + Util.WORD_POSITION + "=?";
+        mUpdateWordStatsSql = "update "
+                + table + " set "
+                + Util.BOX + "=?, "
+                + Util.CORRECT_COUNT + "=" + Util.CORRECT_COUNT + "+?, "
+                + Util.WRONG_COUNT + "=" + Util.WRONG_COUNT + "+? where "
+                + Util.WORD_POSITION + "=?";
     }
 
     public void open() throws SQLException {
-        mDatabase = mWordBuzzerSQLiteOpenHelper.getWritableDatabase();
+        if (mDatabase == null) {
+            mDatabase = mDatabaseManager.acquire();
+        }
     }
 
     public void close() {
-        mWordBuzzerSQLiteOpenHelper.close();
+        if (mInsertTranslationStatement != null) {
+            mInsertTranslationStatement.close();
+            mInsertTranslationStatement = null;
+        }
+        if (mCheckpointStatement != null) {
+            mCheckpointStatement.close();
+            mCheckpointStatement = null;
+        }
+        if (mDatabase != null) {
+            mDatabase = null;
+            mDatabaseManager.release();
+        }
+    }
+
+    public LanguagePair getLanguagePair() {
+        return mLanguagePair;
+    }
+
+    // Creates translation table of the language pair (and its index) if it does not exist yet
+    public void createTranslationTable() {
+        String table = mLanguagePair.getTableName();
+        mDatabase.execSQL(WordBuzzerSqliteOpenHelper.createTranslationTableSql(table,
+                mLanguagePair.getColumnOne(), mLanguagePair.getColumnTwo()));
+        mDatabase.execSQL(WordBuzzerSqliteOpenHelper.createIndexSql(table, mLanguagePair.getColumnOne()));
+        mDatabase.execSQL(WordBuzzerSqliteOpenHelper.createBoxIndexSql(table));
+        mDatabase.execSQL(WordBuzzerSqliteOpenHelper.createSimilarityKeyIndexSql(table));
+    }
+
+    // Records the language pair as imported, with the word count of its dictionary
+    public void registerLanguagePair(int wordCount) {
+        SQLiteStatement register = mDatabase.compileStatement(REGISTER_LANGUAGE_PAIR_SQL);
+        try {
+            register.bindString(1, mLanguagePair.getId());
+            register.bindString(2, mLanguagePair.getLanguageOne());
+            register.bindString(3, mLanguagePair.getLanguageTwo());
+            register.bindLong(4, wordCount);
+            register.executeInsert();
+        } finally {
+            register.close();
+        }
+    }
+
+    // Word count of the language pair as registered, -1 if its dictionary was never imported
+    public int getRegisteredWordCount() {
+        return (int) DatabaseUtils.longForQuery(mDatabase,
+                "select ifnull((select " + Util.WORD_COUNT + " from " + Util.LANGUAGE_PAIR_TABLE
+                        + " where " + Util.PAIR_ID + "=?), -1)", new String[]{mLanguagePair.getId()});
+    }
+
+    // Every registered language pair, in id order
+    public List<LanguagePair> getLanguagePairs() {
+        Cursor cursor = mDatabase.query(Util.LANGUAGE_PAIR_TABLE, new String[]{Util.LANGUAGE_ONE, Util.LANGUAGE_TWO},
+                null, null, null, null, Util.PAIR_ID);
+        ArrayList<LanguagePair> languagePairs = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                languagePairs.add(LanguagePair.of(cursor.getString(0), cursor.getString(1)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return languagePairs;
     }
 
     public long insertIntoTable(String tableName, ContentValues values) {
         return mDatabase.insert(tableName, null, values);
     }
 
+    /*
+    * Bulk import path. Inserts all translations of the list in one explicit transaction
+    * using a precompiled insert statement, so the whole batch costs one commit instead of one per row.
+    * startPos - word_position of 1st translation in translationList
+    * Returns number of inserted rows.
+    * */
+    public int insertTranslations(List<Translation> translationList, int startPos) {
+        return insertTranslations(translationList, startPos, null);
+    }
+
+    /*
+    * Same as insertTranslations(translationList, startPos), the import checkpoint of checkpointSource
+    * is moved past the batch in the same transaction - after a crash DB holds exactly the positions
+    * before ImportCheckpoint.getNextPosition(). No checkpoint is written if checkpointSource is null.
+    * */
+    public int insertTranslations(List<Translation> translationList, int startPos, String checkpointSource) {
+        SQLiteStatement insert = getInsertTranslationStatement();
+        int inserted = 0;
+        // Non exclusive - in WAL mode readers of WordLoaderService keep running during the import
+        mDatabase.beginTransactionNonExclusive();
+        try {
+            for (Translation translation : translationList) {
+                if (translation.getWordInLanguageOne() == null || translation.getWordInLanguageTwo() == null) {
+                    // Same as a failed "not null" insert - the position is consumed but no row is added
+                    startPos++;
+                    continue;
+                }
+                if (insertTranslation(insert, translation, startPos++, false)) {
+                    inserted++;
+                }
+            }
+            if (checkpointSource != null) {
+                writeCheckpoint(checkpointSource, startPos, false);
+            }
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        return inserted;
+    }
+
+    // Import of checkpointSource is done - nextPosition is one past the last position of the dictionary
+    public void markImportComplete(String checkpointSource, int nextPosition) {
+        writeCheckpoint(checkpointSource, nextPosition, true);
+    }
+
+    // Checkpoint of checkpointSource, null if its import never committed a batch
+    public ImportCheckpoint getImportCheckpoint(String checkpointSource) {
+        Cursor cursor = mDatabase.query(Util.IMPORT_CHECKPOINT_TABLE,
+                new String[]{Util.NEXT_POSITION, Util.IS_COMPLETE},
+                Util.CHECKPOINT_SOURCE + "=?", new String[]{checkpointSource}, null, null, null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return new ImportCheckpoint(checkpointSource, cursor.getInt(0), cursor.getInt(1) != 0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Empties dictionary of the language pair and forgets its import checkpoints, atomically
+    public void clearDictionary() {
+        mDatabase.beginTransactionNonExclusive();
+        try {
+            mDatabase.delete(mLanguagePair.getTableName(), null, null);
+            // Not "like" - '_' of the pair id would be a wildcard
+            mDatabase.delete(Util.IMPORT_CHECKPOINT_TABLE, Util.CHECKPOINT_SOURCE + " glob ?",
+                    new String[]{mLanguagePair.getCheckpointSource("*")});
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+    }
+
+    private void writeCheckpoint(String checkpointSource, int nextPosition, boolean isComplete) {
+        if (mCheckpointStatement == null) {
+            mCheckpointStatement = mDatabase.compileStatement(CHECKPOINT_SQL);
+        }
+        mCheckpointStatement.bindString(1, checkpointSource);
+        mCheckpointStatement.bindLong(2, nextPosition);
+        mCheckpointStatement.bindLong(3, isComplete ? 1 : 0);
+        mCheckpointStatement.executeInsert();
+    }
+
+    /*
+    * Applies a finished DictionaryDelta in one transaction: deletes, then moves, then inserts
+    * (inserts may take positions freed by deletes, moves only go to positions left free).
+    * Untouched rows are not rewritten. Returns word count after the update.
+    * */
+    public int applyDelta(DictionaryDelta delta) {
+        SQLiteStatement insert = getInsertTranslationStatement();
+        SQLiteStatement delete = mDatabase.compileStatement(mDeleteTranslationSql);
+        SQLiteStatement move = mDatabase.compileStatement(mMoveTranslationSql);
+        mDatabase.beginTransactionNonExclusive();
+        try {
+            for (int position : delta.getDeletedPositions()) {
+                delete.bindLong(1, position);
+                delete.executeUpdateDelete();
+            }
+            int[] moveFrom = delta.getMoveFrom();
+            int[] moveTo = delta.getMoveTo();
+            for (int i = 0; i < moveFrom.length; i++) {
+                move.bindLong(1, moveTo[i]);
+                move.bindLong(2, moveFrom[i]);
+                move.executeUpdateDelete();
+            }
+            List<Translation> newTranslations = delta.getNewTranslations();
+            int[] insertPositions = delta.getInsertPositions();
+            for (int i = 0; i < insertPositions.length; i++) {
+                insertTranslation(insert, newTranslations.get(i), insertPositions[i], delta.isAppend());
+            }
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+            delete.close();
+            move.close();
+        }
+        return delta.getLastPosition();
+    }
+
+    /*
+    * Adds every row of DB (position, fingerprint, is_appended) to delta, in position order.
+    * */
+    public void readFingerprints(DictionaryDelta delta) {
+        Cursor cursor = mDatabase.query(mLanguagePair.getTableName(),
+                new String[]{Util.WORD_POSITION, Util.FINGERPRINT, Util.IS_APPENDED},
+                null, null, null, null, Util.WORD_POSITION);
+        try {
+            while (cursor.moveToNext()) {
+                delta.addRow(cursor.getInt(0), cursor.getLong(1), cursor.getInt(2) != 0);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /*
+    * Writes answers collected by QuestionScheduler in one transaction: box is set,
+    * counts are added to the stored ones. A word removed from the dictionary meanwhile is skipped.
+    * */
+    public void updateWordStats(List<WordStats> statsList) {
+        if (statsList.isEmpty()) {
+            return;
+        }
+        SQLiteStatement update = mDatabase.compileStatement(mUpdateWordStatsSql);
+        mDatabase.beginTransactionNonExclusive();
+        try {
+            for (WordStats stats : statsList) {
+                update.bindLong(1, stats.getBox());
+                update.bindLong(2, stats.getCorrectCount());
+                update.bindLong(3, stats.getWrongCount());
+                update.bindLong(4, stats.getPosition());
+                update.executeUpdateDelete();
+            }
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+            update.close();
+        }
+    }
+
+    /*
+    * Restores box of every word already played (box other than Util.NEW_WORD_BOX) into scheduler.
+    * Two ranges of the box index - never a full scan, however big the dictionary.
+    * */
+    public void readWordBoxes(QuestionScheduler scheduler) {
+        String newWordBox = Util.NEW_WORD_BOX + "";
+        Cursor cursor = mDatabase.query(mLanguagePair.getTableName(),
+                new String[]{Util.WORD_POSITION, Util.BOX},
+                Util.BOX + "<? or " + Util.BOX + ">?", new String[]{newWordBox, newWordBox}, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                scheduler.restoreBox(cursor.getInt(0), cursor.getInt(1));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private SQLiteStatement getInsertTranslationStatement() {
+        if (mInsertTranslationStatement == null) {
+            mInsertTranslationStatement = mDatabase.compileStatement(mInsertTranslationSql);
+        }
+        return mInsertTranslationStatement;
+    }
+
+    private static boolean insertTranslation(SQLiteStatement insert, Translation translation, int position,
+                                             boolean isAppended) {
+        String wordInLanguageOne = translation.getWordInLanguageOne();
+        String wordInLanguageTwo = translation.getWordInLanguageTwo();
+        insert.bindString(1, wordInLanguageOne);
+        insert.bindString(2, wordInLanguageTwo);
+        insert.bindLong(3, position);
+        insert.bindLong(4, TranslationFingerprint.of(wordInLanguageOne, wordInLanguageTwo));
+        insert.bindLong(5, isAppended ? 1 : 0);
+        insert.bindLong(6, SimilarityKey.of(wordInLanguageTwo));
+        return insert.executeInsert() != -1;
+    }
+
     public long deleteFromTable(String tableName, String where, String[] whereArgs) {
         return mDatabase.delete(tableName, where, whereArgs);
     }
 
+    /*
+    * Position of the last translation of the language pair stored in DB.
+    * Positions start at 1, so this is the word count as stored in SharedPreference (Util.WORDS_COUNT_IN_DICTIONARY)
+    * */
+    public int getLastWordPosition() {
+        return (int) DatabaseUtils.longForQuery(mDatabase,
+                "select ifnull(max(" + Util.WORD_POSITION + "), 0) from " + mLanguagePair.getTableName(), null);
+    }
+
     public Cursor getContents(String tableName, String[] projection, String where, String[] whereArgs) {
         return mDatabase.query(tableName, projection, where, whereArgs, null, null, null);
     }
 
+    public Cursor getContents(String tableName, String[] projection, String where, String[] whereArgs,
+                              String orderBy, String limit) {
+        return mDatabase.query(tableName, projection, where, whereArgs, null, null, orderBy, limit);
+    }
+
+    // Statement stays valid until close(); caller is responsible for closing it before that
+    public SQLiteStatement compileStatement(String sql) {
+        return mDatabase.compileStatement(sql);
+    }
+
 }
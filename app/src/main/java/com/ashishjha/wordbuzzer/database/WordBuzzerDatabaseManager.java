@@ -0,0 +1,75 @@
+package com.ashishjha.wordbuzzer.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.HashMap;
+
+/*
+* Application wide owner of the dictionary DB connection.
+* Every WordBuzzerDataSource shares the same SQLiteDatabase; it is opened by the first acquire()
+* and closed when the last user calls release() (reference counted).
+* DB runs in write-ahead-log mode, so queries from WordLoaderService are served by a reader connection
+* of the pool while DictionaryBuilderService holds the write transaction of an import.
+* */
+public class WordBuzzerDatabaseManager {
+
+    // One manager per DB file - normally only the app's dictionary, tests may rename it
+    private static final HashMap<String, WordBuzzerDatabaseManager> sInstances = new HashMap<>();
+
+    private final WordBuzzerSqliteOpenHelper mOpenHelper;
+
+    private SQLiteDatabase mDatabase;
+
+    private int mOpenCount;
+
+    private WordBuzzerDatabaseManager(Context context) {
+        mOpenHelper = new WordBuzzerSqliteOpenHelper(context);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mOpenHelper.setWriteAheadLoggingEnabled(true);
+        }
+    }
+
+    public static synchronized WordBuzzerDatabaseManager getInstance(Context context) {
+        String path = context.getDatabasePath(Util.DATABASE_NAME).getPath();
+        WordBuzzerDatabaseManager manager = sInstances.get(path);
+        if (manager == null) {
+            // Hold application context unless caller renames DB files (e.g. RenamingDelegatingContext in tests)
+            Context appContext = context.getApplicationContext();
+            boolean isAppDatabase = appContext != null
+                    && appContext.getDatabasePath(Util.DATABASE_NAME).getPath().equals(path);
+            manager = new WordBuzzerDatabaseManager(isAppDatabase ? appContext : context);
+            sInstances.put(path, manager);
+        }
+        return manager;
+    }
+
+    public synchronized SQLiteDatabase acquire() {
+        if (mOpenCount == 0 || mDatabase == null) {
+            mDatabase = mOpenHelper.getWritableDatabase();
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+                mDatabase.enableWriteAheadLogging();
+            }
+        }
+        mOpenCount++;
+        return mDatabase;
+    }
+
+    public synchronized void release() {
+        if (mOpenCount == 0) {
+            throw new IllegalStateException("release() without acquire()");
+        }
+        if (--mOpenCount == 0) {
+            mOpenHelper.close();
+            mDatabase = null;
+        }
+    }
+
+    // Number of users currently holding the connection. No one must hold it while DB file is replaced.
+    public synchronized int getOpenCount() {
+        return mOpenCount;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ashishjha.wordbuzzer.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.ashishjha.wordbuzzer.utils.SimilarityKey;
+import com.ashishjha.wordbuzzer.utils.TranslationFingerprint;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+* All schema migrations, in order. Add a new Migration here whenever Util.DATABASE_VERSION is bumped.
+* A migration creates the schema of its own target version - never the current one (createTranslationTableSql).
+* */
+final class WordBuzzerMigrations {
+
+    private WordBuzzerMigrations() {
+    }
+
+    static final Migration[] MIGRATIONS = {
+            // 1 -> 2: word_position becomes INTEGER PRIMARY KEY (rowid alias) and text_eng gets an index
+            new Migration(1) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    String newTable = Util.DATABASE_NAME + "_v2";
+                    db.execSQL("create table " + newTable + "("
+                            + Util.WORD_POSITION + " integer primary key, "
+                            + Util.TEXT_ENGLISH + " text not null, "
+                            + Util.TEXT_SPA + " text not null);");
+                    // Version 1 had no key - keep the last row of a duplicated position, drop rows without position
+                    db.execSQL("insert or replace into " + newTable + "("
+                            + Util.WORD_POSITION + ", " + Util.TEXT_ENGLISH + ", " + Util.TEXT_SPA + ")"
+                            + " select " + Util.WORD_POSITION + ", " + Util.TEXT_ENGLISH + ", " + Util.TEXT_SPA
+                            + " from " + Util.DATABASE_NAME
+                            + " where " + Util.WORD_POSITION + " is not null");
+                    db.execSQL("drop table " + Util.DATABASE_NAME);
+                    db.execSQL("alter table " + newTable + " rename to " + Util.DATABASE_NAME);
+                    db.execSQL(WordBuzzerSqliteOpenHelper.TEXT_ENGLISH_INDEX_CREATE);
+                }
+            },
+            // 2 -> 3: fingerprint and is_appended columns, fingerprint of existing rows computed in place
+            new Migration(2) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL("alter table " + Util.DATABASE_NAME + " add column "
+                            + Util.FINGERPRINT + " integer not null default 0");
+                    db.execSQL("alter table " + Util.DATABASE_NAME + " add column "
+                            + Util.IS_APPENDED + " integer not null default 0");
+                    SQLiteStatement update = db.compileStatement("update " + Util.DATABASE_NAME
+                            + " set " + Util.FINGERPRINT + "=? where " + Util.WORD_POSITION + "=?");
+                    Cursor cursor = db.query(Util.DATABASE_NAME,
+                            new String[]{Util.WORD_POSITION, Util.TEXT_ENGLISH, Util.TEXT_SPA},
+                            null, null, null, null, null);
+                    try {
+                        while (cursor.moveToNext()) {
+                            update.bindLong(1, TranslationFingerprint.of(cursor.getString(1), cursor.getString(2)));
+                            update.bindLong(2, cursor.getInt(0));
+                            update.executeUpdateDelete();
+                        }
+                    } finally {
+                        cursor.close();
+                        update.close();
+                    }
+                }
+            },
+            // 3 -> 4: import_checkpoint table. An import interrupted before the upgrade is not resumable - no checkpoint.
+            new Migration(3) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL("create table " + Util.IMPORT_CHECKPOINT_TABLE + "("
+                            + Util.CHECKPOINT_SOURCE + " text primary key, "
+                            + Util.NEXT_POSITION + " integer not null, "
+                            + Util.IS_COMPLETE + " integer not null default 0);");
+                }
+            },
+            // 4 -> 5: language_pair registry. The existing dictionary is the default pair (eng -> spa), it is registered
+            // by the dictionary update that follows every app update. Checkpoints are now named after their pair -
+            // older ones can never be resumed and are dropped.
+            new Migration(4) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    db.execSQL("create table " + Util.LANGUAGE_PAIR_TABLE + "("
+                            + Util.PAIR_ID + " text primary key, "
+                            + Util.LANGUAGE_ONE + " text not null, "
+                            + Util.LANGUAGE_TWO + " text not null, "
+                            + Util.WORD_COUNT + " integer not null);");
+                    db.execSQL("delete from " + Util.IMPORT_CHECKPOINT_TABLE);
+                }
+            },
+            // 5 -> 6: box, correct_count and wrong_count (word stats of QuestionScheduler) in the table of every pair
+            new Migration(5) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    for (String[] translationTable : findTranslationTables(db)) {
+                        String table = translationTable[0];
+                        db.execSQL("alter table " + table + " add column " + Util.BOX + " integer not null default "
+                                + Util.NEW_WORD_BOX);
+                        db.execSQL("alter table " + table + " add column " + Util.CORRECT_COUNT + " integer not null default 0");
+                        db.execSQL("alter table " + table + " add column " + Util.WRONG_COUNT + " integer not null default 0");
+                        db.execSQL("create index " + table + "_" + Util.BOX + "_index on " + table + "(" + Util.BOX + ");");
+                    }
+                }
+            },
+            // 6 -> 7: similarity_key (SimilarityKey of the language "two" word) in the table of every pair,
+            // computed in place for existing rows, then indexed
+            new Migration(6) {
+                @Override
+                public void migrate(SQLiteDatabase db) {
+                    for (String[] table : findTranslationTables(db)) {
+                        String name = table[0];
+                        db.execSQL("alter table " + name + " add column " + Util.SIMILARITY_KEY + " integer not null default 0");
+                        SQLiteStatement update = db.compileStatement("update " + name
+                                + " set " + Util.SIMILARITY_KEY + "=? where " + Util.WORD_POSITION + "=?");
+                        Cursor cursor = db.query(name, new String[]{Util.WORD_POSITION, table[1]},
+                                null, null, null, null, null);
+                        try {
+                            while (cursor.moveToNext()) {
+                                update.bindLong(1, SimilarityKey.of(cursor.getString(1)));
+                                update.bindLong(2, cursor.getInt(0));
+                                update.executeUpdateDelete();
+                            }
+                        } finally {
+                            cursor.close();
+                            update.close();
+                        }
+                        db.execSQL("create index " + name + "_" + Util.SIMILARITY_KEY + "_index on " + name
+                                + "(" + Util.SIMILARITY_KEY + ");");
+                    }
+                }
+            }
+    };
+
+    /*
+    * {table name, language "two" column} of every translation table: the default pair's and the ones named
+    * word_buzzer_db_<one>_<two> (version 5 on).
+    * */
+    private static List<String[]> findTranslationTables(SQLiteDatabase db) {
+        ArrayList<String[]> tables = new ArrayList<>();
+        tables.add(new String[]{Util.DATABASE_NAME, Util.TEXT_SPA});
+        Cursor cursor = db.rawQuery("select name from sqlite_master where type = 'table' and name glob ?",
+                new String[]{Util.DATABASE_NAME + "_*"});
+        try {
+            while (cursor.moveToNext()) {
+                String name = cursor.getString(0);
+                String id = name.substring(Util.DATABASE_NAME.length() + 1);
+                tables.add(new String[]{name, "text_" + id.substring(id.indexOf('_') + 1)});
+            }
+        } finally {
+            cursor.close();
+        }
+        return tables;
+    }
+
+    static Migration find(int startVersion) {
+        for (Migration migration : MIGRATIONS) {
+            if (migration.getStartVersion() == startVersion) {
+                return migration;
+            }
+        }
+        return null;
+    }
+}
@@ -1,36 +1,147 @@
 package com.ashishjha.wordbuzzer.database;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
 
 import com.ashishjha.wordbuzzer.utils.Util;
 
 /**
  * Created by ashish on 30/1/16.
  */
+/*
+* Schema of the dictionary DB.
+* word_position is the rowid alias so that lookups by position (challenge, answer, random words) are key lookups,
+* text_eng is indexed for lookups by challenge word.
+* fingerprint (TranslationFingerprint) lets a dictionary update find new and removed translations without comparing text,
+* is_appended marks translations of extra dictionary files (DictionaryDelta).
+* import_checkpoint records how far an import got, in the same transaction as each batch, so it can be resumed.
+* box, correct_count and wrong_count hold the answers given for a word (QuestionScheduler), box is indexed
+* so the few words already played are read without a full scan.
+* similarity_key (SimilarityKey of the language "two" word) is indexed, so wrong options looking like the answer
+* are a range scan of that index (PlausibleDistractorFinder).
+* Every language pair (LanguagePair) has a translation table of this layout, word_buzzer_db being the default pair's.
+* Tables of other pairs are created when their dictionary is first imported and listed in language_pair with their word count.
+* Keep in sync with app:buildPrebuiltDictionary (app/build.gradle) which creates the prebuilt dictionary.
+* Upgrades are applied step by step through WordBuzzerMigrations.
+* */
 public class WordBuzzerSqliteOpenHelper extends SQLiteOpenHelper {
 
-    private static final String TRANSLATION_TABLE_CREATE = "create table "
-            + Util.DATABASE_NAME + "("
-            + Util.TEXT_ENGLISH + " text not null, "
-            + Util.TEXT_SPA + " text not null, "
-            + Util.WORD_POSITION + " int"
+    private static final String TAG = "WordBuzzerSqliteHelper";
+
+    static final String TEXT_ENGLISH_INDEX = Util.DATABASE_NAME + "_" + Util.TEXT_ENGLISH + "_index";
+
+    static final String TEXT_ENGLISH_INDEX_CREATE = "create index if not exists "
+            + TEXT_ENGLISH_INDEX + " on " + Util.DATABASE_NAME
+            + "(" + Util.TEXT_ENGLISH + ");";
+
+    static final String IMPORT_CHECKPOINT_TABLE_CREATE = "create table if not exists "
+            + Util.IMPORT_CHECKPOINT_TABLE + "("
+            + Util.CHECKPOINT_SOURCE + " text primary key, "
+            + Util.NEXT_POSITION + " integer not null, "
+            + Util.IS_COMPLETE + " integer not null default 0"
+            + ");";
+
+    static final String LANGUAGE_PAIR_TABLE_CREATE = "create table if not exists "
+            + Util.LANGUAGE_PAIR_TABLE + "("
+            + Util.PAIR_ID + " text primary key, "
+            + Util.LANGUAGE_ONE + " text not null, "
+            + Util.LANGUAGE_TWO + " text not null, "
+            + Util.WORD_COUNT + " integer not null"
             + ");";
 
+    private final Context mContext;
+
     public WordBuzzerSqliteOpenHelper(Context context) {
         super(context, Util.DATABASE_NAME, null,
                 Util.DATABASE_VERSION);
+        mContext = context;
+    }
+
+    static String createTranslationTableSql(String tableName) {
+        return createTranslationTableSql(tableName, Util.TEXT_ENGLISH, Util.TEXT_SPA);
+    }
+
+    static String createTranslationTableSql(String tableName, String columnOne, String columnTwo) {
+        return "create table if not exists "
+                + tableName + "("
+                + Util.WORD_POSITION + " integer primary key, "
+                + columnOne + " text not null, "
+                + columnTwo + " text not null, "
+                + Util.FINGERPRINT + " integer not null default 0, "
+                + Util.IS_APPENDED + " integer not null default 0, "
+                + Util.BOX + " integer not null default " + Util.NEW_WORD_BOX + ", "
+                + Util.CORRECT_COUNT + " integer not null default 0, "
+                + Util.WRONG_COUNT + " integer not null default 0, "
+                + Util.SIMILARITY_KEY + " integer not null default 0"
+                + ");";
+    }
+
+    // Same as TEXT_ENGLISH_INDEX_CREATE for the table of any language pair
+    static String createIndexSql(String tableName, String columnOne) {
+        return "create index if not exists "
+                + tableName + "_" + columnOne + "_index on " + tableName
+                + "(" + columnOne + ");";
+    }
+
+    static String createBoxIndexSql(String tableName) {
+        return "create index if not exists "
+                + tableName + "_" + Util.BOX + "_index on " + tableName
+                + "(" + Util.BOX + ");";
+    }
+
+    static String createSimilarityKeyIndexSql(String tableName) {
+        return "create index if not exists "
+                + tableName + "_" + Util.SIMILARITY_KEY + "_index on " + tableName
+                + "(" + Util.SIMILARITY_KEY + ");";
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        db.execSQL(TRANSLATION_TABLE_CREATE);
+        db.execSQL(createTranslationTableSql(Util.DATABASE_NAME));
+        db.execSQL(TEXT_ENGLISH_INDEX_CREATE);
+        db.execSQL(createBoxIndexSql(Util.DATABASE_NAME));
+        db.execSQL(createSimilarityKeyIndexSql(Util.DATABASE_NAME));
+        db.execSQL(IMPORT_CHECKPOINT_TABLE_CREATE);
+        db.execSQL(LANGUAGE_PAIR_TABLE_CREATE);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TRANSLATION_TABLE_CREATE);
+        for (int version = oldVersion; version < newVersion; version++) {
+            Migration migration = WordBuzzerMigrations.find(version);
+            if (migration == null) {
+                Log.d(TAG, "No migration from version " + version + ", rebuilding dictionary");
+                rebuild(db);
+                return;
+            }
+            Log.d(TAG, "Migrating from version " + version);
+            migration.migrate(db);
+        }
+    }
+
+    // Last resort - drop dictionary and let SplashScreenActivity import it again on next launch
+    private void rebuild(SQLiteDatabase db) {
+        // Tables of every language pair (word_buzzer_db_<one>_<two>) go with the default one
+        Cursor cursor = db.rawQuery("select name from sqlite_master where type = 'table' and name glob ?",
+                new String[]{Util.DATABASE_NAME + "_*"});
+        try {
+            while (cursor.moveToNext()) {
+                db.execSQL("drop table if exists " + cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        db.execSQL("drop table if exists " + Util.DATABASE_NAME);
+        db.execSQL("drop table if exists " + Util.IMPORT_CHECKPOINT_TABLE);
+        db.execSQL("drop table if exists " + Util.LANGUAGE_PAIR_TABLE);
         onCreate(db);
+        mContext.getSharedPreferences(Util.WORD_BUZZER_PREFS, Context.MODE_PRIVATE).edit()
+                .putBoolean(Util.IS_CLEAN_LAUNCH, true)
+                .putInt(Util.WORDS_COUNT_IN_DICTIONARY, 0)
+                .remove(Util.ACTIVE_LANGUAGE_PAIR)
+                .apply();
     }
 }
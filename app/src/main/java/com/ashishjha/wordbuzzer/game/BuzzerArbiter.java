@@ -0,0 +1,144 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+
+/*
+* Decides which player buzzed first from the time each press happened (MotionEvent.getEventTime() of
+* ACTION_DOWN / ACTION_POINTER_DOWN), not from the order presses are delivered to the UI thread.
+*
+* The first press opens a tie window: presses happening up to tieWindowMillis after it are still accepted,
+* so a press delivered late (busy frame, another view's events dispatched first) still wins if it happened earlier.
+* Once the window is over (getDecisionTime()), decide() picks the earliest press; presses at the very same time
+* are a tie, broken at random. Presses while not armed - between rounds, while an answer is shown - are ignored.
+*
+* Times are in one monotonic clock, SystemClock.uptimeMillis() on Android (the clock of MotionEvent times).
+* Pure Java, so arbitration is tested headless with scripted presses. Not thread safe - used from UI thread only.
+* */
+public class BuzzerArbiter {
+
+    public static final int NO_PLAYER = -1;
+
+    private static final long NO_PRESS = Long.MAX_VALUE;
+
+    private final int mPlayerCount;
+
+    private final long mTieWindowMillis;
+
+    private final RandomSource mRandom;
+
+    private boolean mIsArmed;
+
+    // Presses happening before this time belong to a previous round
+    private long mArmTime;
+
+    // Earliest press of every player in the current round, NO_PRESS if none
+    private final long[] mPressTimes;
+
+    // Event time of the first press of the round, NO_PRESS if none
+    private long mFirstPressTime = NO_PRESS;
+
+    private long mWinnerPressTime = NO_PRESS;
+
+    // Decision time minus press time of the winner, -1 until a decision is made
+    private long mLastDecisionLatency = -1;
+
+    public BuzzerArbiter(int playerCount, long tieWindowMillis, RandomSource random) {
+        if (playerCount <= 0 || tieWindowMillis < 0) {
+            throw new IllegalArgumentException("playerCount must be positive and tieWindowMillis not negative");
+        }
+        mPlayerCount = playerCount;
+        mTieWindowMillis = tieWindowMillis;
+        mRandom = random;
+        mPressTimes = new long[playerCount];
+    }
+
+    // Round started - presses happening from nowMillis on compete
+    public void arm(long nowMillis) {
+        mIsArmed = true;
+        mArmTime = nowMillis;
+        mFirstPressTime = NO_PRESS;
+        mWinnerPressTime = NO_PRESS;
+        for (int i = 0; i < mPlayerCount; i++) {
+            mPressTimes[i] = NO_PRESS;
+        }
+    }
+
+    public void disarm() {
+        mIsArmed = false;
+    }
+
+    public boolean isArmed() {
+        return mIsArmed;
+    }
+
+    /*
+    * Press of player (0 .. playerCount - 1) that happened at eventTimeMillis.
+    * Returns true if it competes, false if ignored (not armed, before the round, after the tie window).
+    * */
+    public boolean onPress(int player, long eventTimeMillis) {
+        if (!mIsArmed || player < 0 || player >= mPlayerCount || eventTimeMillis < mArmTime) {
+            return false;
+        }
+        if (mFirstPressTime != NO_PRESS && eventTimeMillis > mFirstPressTime + mTieWindowMillis) {
+            return false;
+        }
+        mFirstPressTime = Math.min(mFirstPressTime, eventTimeMillis);
+        // Second finger on the same buzzer does not move its press later
+        mPressTimes[player] = Math.min(mPressTimes[player], eventTimeMillis);
+        return true;
+    }
+
+    public boolean hasPress() {
+        return mFirstPressTime != NO_PRESS;
+    }
+
+    // Time decide() can pick the winner at - end of the tie window. -1 if nobody pressed yet.
+    public long getDecisionTime() {
+        return hasPress() ? mFirstPressTime + mTieWindowMillis : -1;
+    }
+
+    /*
+    * Winner of the round, NO_PLAYER if nobody pressed or the tie window is not over at nowMillis.
+    * A decision disarms the arbiter until the next arm().
+    * */
+    public int decide(long nowMillis) {
+        if (!mIsArmed || !hasPress() || nowMillis < getDecisionTime()) {
+            return NO_PLAYER;
+        }
+        long earliest = NO_PRESS;
+        int tied = 0;
+        int winner = NO_PLAYER;
+        for (int player = 0; player < mPlayerCount; player++) {
+            long pressTime = mPressTimes[player];
+            if (pressTime < earliest) {
+                earliest = pressTime;
+                winner = player;
+                tied = 1;
+            } else if (pressTime == earliest && pressTime != NO_PRESS) {
+                // Reservoir pick - every tied player wins with the same probability
+                tied++;
+                if (mRandom.nextInt(tied) == 0) {
+                    winner = player;
+                }
+            }
+        }
+        mIsArmed = false;
+        mWinnerPressTime = earliest;
+        mLastDecisionLatency = nowMillis - earliest;
+        return winner;
+    }
+
+    // Event time of the last winning press
+    public long getWinnerPressTime() {
+        return mWinnerPressTime;
+    }
+
+    // Input-to-decision latency of the last decision (tie window included), -1 if none yet
+    public long getLastDecisionLatency() {
+        return mLastDecisionLatency;
+    }
+
+    public long getTieWindowMillis() {
+        return mTieWindowMillis;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ashishjha.wordbuzzer.game;
+
+/*
+* Fenwick (binary indexed) tree over non-negative weights of elements 1 .. size().
+* add() and prefixSum() are O(log n), find() - element a weighted random pick lands on - is O(log n) too,
+* so weighted sampling stays cheap with millions of elements. Building with equal weights is O(n),
+* growing is O(1) amortized per new element. Not thread safe.
+* */
+public class FenwickTree {
+
+    // 1-based, mTree[i] holds sum of weights of elements (i - lowbit(i)) + 1 .. i
+    private long[] mTree;
+
+    private int mSize;
+
+    // Every element gets weight
+    public FenwickTree(int size, long weight) {
+        if (size < 0 || weight < 0) {
+            throw new IllegalArgumentException("size and weight must not be negative");
+        }
+        mTree = new long[size + 1];
+        mSize = size;
+        for (int i = 1; i <= size; i++) {
+            mTree[i] = weight * (i & -i);
+        }
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    // Adds elements mSize + 1 .. newSize with weight
+    public void grow(int newSize, long weight) {
+        if (newSize <= mSize) {
+            return;
+        }
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        if (newSize >= mTree.length) {
+            long[] tree = new long[Math.max(newSize + 1, mTree.length * 2)];
+            System.arraycopy(mTree, 0, tree, 0, mSize + 1);
+            mTree = tree;
+        }
+        for (int i = mSize + 1; i <= newSize; i++) {
+            // Node i covers its children i - 1, i - 1 - lowbit(i - 1), ... down to i - lowbit(i)
+            long sum = weight;
+            int lowest = i - (i & -i);
+            for (int j = i - 1; j > lowest; j -= j & -j) {
+                sum += mTree[j];
+            }
+            mTree[i] = sum;
+        }
+        mSize = newSize;
+    }
+
+    // index - 1 .. size()
+    public void add(int index, long delta) {
+        checkIndex(index);
+        for (int i = index; i <= mSize; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    // Sum of weights of elements 1 .. index (0 for index 0)
+    public long prefixSum(int index) {
+        if (index < 0 || index > mSize) {
+            throw new IndexOutOfBoundsException("index " + index + " not in 0 .. " + mSize);
+        }
+        long sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    public long get(int index) {
+        checkIndex(index);
+        return prefixSum(index) - prefixSum(index - 1);
+    }
+
+    public long total() {
+        return prefixSum(mSize);
+    }
+
+    /*
+    * Smallest index whose prefix sum is greater than target, target in 0 .. total() - 1.
+    * For a target drawn uniformly, element i is found with probability weight(i) / total().
+    * */
+    public int find(long target) {
+        if (target < 0) {
+            throw new IllegalArgumentException("target must not be negative: " + target);
+        }
+        int index = 0;
+        // Walks down from the highest power of two not above size, skipping whole subtrees
+        for (int step = Integer.highestOneBit(Math.max(1, mSize)); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= mSize && mTree[next] <= target) {
+                target -= mTree[next];
+                index = next;
+            }
+        }
+        if (index >= mSize) {
+            throw new IllegalArgumentException("target not below total weight");
+        }
+        return index + 1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 1 || index > mSize) {
+            throw new IndexOutOfBoundsException("index " + index + " not in 1 .. " + mSize);
+        }
+    }
+}
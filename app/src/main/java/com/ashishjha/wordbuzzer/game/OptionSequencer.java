@@ -0,0 +1,116 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* Decides order of options (language "two" words, as WordTable handles) shown to players for current challenge.
+* Options are handed out in blocks of "blockLength" options. Every block contains exactly "correctPerBlock"
+* correct answers at random slots, rest of the block are random (wrong) words taken in order from the current batch.
+* So the correct answer frequency is exact (correctPerBlock / blockLength) over any number of full blocks.
+*
+* A batch may be shorter than a block (tiny dictionary, dictionary still being imported, positions without a word):
+* its words are then repeated to fill the block, the ratio stays exact. An empty batch gives a block of correct
+* answers only - there is no wrong word to show - and the provider is asked again for the next block.
+*
+* Block is kept as indices in a reusable buffer (CORRECT_ANSWER for correct answer, index into batch otherwise),
+* next() is O(1) and does not allocate. Not thread safe - used from UI thread only.
+* */
+public class OptionSequencer {
+
+    /*
+    * Supplies next batch of random words once current batch is used up (WordLoaderService.getRandomWords).
+    * */
+    public interface RandomWordsProvider {
+        int[] getRandomWords();
+    }
+
+    // Marker in block buffer for correct answer slot
+    private static final int CORRECT_ANSWER = -1;
+
+    private static final int[] NO_WORDS = new int[0];
+
+    private final RandomSource mRandomSource;
+
+    private final RandomWordsProvider mProvider;
+
+    private final int mCorrectPerBlock;
+
+    // Block buffer - reused for every block
+    private final int[] mBlock;
+
+    // Options of current block are mBlock[0 .. mBlockLength), shorter than mBlock only when batch is empty
+    private int mBlockLength;
+
+    // Index of next option in mBlock. mBlockLength means block is used up.
+    private int mBlockPosition;
+
+    private int mCorrectAnswer;
+
+    private int[] mRandomWords;
+
+    // Index of next unused word in mRandomWords
+    private int mNextRandomWord;
+
+    public OptionSequencer(RandomSource randomSource, RandomWordsProvider provider, int correctPerBlock, int blockLength) {
+        if (correctPerBlock < 0 || correctPerBlock >= blockLength) {
+            throw new IllegalArgumentException("correctPerBlock must be in [0, " + blockLength + ")");
+        }
+        mRandomSource = randomSource;
+        mProvider = provider;
+        mCorrectPerBlock = correctPerBlock;
+        mBlock = new int[blockLength];
+        mBlockLength = blockLength;
+        mBlockPosition = blockLength;
+    }
+
+    /*
+    * Starts a new challenge. Any options left from previous challenge are dropped.
+    * */
+    public void start(int correctAnswer, int[] randomWords) {
+        mCorrectAnswer = correctAnswer;
+        mRandomWords = randomWords;
+        mNextRandomWord = 0;
+        mBlockPosition = mBlockLength;
+    }
+
+    /*
+    * Handle of next option to display.
+    * */
+    public int next() {
+        if (mBlockPosition == mBlockLength) {
+            fillBlock();
+        }
+        int index = mBlock[mBlockPosition++];
+        return index == CORRECT_ANSWER ? mCorrectAnswer : mRandomWords[index];
+    }
+
+    private void fillBlock() {
+        int wrongPerBlock = mBlock.length - mCorrectPerBlock;
+        if (mRandomWords == null || mRandomWords.length - mNextRandomWord < wrongPerBlock) {
+            // Current batch can't fill a whole block (at most wrongPerBlock - 1 words are skipped).
+            int[] randomWords = mProvider.getRandomWords();
+            mRandomWords = randomWords != null ? randomWords : NO_WORDS;
+            mNextRandomWord = 0;
+        }
+        int batchLength = mRandomWords.length;
+        // Without wrong words only correct answers can be shown - at least one, whatever the ratio
+        mBlockLength = batchLength > 0 ? mBlock.length : Math.max(mCorrectPerBlock, 1);
+        int i = 0;
+        for (; i < mCorrectPerBlock && i < mBlockLength; i++) {
+            mBlock[i] = CORRECT_ANSWER;
+        }
+        for (; i < mBlockLength; i++) {
+            // A batch shorter than the block repeats its words (index is the word itself otherwise)
+            mBlock[i] = batchLength > 0 ? mNextRandomWord++ % batchLength : CORRECT_ANSWER;
+        }
+        // Fisher-Yates shuffle of the block
+        for (int j = mBlockLength - 1; j > 0; j--) {
+            int k = Util.getRandomNumber(mRandomSource, 0, j);
+            int tmp = mBlock[j];
+            mBlock[j] = mBlock[k];
+            mBlock[k] = tmp;
+        }
+        mBlockPosition = 0;
+    }
+}
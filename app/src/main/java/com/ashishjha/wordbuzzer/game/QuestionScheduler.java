@@ -0,0 +1,149 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.model.WordStats;
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+* Picks the position of the next challenge, favouring words players get wrong (Leitner boxes):
+* a wrong answer sends the word to box 0, a correct one moves it up a box, up to Util.MAX_BOX.
+* A word in box b weighs 2^(Util.MAX_BOX - b) - a missed word comes back 2^Util.MAX_BOX times as often as a mastered one,
+* words never played sit in Util.NEW_WORD_BOX.
+*
+* Weights are kept in a FenwickTree, so a pick and an answer are O(log n) whatever the dictionary size,
+* boxes take one byte per word. Answers are collected per word until takePendingStats(), so stats are written to DB
+* in batches (WordBuzzerDataSource.updateWordStats). Not thread safe.
+* */
+public class QuestionScheduler {
+
+    private final RandomSource mRandom;
+
+    private FenwickTree mWeights;
+
+    // Box of every word, index 0 unused
+    private byte[] mBoxes;
+
+    // Words answered since last takePendingStats()
+    private final HashMap<Integer, WordStats> mPendingStats = new HashMap<>();
+
+    private int mPendingAnswerCount;
+
+    public QuestionScheduler(RandomSource random, int wordCount) {
+        mRandom = random;
+        mBoxes = new byte[wordCount + 1];
+        Arrays.fill(mBoxes, (byte) Util.NEW_WORD_BOX);
+        mWeights = new FenwickTree(wordCount, weightOf(Util.NEW_WORD_BOX));
+    }
+
+    public static long weightOf(int box) {
+        return 1L << (Util.MAX_BOX - box);
+    }
+
+    public int getWordCount() {
+        return mWeights.size();
+    }
+
+    /*
+    * Dictionary grew (import in progress) - new words start in Util.NEW_WORD_BOX.
+    * A smaller dictionary drops the words past wordCount.
+    * */
+    public void setWordCount(int wordCount) {
+        int oldCount = mWeights.size();
+        if (wordCount == oldCount) {
+            return;
+        }
+        if (wordCount > oldCount) {
+            if (wordCount >= mBoxes.length) {
+                mBoxes = Arrays.copyOf(mBoxes, Math.max(wordCount + 1, mBoxes.length * 2));
+            }
+            Arrays.fill(mBoxes, oldCount + 1, wordCount + 1, (byte) Util.NEW_WORD_BOX);
+            mWeights.grow(wordCount, weightOf(Util.NEW_WORD_BOX));
+            return;
+        }
+        // Rare (never while playing) - rebuild
+        byte[] boxes = Arrays.copyOf(mBoxes, wordCount + 1);
+        mBoxes = boxes;
+        mWeights = new FenwickTree(wordCount, weightOf(Util.NEW_WORD_BOX));
+        for (int position = 1; position <= wordCount; position++) {
+            if (boxes[position] != Util.NEW_WORD_BOX) {
+                mWeights.add(position, weightOf(boxes[position]) - weightOf(Util.NEW_WORD_BOX));
+            }
+        }
+    }
+
+    // Box of a word as stored in DB, applied when the scheduler is set up
+    public void restoreBox(int position, int box) {
+        if (position < 1 || position > mWeights.size() || box < 0 || box > Util.MAX_BOX) {
+            return;
+        }
+        setBox(position, box);
+    }
+
+    public int getBox(int position) {
+        return mBoxes[position];
+    }
+
+    // Position of next challenge, 1 .. getWordCount(). 1 for an empty dictionary.
+    public int nextPosition() {
+        long total = mWeights.total();
+        if (total <= 0) {
+            return 1;
+        }
+        return mWeights.find(nextLong(total));
+    }
+
+    public void recordAnswer(int position, boolean isCorrect) {
+        if (position < 1 || position > mWeights.size()) {
+            return;
+        }
+        int box = isCorrect ? Math.min(Util.MAX_BOX, mBoxes[position] + 1) : 0;
+        setBox(position, box);
+        WordStats stats = mPendingStats.get(position);
+        if (stats == null) {
+            stats = new WordStats(position, box);
+            mPendingStats.put(position, stats);
+        }
+        stats.addAnswer(isCorrect, box);
+        mPendingAnswerCount++;
+    }
+
+    // Answers given since stats were last taken
+    public int getPendingAnswerCount() {
+        return mPendingAnswerCount;
+    }
+
+    // Stats to write to DB, pending stats are cleared
+    public List<WordStats> takePendingStats() {
+        ArrayList<WordStats> stats = new ArrayList<>(mPendingStats.values());
+        mPendingStats.clear();
+        mPendingAnswerCount = 0;
+        return stats;
+    }
+
+    private void setBox(int position, int box) {
+        int oldBox = mBoxes[position];
+        if (oldBox != box) {
+            mWeights.add(position, weightOf(box) - weightOf(oldBox));
+            mBoxes[position] = (byte) box;
+        }
+    }
+
+    // Uniform in 0 .. bound - 1 - RandomSource only draws ints, a total weight may not fit one
+    private long nextLong(long bound) {
+        if (bound <= Integer.MAX_VALUE) {
+            return mRandom.nextInt((int) bound);
+        }
+        // 60 random bits, rejecting the top partial range so every value is equally likely
+        long limit = (1L << 60) - (1L << 60) % bound;
+        long value;
+        do {
+            value = ((long) mRandom.nextInt(1 << 30) << 30) | mRandom.nextInt(1 << 30);
+        } while (value >= limit);
+        return value % bound;
+    }
+}
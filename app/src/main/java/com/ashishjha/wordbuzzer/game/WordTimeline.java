@@ -0,0 +1,143 @@
+package com.ashishjha.wordbuzzer.game;
+
+/*
+* Absolute on-screen times of option words. A round is cut into slots of wordDurationMillis from the time it
+* started: slot k is [start + k * duration, start + (k + 1) * duration). Every word shown gets a slot and leaves
+* the screen at the end of it, so a late frame or a stall does not push all later words back - the "2 seconds
+* per word" pace holds for the whole round.
+*
+* A word scheduled late in its slot (the previous one ended during a stall) is compressed: it is on screen
+* from now to the end of the slot, already part of the way. Later than half a slot, the slot is skipped instead
+* and the word waits for the start of the next one - a word is never shown for just a few frames.
+*
+* The interval each word was actually on screen is kept for the last words, so a buzz is judged against the word
+* visible when the buzzer was pressed (getWordAt(press time)), not the one shown when the press is handled.
+*
+* Times are in one monotonic clock, SystemClock.uptimeMillis() on Android (the clock of MotionEvent times
+* and BuzzerArbiter). Pure Java, so timing is tested headless. Not thread safe - used from UI thread only.
+* */
+public class WordTimeline {
+
+    public static final int NO_WORD = -1;
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final long mWordDurationMillis;
+
+    // Start of slot 0
+    private long mStartTime = NOT_STARTED;
+
+    // Slot of the last word scheduled, -1 if none yet
+    private long mLastSlot;
+
+    // Last words on screen, a ring: word, visible from (included), visible until (excluded)
+    private final int[] mWords;
+
+    private final long[] mVisibleFrom;
+
+    private final long[] mVisibleUntil;
+
+    // Index in the ring of the last word scheduled
+    private int mLast;
+
+    private int mCount;
+
+    // Word on screen was taken off by stop()
+    private boolean mIsStopped;
+
+    private long mMaxLateMillis;
+
+    private int mSkippedSlots;
+
+    public WordTimeline(long wordDurationMillis, int historySize) {
+        if (wordDurationMillis <= 0 || historySize <= 0) {
+            throw new IllegalArgumentException("wordDurationMillis and historySize must be positive");
+        }
+        mWordDurationMillis = wordDurationMillis;
+        mWords = new int[historySize];
+        mVisibleFrom = new long[historySize];
+        mVisibleUntil = new long[historySize];
+    }
+
+    // Round started - slot 0 starts at nowMillis, words of previous round are forgotten
+    public void start(long nowMillis) {
+        mStartTime = nowMillis;
+        mLastSlot = -1;
+        mCount = 0;
+        mIsStopped = false;
+    }
+
+    /*
+    * Schedules word (a WordTable handle) as next word, at nowMillis. Returns the start of its slot - the word
+    * leaves the screen at returned time + wordDurationMillis. Returned time is before nowMillis for a
+    * compressed word, after it for a word waiting for the next slot.
+    * */
+    public long scheduleWord(int word, long nowMillis) {
+        if (mStartTime == NOT_STARTED) {
+            throw new IllegalStateException("start() not called");
+        }
+        long slot = Math.max(mLastSlot + 1, currentSlot(nowMillis));
+        long slotStart = getSlotStart(slot);
+        long late = nowMillis - slotStart;
+        if (late * 2 > mWordDurationMillis) {
+            slot++;
+            slotStart += mWordDurationMillis;
+        }
+        if (slot > mLastSlot + 1) {
+            mSkippedSlots += (int) (slot - mLastSlot - 1);
+        }
+        mMaxLateMillis = Math.max(mMaxLateMillis, nowMillis - slotStart);
+        if (mCount > 0 && !mIsStopped) {
+            // Previous word stays on screen until this one replaces it, a frame late or after a stall
+            mVisibleUntil[mLast] = Math.max(mVisibleUntil[mLast], nowMillis);
+        }
+        mIsStopped = false;
+        mLastSlot = slot;
+        mLast = (mLast + 1) % mWords.length;
+        mCount = Math.min(mCount + 1, mWords.length);
+        mWords[mLast] = word;
+        mVisibleFrom[mLast] = Math.max(nowMillis, slotStart);
+        mVisibleUntil[mLast] = slotStart + mWordDurationMillis;
+        return slotStart;
+    }
+
+    // Word on screen is taken off at nowMillis, before the end of its slot (answer shown, game stopped)
+    public void stop(long nowMillis) {
+        if (mCount > 0) {
+            mVisibleUntil[mLast] = Math.max(mVisibleFrom[mLast], Math.min(mVisibleUntil[mLast], nowMillis));
+        }
+        mIsStopped = true;
+    }
+
+    // Word on screen at timeMillis, NO_WORD if none (between words after a stall, or older than the history kept)
+    public int getWordAt(long timeMillis) {
+        for (int i = 0, index = mLast; i < mCount; i++, index = (index - 1 + mWords.length) % mWords.length) {
+            if (timeMillis >= mVisibleFrom[index] && timeMillis < mVisibleUntil[index]) {
+                return mWords[index];
+            }
+        }
+        return NO_WORD;
+    }
+
+    public long getSlotStart(long slot) {
+        return mStartTime + slot * mWordDurationMillis;
+    }
+
+    public long getWordDurationMillis() {
+        return mWordDurationMillis;
+    }
+
+    // Longest a word was scheduled after the start of its slot (compressed word), since creation
+    public long getMaxLateMillis() {
+        return mMaxLateMillis;
+    }
+
+    // Slots passed with no word, since creation
+    public int getSkippedSlots() {
+        return mSkippedSlots;
+    }
+
+    private long currentSlot(long nowMillis) {
+        return nowMillis < mStartTime ? 0 : (nowMillis - mStartTime) / mWordDurationMillis;
+    }
+}
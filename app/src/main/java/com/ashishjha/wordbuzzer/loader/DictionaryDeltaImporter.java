@@ -0,0 +1,115 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.DictionaryDelta;
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.store.TranslationStoreWriter;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/*
+* Updates dictionary DB from a dictionary file (same format as "words.json") without clearing it:
+* fingerprints of DB rows are compared with the file (DictionaryDelta) and only the difference is written.
+* sync - DB ends up with exactly the translations of the file (plus appended ones),
+* append - translations of the file not yet in DB are added.
+* The memory-mapped translation store is rewritten from DB when anything changed.
+* Works on one language pair - its table and store file.
+* */
+public class DictionaryDeltaImporter {
+
+    private static final String TAG = "DictionaryDeltaImporter";
+
+    private String mReport = "";
+
+    /*
+    * Updates dictionary of the default language pair. Returns word count of the dictionary after the update.
+    * */
+    public int importDictionary(Context context, InputStream in, boolean isAppend) throws IOException {
+        return importDictionary(context, LanguagePair.DEFAULT, in, isAppend);
+    }
+
+    // Same for the dictionary of languagePair, in has the keys of its columns
+    public int importDictionary(Context context, LanguagePair languagePair, InputStream in, boolean isAppend)
+            throws IOException {
+        long startTime = SystemClock.elapsedRealtime();
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(context, languagePair);
+        dataSource.open();
+        try {
+            DictionaryDelta delta = new DictionaryDelta(isAppend);
+            dataSource.readFingerprints(delta);
+            long readTime = SystemClock.elapsedRealtime();
+
+            DictionaryJsonParser parser = new DictionaryJsonParser(in, languagePair);
+            Translation translation = new Translation(null, null);
+            while (parser.next(translation)) {
+                delta.offer(translation.getWordInLanguageOne(), translation.getWordInLanguageTwo());
+            }
+            delta.finish();
+            long diffTime = SystemClock.elapsedRealtime();
+
+            int wordCount = delta.getLastPosition();
+            if (!delta.isEmpty()) {
+                wordCount = dataSource.applyDelta(delta);
+            }
+            long applyTime = SystemClock.elapsedRealtime();
+
+            if (!delta.isEmpty() || !TranslationStoreFactory.getStoreFile(context, languagePair).exists()) {
+                writeStore(context, dataSource, wordCount);
+            }
+            long endTime = SystemClock.elapsedRealtime();
+
+            mReport = languagePair + " " + (isAppend ? "append" : "sync") + ": " + delta.getOfferedCount() + " offered, "
+                    + delta.getNewTranslations().size() + " inserted, " + delta.getDeletedPositions().length
+                    + " deleted, " + delta.getMoveFrom().length + " moved, " + wordCount + " words. "
+                    + "read " + (readTime - startTime) + " ms, diff " + (diffTime - readTime)
+                    + " ms, apply " + (applyTime - diffTime) + " ms, store " + (endTime - applyTime) + " ms";
+            Log.d(TAG, mReport);
+            return wordCount;
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    // Counts and time of each step of the last importDictionary()
+    public String getReport() {
+        return mReport;
+    }
+
+    /*
+    * Store is positional - rows are streamed in position order, a missing position is stored as "no translation".
+    * Written for the language pair of dataSource.
+    * */
+    static void writeStore(Context context, WordBuzzerDataSource dataSource, int wordCount) throws IOException {
+        LanguagePair languagePair = dataSource.getLanguagePair();
+        TranslationStoreWriter storeWriter = new TranslationStoreWriter(
+                TranslationStoreFactory.getStoreFile(context, languagePair));
+        Cursor cursor = dataSource.getContents(languagePair.getTableName(),
+                new String[]{Util.WORD_POSITION, languagePair.getColumnOne(), languagePair.getColumnTwo()},
+                null, null, Util.WORD_POSITION, null);
+        try {
+            while (cursor.moveToNext()) {
+                int position = cursor.getInt(0);
+                while (storeWriter.getWordCount() < position - 1) {
+                    storeWriter.add(null, null);
+                }
+                storeWriter.add(cursor.getString(1), cursor.getString(2));
+            }
+            while (storeWriter.getWordCount() < wordCount) {
+                storeWriter.add(null, null);
+            }
+            storeWriter.finish();
+        } finally {
+            cursor.close();
+            storeWriter.close();
+        }
+    }
+}
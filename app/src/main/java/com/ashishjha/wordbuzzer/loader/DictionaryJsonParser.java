@@ -0,0 +1,429 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/*
+* Streaming parser for the dictionary format - a UTF-8 JSON array of objects:
+*   [{"text_eng": "...", "text_spa": "..."}, ...]
+* Works on raw bytes: keys are compared byte by byte with the column names of the language pair,
+* text_eng / text_spa for the default one (no String per key),
+* values of those keys are decoded from UTF-8 (and JSON escapes) into a reused char[] and become
+* one String each - the word itself. Unknown keys and their values (any JSON value) are skipped.
+* A missing key or a null value leaves that word null.
+*
+* Pure Java, reads from any InputStream through its own buffer. Not thread safe.
+* */
+public class DictionaryJsonParser implements ImportPipeline.TranslationSource {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final int EOF = -1;
+
+    // Decoded in place of malformed UTF-8, same as InputStreamReader does
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    // Parser state
+    private static final int BEFORE_ARRAY = 0, FIRST_ELEMENT = 1, NEXT_ELEMENT = 2, DONE = 3;
+
+    private final InputStream mIn;
+
+    // Keys of language "one" and "two" words
+    private final String mKeyOne, mKeyTwo;
+
+    private final byte[] mKeyOneBytes, mKeyTwoBytes;
+
+    private final byte[] mBuffer = new byte[BUFFER_SIZE];
+
+    private int mPos, mLimit;
+
+    // Bytes consumed before mBuffer[0], for error messages
+    private long mBufferOffset;
+
+    // Decoded value, grows to the longest value
+    private char[] mChars = new char[64];
+
+    // Raw key bytes
+    private byte[] mKey = new byte[32];
+
+    private int mState = BEFORE_ARRAY;
+
+    // Dictionary of the default language pair
+    public DictionaryJsonParser(InputStream in) {
+        this(in, LanguagePair.DEFAULT);
+    }
+
+    public DictionaryJsonParser(InputStream in, LanguagePair languagePair) {
+        mIn = in;
+        mKeyOne = languagePair.getColumnOne();
+        mKeyTwo = languagePair.getColumnTwo();
+        mKeyOneBytes = mKeyOne.getBytes(UTF_8);
+        mKeyTwoBytes = mKeyTwo.getBytes(UTF_8);
+    }
+
+    /*
+    * Reads next object of the array into translation, false once the array is closed.
+    * */
+    @Override
+    public boolean next(Translation translation) throws IOException {
+        if (mState == BEFORE_ARRAY) {
+            skipByteOrderMark();
+            expect('[');
+            mState = FIRST_ELEMENT;
+        }
+        if (mState == DONE) {
+            return false;
+        }
+        int c = nextNonWhitespace();
+        if (mState == NEXT_ELEMENT) {
+            if (c == ']') {
+                return finish();
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+            c = nextNonWhitespace();
+        } else if (c == ']') {
+            return finish();
+        }
+        if (c != '{') {
+            throw syntaxError("Expected '{'");
+        }
+        readObject(translation);
+        mState = NEXT_ELEMENT;
+        return true;
+    }
+
+    private boolean finish() throws IOException {
+        mState = DONE;
+        if (nextNonWhitespace() != EOF) {
+            throw syntaxError("Unexpected data after array");
+        }
+        return false;
+    }
+
+    // Opening '{' is consumed
+    private void readObject(Translation translation) throws IOException {
+        String wordInLanguageOne = null, wordInLanguageTwo = null;
+        int c = nextNonWhitespace();
+        if (c != '}') {
+            while (true) {
+                if (c != '"') {
+                    throw syntaxError("Expected key");
+                }
+                int key = readKey();
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                if (key == 1) {
+                    wordInLanguageOne = readStringValue();
+                } else if (key == 2) {
+                    wordInLanguageTwo = readStringValue();
+                } else {
+                    skipValue(nextNonWhitespace());
+                }
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+                c = nextNonWhitespace();
+            }
+        }
+        translation.set(wordInLanguageOne, wordInLanguageTwo);
+    }
+
+    /*
+    * Opening '"' is consumed. Returns 1 for key of language "one", 2 for language "two", 0 for any other key.
+    * */
+    private int readKey() throws IOException {
+        int length = 0;
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                break;
+            }
+            if (c == EOF) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '\\') {
+                // Escaped key (never in our files) - compare decoded text instead of bytes
+                String decoded = new String(mKey, 0, length, UTF_8) + readString(c);
+                return mKeyOne.equals(decoded) ? 1 : mKeyTwo.equals(decoded) ? 2 : 0;
+            }
+            if (length == mKey.length) {
+                byte[] key = new byte[length * 2];
+                System.arraycopy(mKey, 0, key, 0, length);
+                mKey = key;
+            }
+            mKey[length++] = (byte) c;
+        }
+        return keyEquals(mKeyOneBytes, length) ? 1 : keyEquals(mKeyTwoBytes, length) ? 2 : 0;
+    }
+
+    private boolean keyEquals(byte[] expected, int length) {
+        if (expected.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (mKey[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Value of a known key - string, null, or number / literal taken as text (same as JsonReader.nextString())
+    private String readStringValue() throws IOException {
+        int c = nextNonWhitespace();
+        if (c == '"') {
+            return readString(read());
+        }
+        if (c == 'n') {
+            expectLiteral("ull");
+            return null;
+        }
+        if (c == '-' || (c >= '0' && c <= '9') || c == 't' || c == 'f') {
+            int length = 0;
+            do {
+                length = appendChar(length, (char) c);
+                c = read();
+            } while (c != EOF && !isDelimiter(c));
+            unread(c);
+            return new String(mChars, 0, length);
+        }
+        throw syntaxError("Expected string value");
+    }
+
+    /*
+    * Decodes string body up to closing '"'. c is its 1st byte (already read).
+    * */
+    private String readString(int c) throws IOException {
+        int length = 0;
+        while (true) {
+            if (c == EOF) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return new String(mChars, 0, length);
+            }
+            if (c == '\\') {
+                length = appendChar(length, readEscape());
+            } else if (c < 0x80) {
+                length = appendChar(length, (char) c);
+            } else {
+                length = decodeUtf8(c, length);
+            }
+            c = read();
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid \\u escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                // Surrogates of a pair come as two escapes and end up next to each other
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape");
+        }
+    }
+
+    // Multi-byte UTF-8 sequence starting with lead, malformed input decodes to REPLACEMENT_CHAR
+    private int decodeUtf8(int lead, int length) throws IOException {
+        int continuation;
+        int codePoint;
+        if (lead >= 0xc2 && lead <= 0xdf) {
+            continuation = 1;
+            codePoint = lead & 0x1f;
+        } else if (lead >= 0xe0 && lead <= 0xef) {
+            continuation = 2;
+            codePoint = lead & 0x0f;
+        } else if (lead >= 0xf0 && lead <= 0xf4) {
+            continuation = 3;
+            codePoint = lead & 0x07;
+        } else {
+            return appendChar(length, REPLACEMENT_CHAR);
+        }
+        for (int i = 0; i < continuation; i++) {
+            int c = read();
+            if ((c & 0xc0) != 0x80) {
+                // Not a continuation byte - it starts the next character
+                unread(c);
+                return appendChar(length, REPLACEMENT_CHAR);
+            }
+            codePoint = (codePoint << 6) | (c & 0x3f);
+        }
+        if ((continuation == 2 && (codePoint < 0x800 || Character.isSurrogate((char) codePoint)))
+                || (continuation == 3 && (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT))) {
+            return appendChar(length, REPLACEMENT_CHAR);
+        }
+        if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            length = appendChar(length, Character.highSurrogate(codePoint));
+            return appendChar(length, Character.lowSurrogate(codePoint));
+        }
+        return appendChar(length, (char) codePoint);
+    }
+
+    private int appendChar(int length, char c) {
+        if (length == mChars.length) {
+            char[] chars = new char[length * 2];
+            System.arraycopy(mChars, 0, chars, 0, length);
+            mChars = chars;
+        }
+        mChars[length] = c;
+        return length + 1;
+    }
+
+    // Skips any JSON value, c is its 1st byte
+    private void skipValue(int c) throws IOException {
+        int depth = 0;
+        while (true) {
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    throw syntaxError("Expected value");
+                }
+                depth--;
+            } else if (c == EOF) {
+                throw syntaxError("Unterminated value");
+            } else if (c == ',' || c == ':') {
+                if (depth == 0) {
+                    throw syntaxError("Expected value");
+                }
+            } else if (!isWhitespace(c)) {
+                // Number or literal
+                do {
+                    c = read();
+                } while (c != EOF && !isDelimiter(c) && !isWhitespace(c));
+                unread(c);
+            }
+            if (depth == 0) {
+                return;
+            }
+            c = read();
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                // Escaped byte is never a '"' that ends the string
+                read();
+            } else if (c == EOF) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (fill(3) && (mBuffer[mPos] & 0xff) == 0xef && (mBuffer[mPos + 1] & 0xff) == 0xbb
+                && (mBuffer[mPos + 2] & 0xff) == 0xbf) {
+            mPos += 3;
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (nextNonWhitespace() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (isWhitespace(c));
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == ',' || c == '}' || c == ']' || c == ':' || isWhitespace(c);
+    }
+
+    private int read() throws IOException {
+        if (mPos == mLimit && !fill(1)) {
+            return EOF;
+        }
+        return mBuffer[mPos++] & 0xff;
+    }
+
+    // Only the byte just returned by read() can be pushed back
+    private void unread(int c) {
+        if (c != EOF) {
+            mPos--;
+        }
+    }
+
+    // Makes at least "count" bytes available from mPos, false at end of stream
+    private boolean fill(int count) throws IOException {
+        if (mPos > 0) {
+            int remaining = mLimit - mPos;
+            System.arraycopy(mBuffer, mPos, mBuffer, 0, remaining);
+            mBufferOffset += mPos;
+            mPos = 0;
+            mLimit = remaining;
+        }
+        while (mLimit < count) {
+            int read = mIn.read(mBuffer, mLimit, mBuffer.length - mLimit);
+            if (read == -1) {
+                return false;
+            }
+            mLimit += read;
+        }
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at byte " + (mBufferOffset + mPos));
+    }
+}
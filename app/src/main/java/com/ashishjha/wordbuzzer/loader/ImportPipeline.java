@@ -0,0 +1,234 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/*
+* Two stage import: DictionaryParserThread reads translations from a TranslationSource into batches,
+* the calling thread writes full batches (e.g. one DB transaction per batch), so parsing and writing overlap.
+*
+* Batches and their Translation objects are allocated once and recycled: queueCapacity full batches wait for
+* the writer, one is being parsed and one written. Parser blocks once all of them are in use (backpressure),
+* so at most (queueCapacity + 2) * batchSize translations are in memory whatever the dictionary size.
+* An interrupted import is resumed by running again from the first position not committed (see WordLoader).
+* */
+public class ImportPipeline {
+
+    /*
+    * Fills translation (a recycled object) with the next entry, returns false at end of input.
+    * Called on DictionaryParserThread only.
+    * */
+    public interface TranslationSource {
+        boolean next(Translation translation) throws IOException;
+    }
+
+    /*
+    * Writes a batch, startPos is position of its 1st translation. Called on the thread calling run().
+    * Translations are recycled once write() returns - they must not be kept.
+    * */
+    public interface BatchWriter {
+        void write(List<Translation> batch, int startPos) throws IOException;
+    }
+
+    private static final class Batch {
+
+        final Translation[] mTranslations;
+
+        final List<Translation> mList;
+
+        int mSize;
+
+        int mStartPos;
+
+        boolean mIsLast;
+
+        Batch(int batchSize) {
+            mTranslations = new Translation[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                mTranslations[i] = new Translation(null, null);
+            }
+            mList = Arrays.asList(mTranslations);
+        }
+    }
+
+    private final int mBatchSize;
+
+    private final int mQueueCapacity;
+
+    private volatile Throwable mParserFailure;
+
+    // Time spent by each stage working and waiting for the other one
+    private long mParseNanos, mParserWaitNanos, mWriteNanos, mWriterWaitNanos;
+
+    private int mTranslationCount;
+
+    private int mStartPos = 1;
+
+    private long mElapsedNanos;
+
+    public ImportPipeline(int batchSize, int queueCapacity) {
+        if (batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("batchSize and queueCapacity must be positive");
+        }
+        mBatchSize = batchSize;
+        mQueueCapacity = queueCapacity;
+    }
+
+    /*
+    * Runs the import until source is exhausted. Returns number of translations read (positions 1 .. n).
+    * Failure of either stage stops both and is rethrown here.
+    * */
+    public int run(TranslationSource source, BatchWriter writer) throws IOException {
+        return run(source, writer, 1);
+    }
+
+    /*
+    * Resumes an import - translations before startPos are read but not written, 1st batch starts at startPos.
+    * Returns number of translations written (positions startPos .. startPos + n - 1).
+    * */
+    public int run(final TranslationSource source, BatchWriter writer, final int startPos) throws IOException {
+        if (startPos < 1) {
+            throw new IllegalArgumentException("startPos must be positive: " + startPos);
+        }
+        mStartPos = startPos;
+        final ArrayBlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(mQueueCapacity + 2);
+        final ArrayBlockingQueue<Batch> fullBatches = new ArrayBlockingQueue<>(mQueueCapacity);
+        for (int i = 0; i < mQueueCapacity + 2; i++) {
+            freeBatches.add(new Batch(mBatchSize));
+        }
+        mParserFailure = null;
+        Thread parserThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                parse(source, startPos, freeBatches, fullBatches);
+            }
+        }, "DictionaryParserThread");
+        parserThread.start();
+
+        long startTime = System.nanoTime();
+        mElapsedNanos = 0;
+        mWriteNanos = 0;
+        mWriterWaitNanos = 0;
+        mTranslationCount = 0;
+        boolean isDone = false;
+        try {
+            while (!isDone) {
+                long waitStart = System.nanoTime();
+                Batch batch = fullBatches.take();
+                long writeStart = System.nanoTime();
+                mWriterWaitNanos += writeStart - waitStart;
+                if (batch.mSize > 0) {
+                    writer.write(batch.mList.subList(0, batch.mSize), batch.mStartPos);
+                }
+                mWriteNanos += System.nanoTime() - writeStart;
+                mTranslationCount += batch.mSize;
+                isDone = batch.mIsLast;
+                freeBatches.put(batch);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } finally {
+            if (!isDone) {
+                // Writer failed - parser may be blocked waiting for a free batch
+                parserThread.interrupt();
+            }
+            joinUninterruptibly(parserThread);
+            mElapsedNanos = System.nanoTime() - startTime;
+        }
+        Throwable failure = mParserFailure;
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        return mTranslationCount;
+    }
+
+    // Runs on DictionaryParserThread
+    private void parse(TranslationSource source, int startPos, ArrayBlockingQueue<Batch> freeBatches,
+                       ArrayBlockingQueue<Batch> fullBatches) {
+        mParseNanos = 0;
+        mParserWaitNanos = 0;
+        int pos = 1;
+        Batch batch = null;
+        try {
+            long skipStart = System.nanoTime();
+            Translation skipped = new Translation(null, null);
+            while (pos < startPos && source.next(skipped)) {
+                pos++;
+            }
+            // Input shorter than the checkpoint - nothing left to write
+            pos = startPos;
+            mParseNanos += System.nanoTime() - skipStart;
+            boolean isLast = false;
+            while (!isLast) {
+                long waitStart = System.nanoTime();
+                batch = freeBatches.take();
+                long parseStart = System.nanoTime();
+                mParserWaitNanos += parseStart - waitStart;
+                batch.mStartPos = pos;
+                batch.mSize = 0;
+                while (batch.mSize < mBatchSize && source.next(batch.mTranslations[batch.mSize])) {
+                    batch.mSize++;
+                }
+                pos += batch.mSize;
+                isLast = batch.mSize < mBatchSize;
+                batch.mIsLast = isLast;
+                mParseNanos += System.nanoTime() - parseStart;
+                fullBatches.put(batch);
+                batch = null;
+            }
+        } catch (InterruptedException ex) {
+            // Writer gave up
+        } catch (Throwable ex) {
+            mParserFailure = ex;
+            if (batch == null) {
+                // Failed while skipping to startPos - every batch is still free
+                batch = freeBatches.poll();
+            }
+            if (batch != null) {
+                // Unblock the writer, it rethrows the failure once this thread is done
+                batch.mSize = 0;
+                batch.mIsLast = true;
+                try {
+                    fullBatches.put(batch);
+                } catch (InterruptedException ignored) {
+                    // Writer gave up
+                }
+            }
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException ex) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Throughput of the last run() and where each stage spent its time
+    public String getReport() {
+        long elapsedMs = Math.max(1, mElapsedNanos / 1000000);
+        return mTranslationCount + " translations" + (mStartPos > 1 ? " from position " + mStartPos : "")
+                + " in " + elapsedMs + " ms ("
+                + (mTranslationCount * 1000L / elapsedMs) + " rows/sec), parser: "
+                + mParseNanos / 1000000 + " ms busy, " + mParserWaitNanos / 1000000 + " ms waiting for writer; writer: "
+                + mWriteNanos / 1000000 + " ms busy, " + mWriterWaitNanos / 1000000 + " ms waiting for parser";
+    }
+}
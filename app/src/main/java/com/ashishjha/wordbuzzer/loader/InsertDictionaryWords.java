@@ -1,34 +1,72 @@
 package com.ashishjha.wordbuzzer.loader;
 
-import android.content.ContentValues;
 import android.content.Context;
 
 import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.ImportCheckpoint;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
 import com.ashishjha.wordbuzzer.model.Translation;
-import com.ashishjha.wordbuzzer.utils.Util;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by ashish on 30/1/16.
  */
+/*
+* Writes parsed translations to DB.
+* A single WordBuzzerDataSource is kept open for the whole import (open() .. close())
+* and every batch is written in its own transaction through a precompiled insert statement.
+* With a checkpoint source, the import checkpoint is committed together with each batch.
+* */
 public class InsertDictionaryWords {
 
+    private WordBuzzerDataSource mDataSource;
+
+    // null - no checkpoint
+    private String mCheckpointSource;
+
+    // Translations go to the table of languagePair, created on first import of the pair
+    void open(Context context, LanguagePair languagePair) {
+        mDataSource = new WordBuzzerDataSource(context, languagePair);
+        mDataSource.open();
+        mDataSource.createTranslationTable();
+    }
+
+    void close() {
+        if (mDataSource != null) {
+            mDataSource.close();
+            mDataSource = null;
+        }
+    }
+
     // startPos - position of 1st word in translationList
     // translationList - list of translations to be inserted in DB
-    void insertDictionaryWordsInDB(Context context, ArrayList<Translation> translationList, int startPos) {
-        if (translationList == null) {
-            return;
-        }
-        ContentValues values = new ContentValues();
-        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(context);
-        dataSource.open();
-        for (Translation translation : translationList) {
-            values.put(Util.TEXT_ENGLISH, translation.getWordInLanguageOne());
-            values.put(Util.TEXT_SPA, translation.getWordInLanguageTwo());
-            values.put(Util.WORD_POSITION, startPos++);
-            dataSource.insertIntoTable(Util.DATABASE_NAME, values);
+    int insertDictionaryWordsInDB(List<Translation> translationList, int startPos) {
+        if (translationList == null || translationList.isEmpty()) {
+            return 0;
         }
-        dataSource.close();
+        return mDataSource.insertTranslations(translationList, startPos, mCheckpointSource);
+    }
+
+    /*
+    * Checkpoint of checkpointSource from an earlier, interrupted import, null if there is none.
+    * Batches written from now on move the checkpoint of checkpointSource.
+    * */
+    ImportCheckpoint startCheckpoint(String checkpointSource) {
+        mCheckpointSource = checkpointSource;
+        return mDataSource.getImportCheckpoint(checkpointSource);
+    }
+
+    // Dictionary must be imported from position 1 - any earlier content and checkpoint of the pair are dropped
+    void clearDictionary() {
+        mDataSource.clearDictionary();
+    }
+
+    void markImportComplete(int nextPosition) {
+        mDataSource.markImportComplete(mCheckpointSource, nextPosition);
+    }
+
+    WordBuzzerDataSource getDataSource() {
+        return mDataSource;
     }
 }
@@ -0,0 +1,113 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.database.WordBuzzerDatabaseManager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+* Installs the dictionary files compiled at build time (app:buildPrebuiltDictionary, app:buildTranslationStore) from assets.
+* An asset is copied next to a temporary name and renamed over the target file,
+* so an interrupted copy never leaves a half written file behind.
+* If the asset is missing, caller should fall back to importing words.json through WordLoader.
+* */
+public class PrebuiltDictionaryInstaller {
+
+    private static final String TAG = "PrebuiltDictionary";
+
+    private static final int COPY_BUFFER_SIZE = 16 * 1024;
+
+    /*
+    * Copies prebuilt dictionary (assetName) to DB file (databaseName).
+    * Returns number of words in installed dictionary or 0 if prebuilt dictionary is not available.
+    * No connection to databaseName must be open while installing.
+    * */
+    public int install(Context context, String assetName, String databaseName) {
+        if (WordBuzzerDatabaseManager.getInstance(context).getOpenCount() > 0) {
+            // DB file can not be replaced under an open connection
+            Log.d(TAG, "install() DB is in use");
+            return 0;
+        }
+        File dbFile = context.getDatabasePath(databaseName);
+        if (!installFile(context, assetName, dbFile)) {
+            return 0;
+        }
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(context);
+        dataSource.open();
+        int wordCount = dataSource.getLastWordPosition();
+        dataSource.close();
+        return wordCount;
+    }
+
+    /*
+    * Copies asset (assetName) to target file.
+    * Returns false if asset is not available or could not be copied. Target is left untouched in that case.
+    * */
+    public boolean installFile(Context context, String assetName, File target) {
+        File tmpFile = new File(target.getPath() + ".tmp");
+        InputStream in = null;
+        OutputStream out = null;
+        try {
+            in = context.getAssets().open(assetName);
+            File parent = target.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                Log.d(TAG, "installFile() can not create " + parent);
+                return false;
+            }
+            out = new FileOutputStream(tmpFile);
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.close();
+            out = null;
+            // Stale journal of previous DB must not be applied on the new file
+            deleteIfExists(new File(target.getPath() + "-journal"));
+            deleteIfExists(new File(target.getPath() + "-wal"));
+            deleteIfExists(new File(target.getPath() + "-shm"));
+            if (!tmpFile.renameTo(target)) {
+                Log.d(TAG, "installFile() rename failed");
+                return false;
+            }
+            return true;
+        } catch (FileNotFoundException ex) {
+            Log.d(TAG, "installFile() no prebuilt " + assetName);
+            return false;
+        } catch (IOException ex) {
+            Log.d(TAG, "installFile() ERROR");
+            ex.printStackTrace();
+            return false;
+        } finally {
+            closeQuietly(in);
+            closeQuietly(out);
+            deleteIfExists(tmpFile);
+        }
+    }
+
+    private static void deleteIfExists(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.d(TAG, "Can not delete " + file);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ex) {
+            // Nothing to do
+        }
+    }
+}
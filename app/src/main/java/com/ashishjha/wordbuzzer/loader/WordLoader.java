@@ -1,16 +1,20 @@
 package com.ashishjha.wordbuzzer.loader;
 
 import android.content.Context;
-import android.util.JsonReader;
 import android.util.Log;
 
+import com.ashishjha.wordbuzzer.BuildConfig;
+import com.ashishjha.wordbuzzer.model.ImportCheckpoint;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
 import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.store.TranslationStoreWriter;
 import com.ashishjha.wordbuzzer.utils.Util;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by ashish on 30/1/16.
@@ -18,20 +22,56 @@ import java.util.ArrayList;
 /*
 * Class responsible for parsing "words.json"
 * (translation file from language "one" to language "two").
-* It used JsonReader to parse file to avoid loading entire file in RAM.
-* To have minimum RAM footprint - it initiates DB insertion in batch of 100 translations
+* It uses DictionaryJsonParser (streaming, byte level) to parse file to avoid loading entire file in RAM.
+* To have minimum RAM footprint - it initiates DB insertion in batches (Util.IMPORT_BATCH_SIZE translations by default),
+* each batch being committed in a single transaction.
+* Parsing and writing run on two threads (ImportPipeline) with a bounded number of recycled batches in between.
+* The same pass writes the memory-mapped translation store (TranslationStoreWriter) used by WordLoaderService.
+* Each batch commits an import checkpoint with it, so an import killed with the process is resumed
+* from the first position not committed instead of starting over (the store is then rebuilt from DB).
+* Committed positions are reported to a ProgressListener, so the game can start before the import is done.
+* Dictionary of a language pair (LanguagePair) goes to its own table and store file, other pairs are left untouched.
 * */
 public class WordLoader {
 
     private static final String TAG = "WordLoader";
 
+    /*
+    * Positions 1 .. committedCount are in DB. Called on the importing thread once the import is (re)started
+    * and after every committed batch.
+    * */
+    public interface ProgressListener {
+        void onProgress(int committedCount);
+    }
+
+    // Number of translations kept in memory and committed to DB in one transaction
+    private final int mBatchSize;
+
+    public WordLoader() {
+        this(Util.IMPORT_BATCH_SIZE);
+    }
+
+    public WordLoader(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        mBatchSize = batchSize;
+    }
+
     /* Load the dictionary (translation file) - words.json
      * (translation file from language "one" to language "two") to DB.
      * */
-    public int loadDictionary(Context context, String fileName) {
+    public int loadDictionary(Context context) {
+        return loadDictionary(context, LanguagePair.DEFAULT, null);
+    }
+
+    // Loads dictionary asset of languagePair (LanguagePair.getAssetName()). listener - may be null
+    public int loadDictionary(Context context, LanguagePair languagePair, ProgressListener listener) {
+        String fileName = languagePair.getAssetName();
         try {
             InputStream is = context.getAssets().open(fileName);
-            return readJsonStream(context, is);
+            // Content of an asset only changes with the app
+            return loadDictionary(context, languagePair, is, fileName + "@" + BuildConfig.VERSION_CODE, listener);
         } catch (IOException ex) {
             Log.d(TAG, "loadDictionary() ERROR");
             ex.printStackTrace();
@@ -39,54 +79,90 @@ public class WordLoader {
         return 0;
     }
 
-    private int readJsonStream(Context context, InputStream in) throws IOException {
-        // JsonReader is used to parse file to avoid loading entire file in RAM.
-        JsonReader reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+    /*
+    * Imports dictionary of the default language pair from in (closed once done),
+    * resuming the import checkpointed under checkpointSource if any.
+    * */
+    public int loadDictionary(Context context, InputStream in, String checkpointSource, ProgressListener listener)
+            throws IOException {
+        return loadDictionary(context, LanguagePair.DEFAULT, in, checkpointSource, listener);
+    }
+
+    // Same for the dictionary of languagePair, checkpointSource is scoped to the pair
+    public int loadDictionary(Context context, LanguagePair languagePair, InputStream in, String checkpointSource,
+                              ProgressListener listener) throws IOException {
+        // Streaming byte level parser (reads through its own buffer) - entire file is never loaded in RAM.
         try {
-            return readTranslationArray(context, reader);
+            return readTranslationArray(context, languagePair, new DictionaryJsonParser(in, languagePair),
+                    languagePair.getCheckpointSource(checkpointSource), listener);
         } finally {
-            reader.close();
+            in.close();
         }
     }
 
-    private int readTranslationArray(Context context, JsonReader reader) throws IOException {
-        ArrayList<Translation> translations = new ArrayList<>();
-        InsertDictionaryWords insertWords = new InsertDictionaryWords();
-        reader.beginArray();
-        int pos = 0;
-        while (reader.hasNext()) {
-            ++pos;
-            Translation translation = getTranslation(reader);
-            translations.add(translation);
-            // Keep only MAX_TRANSLATIONS_IN_MEMORY at once.
-            // To have minimum RAM footprint - it initiates DB insertion in batch of 100 translations
-            // When count reaches MAX_TRANSLATIONS_IN_MEMORY, insert them into DB and clear data structure
-            if (pos % Util.MAX_TRANSLATIONS_IN_MEMORY == 0) {
-                insertWords.insertDictionaryWordsInDB(context, translations, pos + 1 - Util.MAX_TRANSLATIONS_IN_MEMORY);
-                translations.clear();
+    private int readTranslationArray(Context context, LanguagePair languagePair, DictionaryJsonParser parser,
+                                     String checkpointSource, final ProgressListener listener) throws IOException {
+        final InsertDictionaryWords insertWords = new InsertDictionaryWords();
+        ImportPipeline pipeline = new ImportPipeline(mBatchSize, Util.IMPORT_QUEUE_CAPACITY);
+        // One connection for the whole import
+        insertWords.open(context, languagePair);
+        File storeFile = TranslationStoreFactory.getStoreFile(context, languagePair);
+        TranslationStoreWriter storeWriter = null;
+        int count;
+        try {
+            ImportCheckpoint checkpoint = insertWords.startCheckpoint(checkpointSource);
+            if (checkpoint != null && checkpoint.isComplete()) {
+                // Process died after the import, before DictionaryBuilderService recorded it
+                count = checkpoint.getImportedCount();
+                if (!storeFile.exists()) {
+                    DictionaryDeltaImporter.writeStore(context, insertWords.getDataSource(), count);
+                }
+                Log.d(TAG, "Dictionary of " + count + " words already imported");
+                return count;
             }
-        }
-        reader.endArray();
-        int nextPos = (pos / Util.MAX_TRANSLATIONS_IN_MEMORY);
-        nextPos *= Util.MAX_TRANSLATIONS_IN_MEMORY;
-        nextPos++;
-        insertWords.insertDictionaryWordsInDB(context, translations, nextPos);
-        Log.d(TAG, "Total Words= " + pos);
-        return pos;
-    }
-
-    private Translation getTranslation(JsonReader reader) throws IOException {
-        String english = null, spa = null;
-        reader.beginObject();
-        while (reader.hasNext()) {
-            String name = reader.nextName();
-            if (name.equals(Util.TEXT_ENGLISH)) {
-                english = reader.nextString();
-            } else if (name.equals(Util.TEXT_SPA)) {
-                spa = reader.nextString();
+            int startPos = 1;
+            if (checkpoint == null) {
+                insertWords.clearDictionary();
+            } else {
+                startPos = checkpoint.getNextPosition();
+                Log.d(TAG, "Resuming import at position " + startPos);
+            }
+            if (listener != null) {
+                listener.onProgress(startPos - 1);
+            }
+            // Store is written in one pass - a resumed import rebuilds it from DB instead
+            final TranslationStoreWriter writer = startPos == 1
+                    ? new TranslationStoreWriter(storeFile) : null;
+            storeWriter = writer;
+            // Parsing runs on DictionaryParserThread, DB and store writes on this thread
+            count = startPos - 1 + pipeline.run(parser, new ImportPipeline.BatchWriter() {
+                @Override
+                public void write(List<Translation> batch, int batchStartPos) throws IOException {
+                    if (writer != null) {
+                        for (Translation translation : batch) {
+                            writer.add(translation.getWordInLanguageOne(), translation.getWordInLanguageTwo());
+                        }
+                    }
+                    // Whole batch and its checkpoint in one transaction
+                    insertWords.insertDictionaryWordsInDB(batch, batchStartPos);
+                    if (listener != null) {
+                        listener.onProgress(batchStartPos + batch.size() - 1);
+                    }
+                }
+            }, startPos);
+            insertWords.markImportComplete(count + 1);
+            if (storeWriter != null) {
+                storeWriter.finish();
+            } else {
+                DictionaryDeltaImporter.writeStore(context, insertWords.getDataSource(), count);
+            }
+        } finally {
+            if (storeWriter != null) {
+                storeWriter.close();
             }
+            insertWords.close();
         }
-        reader.endObject();
-        return new Translation(english, spa);
+        Log.d(TAG, languagePair + ": Total Words= " + count + ", " + pipeline.getReport());
+        return count;
     }
 }
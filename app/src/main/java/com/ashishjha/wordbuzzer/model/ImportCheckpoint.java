@@ -0,0 +1,37 @@
+package com.ashishjha.wordbuzzer.model;
+
+/*
+* How far the import of a dictionary source got - every position before getNextPosition() is committed.
+* Written in the same transaction as each imported batch (WordBuzzerDataSource.insertTranslations).
+* */
+public class ImportCheckpoint {
+
+    private final String mSource;
+
+    private final int mNextPosition;
+
+    private final boolean mIsComplete;
+
+    public ImportCheckpoint(String source, int nextPosition, boolean isComplete) {
+        mSource = source;
+        mNextPosition = nextPosition;
+        mIsComplete = isComplete;
+    }
+
+    public String getSource() {
+        return mSource;
+    }
+
+    public int getNextPosition() {
+        return mNextPosition;
+    }
+
+    // Positions imported so far (including the ones of translations with a missing word)
+    public int getImportedCount() {
+        return mNextPosition - 1;
+    }
+
+    public boolean isComplete() {
+        return mIsComplete;
+    }
+}
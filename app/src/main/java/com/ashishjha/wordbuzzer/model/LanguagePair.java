@@ -0,0 +1,135 @@
+package com.ashishjha.wordbuzzer.model;
+
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+* A dictionary from language "one" to language "two", e.g. eng -> spa.
+* Every pair has its own translation table, store file and dictionary asset, all named after the language codes:
+* table word_buzzer_db_<one>_<two> with columns text_<one> / text_<two>, asset words_<one>_<two>.json,
+* store file word_buzzer_store_<one>_<two>.bin. The bundled eng -> spa dictionary (DEFAULT) keeps
+* the names it always had (word_buzzer_db, words.json, word_buzzer_store.bin).
+* Language codes are lower case letters only, so names built from them are safe SQL identifiers.
+* */
+public class LanguagePair {
+
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[a-z]{2,8}");
+
+    // words_<one>_<two>.json
+    private static final Pattern DICTIONARY_ASSET = Pattern.compile("words_([a-z]{2,8})_([a-z]{2,8})\\.json");
+
+    private static final String COLUMN_PREFIX = "text_";
+
+    public static final LanguagePair DEFAULT = new LanguagePair("eng", "spa");
+
+    private final String mLanguageOne;
+
+    private final String mLanguageTwo;
+
+    private LanguagePair(String languageOne, String languageTwo) {
+        mLanguageOne = languageOne;
+        mLanguageTwo = languageTwo;
+    }
+
+    public static LanguagePair of(String languageOne, String languageTwo) {
+        if (languageOne == null || !LANGUAGE_CODE.matcher(languageOne).matches()
+                || languageTwo == null || !LANGUAGE_CODE.matcher(languageTwo).matches()) {
+            throw new IllegalArgumentException("Invalid language pair: " + languageOne + " -> " + languageTwo);
+        }
+        if (languageOne.equals(languageTwo)) {
+            throw new IllegalArgumentException("Same language on both sides: " + languageOne);
+        }
+        if (DEFAULT.mLanguageOne.equals(languageOne) && DEFAULT.mLanguageTwo.equals(languageTwo)) {
+            return DEFAULT;
+        }
+        return new LanguagePair(languageOne, languageTwo);
+    }
+
+    // Inverse of getId()
+    public static LanguagePair fromId(String id) {
+        int separator = id == null ? -1 : id.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid language pair id: " + id);
+        }
+        return of(id.substring(0, separator), id.substring(separator + 1));
+    }
+
+    // Pair whose dictionary is shipped as assetName, null if assetName is not a dictionary asset
+    public static LanguagePair fromAssetName(String assetName) {
+        if (Util.DICTIONARY_JSON_ASSET.equals(assetName)) {
+            return DEFAULT;
+        }
+        Matcher matcher = DICTIONARY_ASSET.matcher(assetName);
+        if (!matcher.matches() || matcher.group(1).equals(matcher.group(2))) {
+            return null;
+        }
+        return of(matcher.group(1), matcher.group(2));
+    }
+
+    public String getLanguageOne() {
+        return mLanguageOne;
+    }
+
+    public String getLanguageTwo() {
+        return mLanguageTwo;
+    }
+
+    public boolean isDefault() {
+        return this == DEFAULT;
+    }
+
+    // Key of the pair in language_pair registry and in SharedPreference (Util.ACTIVE_LANGUAGE_PAIR)
+    public String getId() {
+        return mLanguageOne + "_" + mLanguageTwo;
+    }
+
+    public String getTableName() {
+        return isDefault() ? Util.DATABASE_NAME : Util.DATABASE_NAME + "_" + getId();
+    }
+
+    // Column of language "one" words, also the key of those words in the dictionary asset
+    public String getColumnOne() {
+        return COLUMN_PREFIX + mLanguageOne;
+    }
+
+    public String getColumnTwo() {
+        return COLUMN_PREFIX + mLanguageTwo;
+    }
+
+    public String getAssetName() {
+        return isDefault() ? Util.DICTIONARY_JSON_ASSET : "words_" + getId() + ".json";
+    }
+
+    public String getStoreFileName() {
+        return isDefault() ? Util.TRANSLATION_STORE_FILE : "word_buzzer_store_" + getId() + ".bin";
+    }
+
+    // Import checkpoints of this pair are named <id>:<source>, so clearing a pair leaves other pairs' imports alone
+    public String getCheckpointSource(String source) {
+        return getId() + ":" + source;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LanguagePair)) {
+            return false;
+        }
+        LanguagePair other = (LanguagePair) o;
+        return mLanguageOne.equals(other.mLanguageOne) && mLanguageTwo.equals(other.mLanguageTwo);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mLanguageOne.hashCode() + mLanguageTwo.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mLanguageOne + " -> " + mLanguageTwo;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ashishjha.wordbuzzer.model;
+
+import com.ashishjha.wordbuzzer.store.WordTable;
+
+/*
+* Everything WordBuzzerGameActivity needs for one round, fully prepared in background:
+* the challenge (language "one"), its correct translation (language "two")
+* and a batch of random wrong words (language "two", already in random order).
+* Words are handles into the round's WordTable - text is created only when a word is displayed.
+* Equal words have equal handles. WordLoaderService may build later rounds with another table, so handles
+* of a round are read from its own table only.
+* */
+public class QuizRound {
+
+    private final WordTable mWordTable;
+
+    private final int mChallengePosition;
+
+    private final int mChallenge;
+
+    private final int mCorrectAnswer;
+
+    private final int[] mRandomWords;
+
+    public QuizRound(WordTable wordTable, int challengePosition, int challenge, int correctAnswer, int[] randomWords) {
+        mWordTable = wordTable;
+        mChallengePosition = challengePosition;
+        mChallenge = challenge;
+        mCorrectAnswer = correctAnswer;
+        mRandomWords = randomWords;
+    }
+
+    public WordTable getWordTable() {
+        return mWordTable;
+    }
+
+    public int getChallengePosition() {
+        return mChallengePosition;
+    }
+
+    public int getChallenge() {
+        return mChallenge;
+    }
+
+    public int getCorrectAnswer() {
+        return mCorrectAnswer;
+    }
+
+    public int[] getRandomWords() {
+        return mRandomWords;
+    }
+}
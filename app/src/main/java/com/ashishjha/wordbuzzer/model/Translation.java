@@ -15,6 +15,12 @@ public class Translation {
         mWordInLanguageTwo = languageTwo;
     }
 
+    // Translations are recycled while importing dictionary (see ImportPipeline)
+    public void set(String languageOne, String languageTwo) {
+        mWordInLanguageOne = languageOne;
+        mWordInLanguageTwo = languageTwo;
+    }
+
     public String getWordInLanguageOne() {
         return mWordInLanguageOne;
     }
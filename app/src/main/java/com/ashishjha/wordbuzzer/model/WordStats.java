@@ -0,0 +1,46 @@
+package com.ashishjha.wordbuzzer.model;
+
+/*
+* Answers given for one word (dictionary position) since its stats were last written to DB,
+* and the review box (QuestionScheduler) the word is in after them.
+* */
+public class WordStats {
+
+    private final int mPosition;
+
+    private int mBox;
+
+    private int mCorrectCount;
+
+    private int mWrongCount;
+
+    public WordStats(int position, int box) {
+        mPosition = position;
+        mBox = box;
+    }
+
+    public void addAnswer(boolean isCorrect, int box) {
+        if (isCorrect) {
+            mCorrectCount++;
+        } else {
+            mWrongCount++;
+        }
+        mBox = box;
+    }
+
+    public int getPosition() {
+        return mPosition;
+    }
+
+    public int getBox() {
+        return mBox;
+    }
+
+    public int getCorrectCount() {
+        return mCorrectCount;
+    }
+
+    public int getWrongCount() {
+        return mWrongCount;
+    }
+}
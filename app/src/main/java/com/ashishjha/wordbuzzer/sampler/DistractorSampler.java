@@ -0,0 +1,20 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+/*
+* Strategy for fetching distractors - random words in language "two" shown as wrong options to players.
+* Implementations are used from one thread at a time (LoadNextWordThread of WordLoaderService).
+* */
+public interface DistractorSampler {
+
+    /*
+    * Fills out[0 .. count) with words of distinct random positions of a dictionary holding positions 1 .. wordCount.
+    * excludePosition - position of current challenge; its translation is never returned (0 to exclude nothing).
+    * Returns number of words written, which is smaller than count only if dictionary has fewer words.
+    * */
+    int sample(int wordCount, int count, int excludePosition, String[] out);
+
+    // Short name used in logs
+    String getName();
+
+    void close();
+}
@@ -0,0 +1,53 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import java.util.List;
+
+/*
+* Micro benchmark run once per dictionary: times every candidate DistractorSampler on a few batches
+* of the real dictionary and keeps the fastest one. Candidates which are not picked are closed.
+* */
+public class DistractorSamplerSelector {
+
+    private static final int WARM_UP_BATCHES = 2;
+
+    private static final int MEASURED_BATCHES = 5;
+
+    private final StringBuilder mReport = new StringBuilder();
+
+    public DistractorSampler pickFastest(List<DistractorSampler> candidates, int wordCount, int batchSize) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No DistractorSampler to pick from");
+        }
+        String[] out = new String[batchSize];
+        DistractorSampler fastest = null;
+        long fastestNanos = Long.MAX_VALUE;
+        mReport.setLength(0);
+        for (DistractorSampler sampler : candidates) {
+            for (int i = 0; i < WARM_UP_BATCHES; i++) {
+                sampler.sample(wordCount, batchSize, 0, out);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_BATCHES; i++) {
+                sampler.sample(wordCount, batchSize, 0, out);
+            }
+            long nanos = (System.nanoTime() - start) / MEASURED_BATCHES;
+            mReport.append(sampler.getName()).append('=').append(nanos / 1000).append("us ");
+            if (nanos < fastestNanos) {
+                fastestNanos = nanos;
+                fastest = sampler;
+            }
+        }
+        for (DistractorSampler sampler : candidates) {
+            if (sampler != fastest) {
+                sampler.close();
+            }
+        }
+        mReport.append("-> ").append(fastest.getName());
+        return fastest;
+    }
+
+    // Timings of last pickFastest() call, per batch
+    public String getReport() {
+        return mReport.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import android.database.Cursor;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.SimilarityKey;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* Wrong options that look like the correct answer: words of language "two" with the same SimilarityKey
+* (first two letters, similar length), read through the similarity_key index of the pair's table.
+*
+* Words of the answer's own key come first, from a random position on (wrapping around), so the same answer
+* does not always get the same options. A key with too few words is topped up with its neighbours in the index -
+* same first letter, closest keys first. Every step is one index range scan reading at most "count" rows,
+* so a lookup costs the same whatever the dictionary size; usually the first scan is enough.
+* Words spelled like the answer are skipped, they would be right answers judged wrong.
+* Used from one thread at a time (LoadNextWordThread of WordLoaderService).
+* */
+public class PlausibleDistractorFinder {
+
+    private final WordBuzzerDataSource mDataSource;
+
+    private final RandomSource mRandom;
+
+    private final String mTableName;
+
+    private final String[] mProjection;
+
+    private final String mSameKeyFromWhere;
+
+    private final String mSameKeyBeforeWhere;
+
+    private final String mLaterKeysWhere;
+
+    private final String mEarlierKeysWhere;
+
+    // dataSource must stay open as long as the finder is used, words are read from the table of its language pair
+    public PlausibleDistractorFinder(WordBuzzerDataSource dataSource, RandomSource random) {
+        mDataSource = dataSource;
+        mRandom = random;
+        LanguagePair languagePair = dataSource.getLanguagePair();
+        mTableName = languagePair.getTableName();
+        mProjection = new String[]{languagePair.getColumnTwo(), Util.WORD_POSITION};
+        mSameKeyFromWhere = Util.SIMILARITY_KEY + "=? and " + Util.WORD_POSITION + ">=?";
+        mSameKeyBeforeWhere = Util.SIMILARITY_KEY + "=? and " + Util.WORD_POSITION + "<?";
+        mLaterKeysWhere = Util.SIMILARITY_KEY + ">? and " + Util.SIMILARITY_KEY + "<=?";
+        mEarlierKeysWhere = Util.SIMILARITY_KEY + "<? and " + Util.SIMILARITY_KEY + ">=?";
+    }
+
+    /*
+    * Fills out[0 .. count) with words looking like answer (translation at answerPosition) taken from positions
+    * 1 .. wordCount. Returns number of words written - smaller than count if too few words share its first letter.
+    * */
+    public int find(String answer, int answerPosition, int wordCount, int count, String[] out) {
+        if (answer == null || wordCount <= 0 || count <= 0) {
+            return 0;
+        }
+        long key = SimilarityKey.of(answer);
+        String keyArg = Long.toString(key);
+        String start = Integer.toString(Util.getRandomNumber(mRandom, 1, wordCount));
+        int found = read(mSameKeyFromWhere, new String[]{keyArg, start}, Util.WORD_POSITION,
+                answer, answerPosition, count, out, 0);
+        if (found < count) {
+            found = read(mSameKeyBeforeWhere, new String[]{keyArg, start}, Util.WORD_POSITION,
+                    answer, answerPosition, count, out, found);
+        }
+        if (found < count) {
+            // Longer words and later second letters, then shorter words and earlier second letters
+            found = read(mLaterKeysWhere, new String[]{keyArg, Long.toString(SimilarityKey.firstLetterEnd(key))},
+                    Util.SIMILARITY_KEY, answer, answerPosition, count, out, found);
+        }
+        if (found < count) {
+            found = read(mEarlierKeysWhere, new String[]{keyArg, Long.toString(SimilarityKey.firstLetterStart(key))},
+                    Util.SIMILARITY_KEY + " desc", answer, answerPosition, count, out, found);
+        }
+        return found;
+    }
+
+    // One range scan, appends to out from found on. Returns the new number of words in out.
+    private int read(String where, String[] whereArgs, String orderBy, String answer, int answerPosition,
+                     int count, String[] out, int found) {
+        // Enough rows to make up for the answer itself and one word spelled like it
+        int limit = count - found + 2;
+        Cursor cursor = mDataSource.getContents(mTableName, mProjection, where, whereArgs, orderBy,
+                Integer.toString(limit));
+        if (cursor == null) {
+            return found;
+        }
+        try {
+            while (found < count && cursor.moveToNext()) {
+                String word = cursor.getString(0);
+                if (cursor.getInt(1) != answerPosition && !answer.equals(word) && !contains(out, found, word)) {
+                    out[found++] = word;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return found;
+    }
+
+    private static boolean contains(String[] words, int length, String word) {
+        for (int i = 0; i < length; i++) {
+            if (words[i].equals(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
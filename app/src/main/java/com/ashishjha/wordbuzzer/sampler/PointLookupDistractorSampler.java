@@ -0,0 +1,55 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* One rowid lookup per distractor, all through a single precompiled statement.
+* No SQL is built or parsed per batch and no cursor is allocated.
+* */
+public class PointLookupDistractorSampler implements DistractorSampler {
+
+    private final SQLiteStatement mSelectWordStatement;
+
+    private final UniquePositionSampler mPositionSampler;
+
+    // dataSource must stay open until close(), words are read from the table of its language pair
+    public PointLookupDistractorSampler(WordBuzzerDataSource dataSource, UniquePositionSampler positionSampler) {
+        LanguagePair languagePair = dataSource.getLanguagePair();
+        mSelectWordStatement = dataSource.compileStatement("select " + languagePair.getColumnTwo()
+                + " from " + languagePair.getTableName()
+                + " where " + Util.WORD_POSITION + " = ?");
+        mPositionSampler = positionSampler;
+    }
+
+    @Override
+    public int sample(int wordCount, int count, int excludePosition, String[] out) {
+        int n = mPositionSampler.sample(wordCount, count, excludePosition);
+        int[] positions = mPositionSampler.getPositions();
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            mSelectWordStatement.bindLong(1, positions[i]);
+            try {
+                out[found] = mSelectWordStatement.simpleQueryForString();
+                found++;
+            } catch (SQLiteDoneException ex) {
+                // No row at this position (translation without words)
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public String getName() {
+        return "point-lookup";
+    }
+
+    @Override
+    public void close() {
+        mSelectWordStatement.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import android.database.Cursor;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* Reads "count" consecutive rows starting at a random position (one primary key range scan)
+* and shuffles them, so order on screen does not follow dictionary order.
+* Positions of a range are distinct by construction; the excluded position is skipped.
+* Cheapest on DB but words of one batch are neighbours in the dictionary.
+* */
+public class RangeScanDistractorSampler implements DistractorSampler {
+
+    private final String[] mProjectionWithPosition;
+
+    private final String mTableName;
+
+    private final WordBuzzerDataSource mDataSource;
+
+    // dataSource must stay open until close(), words are read from the table of its language pair
+    public RangeScanDistractorSampler(WordBuzzerDataSource dataSource) {
+        mDataSource = dataSource;
+        LanguagePair languagePair = dataSource.getLanguagePair();
+        mProjectionWithPosition = new String[]{languagePair.getColumnTwo(), Util.WORD_POSITION};
+        mTableName = languagePair.getTableName();
+    }
+
+    @Override
+    public int sample(int wordCount, int count, int excludePosition, String[] out) {
+        if (wordCount <= 0 || count <= 0) {
+            return 0;
+        }
+        // One extra row in case the range covers the excluded position
+        int rows = count + 1;
+        int start = wordCount > rows ? Util.getRandomNumber(1, wordCount - rows + 1) : 1;
+        Cursor cursor = mDataSource.getContents(mTableName, mProjectionWithPosition,
+                Util.WORD_POSITION + ">=?", new String[]{start + ""},
+                Util.WORD_POSITION, rows + "");
+        if (cursor == null) {
+            return 0;
+        }
+        int found = 0;
+        while (found < count && cursor.moveToNext()) {
+            if (cursor.getInt(1) != excludePosition) {
+                out[found++] = cursor.getString(0);
+            }
+        }
+        cursor.close();
+        shuffle(out, found);
+        return found;
+    }
+
+    private static void shuffle(String[] words, int length) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = Util.getRandomNumber(0, i);
+            String tmp = words[i];
+            words[i] = words[j];
+            words[j] = tmp;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "range-scan";
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import com.ashishjha.wordbuzzer.store.TranslationStore;
+/*
+* Samples distractors from the position index of a TranslationStore (memory-mapped store file),
+* without going through DB at all.
+* */
+public class StoreDistractorSampler implements DistractorSampler {
+
+    private final TranslationStore mStore;
+
+    private final UniquePositionSampler mPositionSampler;
+
+    public StoreDistractorSampler(TranslationStore store, UniquePositionSampler positionSampler) {
+        mStore = store;
+        mPositionSampler = positionSampler;
+    }
+
+    @Override
+    public int sample(int wordCount, int count, int excludePosition, String[] out) {
+        int n = mPositionSampler.sample(wordCount, count, excludePosition);
+        int[] positions = mPositionSampler.getPositions();
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            String word = mStore.getWordInLanguageTwo(positions[i]);
+            if (word != null) {
+                out[found++] = word;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public String getName() {
+        return "store-index";
+    }
+
+    @Override
+    public void close() {
+        // Store is owned by WordLoaderService
+    }
+}
@@ -0,0 +1,110 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+
+import java.util.Arrays;
+
+/*
+* Draws N distinct dictionary positions out of 1 .. wordCount, never returning the excluded position
+* (the current challenge, whose translation must not show up as a wrong option).
+*
+* Uses Floyd's algorithm: O(N) time and O(N) memory regardless of dictionary size, followed by a
+* Fisher-Yates shuffle of the N picks (Floyd's output order is not uniform).
+* Membership is tracked in an open addressing int table reset by bumping a stamp, so a call allocates
+* nothing and boxes nothing once buffers have grown to the batch size.
+* Not thread safe - one instance per sampling thread.
+* */
+public class UniquePositionSampler {
+
+    private final RandomSource mRandom;
+
+    private int[] mPositions = new int[0];
+
+    // Open addressing set of positions picked in current call. A slot is used only if its stamp is mStamp.
+    private int[] mKeys = new int[0];
+    private int[] mStamps = new int[0];
+    private int mStamp;
+    private int mMask;
+
+    public UniquePositionSampler(RandomSource random) {
+        mRandom = random;
+    }
+
+    /*
+    * Samples min(count, available) distinct positions into getPositions()[0 .. returned value).
+    * excludePosition - position never returned; pass 0 (or anything outside 1 .. wordCount) to exclude nothing.
+    * */
+    public int sample(int wordCount, int count, int excludePosition) {
+        boolean hasExclusion = excludePosition >= 1 && excludePosition <= wordCount;
+        // Floyd picks from 1 .. range, values >= excludePosition are shifted by one to skip it
+        int range = hasExclusion ? wordCount - 1 : wordCount;
+        int n = Math.min(count, range);
+        if (n <= 0) {
+            return 0;
+        }
+        ensureCapacity(n);
+        int picked = 0;
+        for (int j = range - n + 1; j <= range; j++) {
+            int t = mRandom.nextInt(j) + 1;
+            if (!add(t)) {
+                // t was picked before; j can not have been (all earlier picks are < j)
+                add(j);
+                t = j;
+            }
+            mPositions[picked++] = t;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int k = mRandom.nextInt(i + 1);
+            int tmp = mPositions[i];
+            mPositions[i] = mPositions[k];
+            mPositions[k] = tmp;
+        }
+        if (hasExclusion) {
+            for (int i = 0; i < n; i++) {
+                if (mPositions[i] >= excludePosition) {
+                    mPositions[i]++;
+                }
+            }
+        }
+        return n;
+    }
+
+    // Positions of last sample() call. Array is reused by the next call.
+    public int[] getPositions() {
+        return mPositions;
+    }
+
+    private void ensureCapacity(int n) {
+        if (mPositions.length < n) {
+            mPositions = new int[n];
+        }
+        // At most half full
+        int tableSize = Integer.highestOneBit(n * 2) << 1;
+        if (mKeys.length < tableSize) {
+            mKeys = new int[tableSize];
+            mStamps = new int[tableSize];
+            mStamp = 0;
+        }
+        mMask = mKeys.length - 1;
+        if (++mStamp == 0) {
+            // Stamp wrapped around - old stamps could collide with new ones
+            Arrays.fill(mStamps, 0);
+            mStamp = 1;
+        }
+    }
+
+    // Returns false if value is already in the set
+    private boolean add(int value) {
+        int hash = value * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mMask;
+        while (mStamps[slot] == mStamp) {
+            if (mKeys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        mStamps[slot] = mStamp;
+        mKeys[slot] = value;
+        return true;
+    }
+}
@@ -1,30 +1,55 @@
 package com.ashishjha.wordbuzzer.services;
 
 import android.app.IntentService;
+import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.support.v4.content.LocalBroadcastManager;
 import android.util.Log;
 
+import com.ashishjha.wordbuzzer.BuildConfig;
 import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.loader.DictionaryDeltaImporter;
+import com.ashishjha.wordbuzzer.loader.PrebuiltDictionaryInstaller;
 import com.ashishjha.wordbuzzer.loader.WordLoader;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
 import com.ashishjha.wordbuzzer.utils.Util;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Created by ashish on 30/1/16.
  */
 /*
 * It is responsible for loading translations in "words.json"
 (translation file from language "one" to language "two") to DB..
-* It takes help of WordLoader for this purpose.
+* If the dictionary compiled at build time is shipped in assets, it is simply copied in place (PrebuiltDictionaryInstaller).
+* Otherwise it falls back to parsing "words.json" with the help of WordLoader.
 * Once Dictionary is built (translations are stored in DB),
 * set SharedPreference to indicate - Clean App flag to false.
 * Also send broadcast to notify SplashScreenActivity to finish and launch WordBuzzerGameActivity
+* While "words.json" is imported, progress is published after every batch (Util.LOAD_DICTIONARY_PROGRESS) and
+* Util.LOAD_DICTIONARY_READY once the first Util.DICTIONARY_READY_WORD_COUNT words are in DB, so the game starts
+* on the committed part of the dictionary (see WordLoaderService) instead of waiting for the whole import.
+* Existing dictionary is never rebuilt for an app update (Util.UPDATE_DICTIONARY) or an extra dictionary file
+* (Util.APPEND_DICTIONARY) - only the difference is written to DB (DictionaryDeltaImporter).
+* Dictionaries of other language pairs shipped in assets (words_<one>_<two>.json, see LanguagePair) are imported
+* after the default one, each in its own table, and registered in language_pair so WordLoaderService can switch to them.
 * */
 public class DictionaryBuilderService extends IntentService {
 
     private static final String TAG = "DictionaryService";
 
+    // Start of the running LOAD_DICTIONARY and whether LOAD_DICTIONARY_READY was sent for it
+    private long mLoadStartTime;
+
+    private boolean mIsReadySent;
+
     public DictionaryBuilderService() {
         super("DictionaryBuilderService");
     }
@@ -33,29 +58,187 @@ public class DictionaryBuilderService extends IntentService {
     protected void onHandleIntent(Intent intent) {
         if (intent.getAction().equals(Util.LOAD_DICTIONARY)) {
             Log.d(TAG, "onHandleIntent()");
-            clearDB();
-            int wordCount = populateTranslationsInDB("words.json");
-            setSharedPref(wordCount);
+            if (!getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).getBoolean(Util.IS_CLEAN_LAUNCH, true)) {
+                // Queued by a later launch while this import was running - dictionary is already there
+                notifyDictionaryLoadComplete();
+                return;
+            }
+            long startTime = SystemClock.elapsedRealtime();
+            mLoadStartTime = startTime;
+            mIsReadySent = false;
+            // Store of a previous dictionary must never be served for the new one
+            TranslationStoreFactory.getStoreFile(this).delete();
+            int wordCount = installPrebuiltDictionary();
+            String source = Util.PREBUILT_DICTIONARY_ASSET;
+            if (wordCount == 0) {
+                // Resumes an import interrupted on an earlier launch, if any
+                wordCount = populateTranslationsInDB();
+                source = Util.DICTIONARY_JSON_ASSET;
+            }
+            Log.d(TAG, "Dictionary of " + wordCount + " words built from " + source
+                    + " in " + (SystemClock.elapsedRealtime() - startTime) + " ms");
+            setSharedPref(wordCount, true);
+            registerLanguagePair(LanguagePair.DEFAULT, wordCount);
+            notifyDictionaryLoadComplete();
+            // Game is already running on the default pair
+            importLanguagePairs(false);
+        } else if (intent.getAction().equals(Util.UPDATE_DICTIONARY)) {
+            try {
+                importDictionary(getAssets().open(Util.DICTIONARY_JSON_ASSET), false);
+            } catch (IOException ex) {
+                Log.d(TAG, "Dictionary update ERROR");
+                ex.printStackTrace();
+            }
+            // Even on failure - DB still holds the previous dictionary, game must not wait for it
+            notifyDictionaryLoadComplete();
+            importLanguagePairs(true);
+        } else if (intent.getAction().equals(Util.APPEND_DICTIONARY)) {
+            String path = intent.getStringExtra(Util.EXTRA_DICTIONARY_FILE);
+            try {
+                importDictionary(new FileInputStream(path), true);
+            } catch (IOException ex) {
+                Log.d(TAG, "Append of " + path + " ERROR");
+                ex.printStackTrace();
+            }
             notifyDictionaryLoadComplete();
         }
     }
 
-    private void clearDB() {
-        WordBuzzerDataSource tvListDataSource = new WordBuzzerDataSource(this);
-        tvListDataSource.open();
-        tvListDataSource.deleteFromTable(Util.DATABASE_NAME, null, null);
-        tvListDataSource.close();
+    /*
+    * Adds translations of a dictionary file (same format as "words.json") to the dictionary.
+    * Translations already in DB are skipped. Word count is updated for the next start of WordLoaderService.
+    * */
+    public static void appendDictionary(Context context, File dictionaryFile) {
+        Intent intent = new Intent(context, DictionaryBuilderService.class);
+        intent.setAction(Util.APPEND_DICTIONARY);
+        intent.putExtra(Util.EXTRA_DICTIONARY_FILE, dictionaryFile.getPath());
+        context.startService(intent);
     }
 
-    private int populateTranslationsInDB(String fileName) {
+    private void importDictionary(InputStream in, boolean isAppend) throws IOException {
+        try {
+            int wordCount = new DictionaryDeltaImporter().importDictionary(this, in, isAppend);
+            setSharedPref(wordCount, !isAppend);
+            registerLanguagePair(LanguagePair.DEFAULT, wordCount);
+        } finally {
+            in.close();
+        }
+    }
+
+    /*
+    * Imports dictionary of every other language pair found in assets. A pair not registered yet is imported
+    * (resuming an interrupted import), isUpdate - registered pairs are brought in line with their asset
+    * of this version of the app by applying the difference only.
+    * */
+    private void importLanguagePairs(boolean isUpdate) {
+        String[] assets;
+        try {
+            assets = getAssets().list("");
+        } catch (IOException ex) {
+            Log.d(TAG, "importLanguagePairs() ERROR");
+            ex.printStackTrace();
+            return;
+        }
+        for (String asset : assets) {
+            LanguagePair languagePair = LanguagePair.fromAssetName(asset);
+            if (languagePair == null || languagePair.isDefault()) {
+                continue;
+            }
+            long startTime = SystemClock.elapsedRealtime();
+            int wordCount;
+            if (getRegisteredWordCount(languagePair) < 0) {
+                wordCount = new WordLoader().loadDictionary(this, languagePair, null);
+            } else if (isUpdate) {
+                try {
+                    InputStream in = getAssets().open(asset);
+                    try {
+                        wordCount = new DictionaryDeltaImporter().importDictionary(this, languagePair, in, false);
+                    } finally {
+                        in.close();
+                    }
+                } catch (IOException ex) {
+                    Log.d(TAG, "Update of " + languagePair + " ERROR");
+                    ex.printStackTrace();
+                    continue;
+                }
+            } else {
+                continue;
+            }
+            if (wordCount > 0) {
+                registerLanguagePair(languagePair, wordCount);
+            }
+            Log.d(TAG, "Dictionary " + languagePair + " of " + wordCount + " words built from " + asset
+                    + " in " + (SystemClock.elapsedRealtime() - startTime) + " ms");
+        }
+    }
+
+    private int getRegisteredWordCount(LanguagePair languagePair) {
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(this, languagePair);
+        dataSource.open();
+        try {
+            return dataSource.getRegisteredWordCount();
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private void registerLanguagePair(LanguagePair languagePair, int wordCount) {
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(this, languagePair);
+        dataSource.open();
+        try {
+            dataSource.registerLanguagePair(wordCount);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private int installPrebuiltDictionary() {
+        PrebuiltDictionaryInstaller installer = new PrebuiltDictionaryInstaller();
+        int wordCount = installer.install(this, Util.PREBUILT_DICTIONARY_ASSET, Util.DATABASE_NAME);
+        if (wordCount > 0) {
+            // Optional - WordLoaderService falls back to DB queries without it
+            installer.installFile(this, Util.TRANSLATION_STORE_FILE, TranslationStoreFactory.getStoreFile(this));
+        }
+        return wordCount;
+    }
+
+    private int populateTranslationsInDB() {
         WordLoader wordLoader = new WordLoader();
-        return wordLoader.loadDictionary(this, fileName);
+        return wordLoader.loadDictionary(this, LanguagePair.DEFAULT, new WordLoader.ProgressListener() {
+            @Override
+            public void onProgress(int committedCount) {
+                publishProgress(committedCount);
+            }
+        });
+    }
+
+    // Word count is kept up to date, so a WordLoaderService started later samples the committed positions only
+    private void publishProgress(int committedCount) {
+        getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).edit()
+                .putInt(Util.WORDS_COUNT_IN_DICTIONARY, committedCount)
+                .apply();
+        Intent progress = new Intent();
+        progress.setAction(Util.LOAD_DICTIONARY_PROGRESS);
+        progress.putExtra(Util.EXTRA_COMMITTED_WORDS, committedCount);
+        LocalBroadcastManager.getInstance(this).sendBroadcast(progress);
+        if (!mIsReadySent && committedCount >= Util.DICTIONARY_READY_WORD_COUNT) {
+            mIsReadySent = true;
+            Log.d(TAG, "Dictionary playable with " + committedCount + " words after "
+                    + (SystemClock.elapsedRealtime() - mLoadStartTime) + " ms");
+            Intent ready = new Intent();
+            ready.setAction(Util.LOAD_DICTIONARY_READY);
+            LocalBroadcastManager.getInstance(this).sendBroadcast(ready);
+        }
     }
 
-    private void setSharedPref(int wordCount) {
+    // isBundledDictionary - DB now holds the dictionary shipped with this version of the app
+    private void setSharedPref(int wordCount, boolean isBundledDictionary) {
         SharedPreferences.Editor editor = getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).edit();
         editor.putBoolean(Util.IS_CLEAN_LAUNCH, false);
         editor.putInt(Util.WORDS_COUNT_IN_DICTIONARY, wordCount);
+        if (isBundledDictionary) {
+            editor.putInt(Util.DICTIONARY_VERSION, BuildConfig.VERSION_CODE);
+        }
         editor.apply();
     }
 
@@ -1,8 +1,11 @@
 package com.ashishjha.wordbuzzer.services;
 
 import android.app.Service;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
 import android.database.Cursor;
 import android.os.Binder;
 import android.os.Handler;
@@ -10,51 +13,165 @@ import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Looper;
 import android.os.Message;
+import android.os.Process;
+import android.support.v4.content.LocalBroadcastManager;
+import android.util.Log;
 
+import com.ashishjha.wordbuzzer.BuildConfig;
 import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.game.QuestionScheduler;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.QuizRound;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.model.WordStats;
+import com.ashishjha.wordbuzzer.sampler.DistractorSampler;
+import com.ashishjha.wordbuzzer.sampler.DistractorSamplerSelector;
+import com.ashishjha.wordbuzzer.sampler.PlausibleDistractorFinder;
+import com.ashishjha.wordbuzzer.sampler.PointLookupDistractorSampler;
+import com.ashishjha.wordbuzzer.sampler.RangeScanDistractorSampler;
+import com.ashishjha.wordbuzzer.sampler.StoreDistractorSampler;
+import com.ashishjha.wordbuzzer.sampler.UniquePositionSampler;
+import com.ashishjha.wordbuzzer.store.InMemoryTranslationStore;
+import com.ashishjha.wordbuzzer.store.MappedTranslationStore;
+import com.ashishjha.wordbuzzer.store.TranslationStore;
+import com.ashishjha.wordbuzzer.store.TranslationStoreFactory;
+import com.ashishjha.wordbuzzer.store.WordTable;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
 import com.ashishjha.wordbuzzer.utils.Util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Created by ashish on 30/1/16.
  */
 /*
 * Service with which WordBuzzerGameActivity binds.
-* This service is responsible for loading random words in background (50 at a time).
+* This service is responsible for loading random words in background (Util.DISTRACTOR_BATCH_SIZE at a time).
 * Service also finds next "challenge" (language "one" word) and its associated correct answer.
+* Rounds (challenge, answer and random words) are prepared ahead of time: a queue of Util.ROUND_PREFETCH_DEPTH rounds
+* is kept filled on background thread, so starting the next round involves no I/O.
+* If the dictionary fits in Util.IN_MEMORY_DICTIONARY_BUDGET_PERCENT of heap, it is also loaded in RAM
+* (InMemoryTranslationStore) on DictionaryWarmUpThread. Rounds are served from DB / store file until loading finishes,
+* then from RAM only. Bigger dictionaries stay on DB / store file.
+* A game started while dictionary is still imported (Util.LOAD_DICTIONARY_READY) plays on the committed positions:
+* word count follows Util.LOAD_DICTIONARY_PROGRESS, store and RAM copy are set up once the import is complete.
+* Rounds come from the dictionary of one language pair (Util.ACTIVE_LANGUAGE_PAIR, default pair if not set).
+* setLanguagePair() switches to another imported pair without reimport: every pair has its own table and store file,
+* so switching only reopens them, and sampling a position costs the same whatever the number of pairs.
+* About a fifth of the wrong options of a round look like the correct answer (PlausibleDistractorFinder, one indexed
+* lookup per round, also when the dictionary is in RAM), the rest are random words.
+* Challenges are picked by QuestionScheduler, which favours words players got wrong. Answers (recordAnswer) are
+* written to DB in batches of Util.WORD_STATS_FLUSH_SIZE, and when the service or the language pair changes.
 * Service notifies Activity through QuizChangeListener (defined in the service) which is implemented by this activity.
 * Activity gets its required members through instance of service fetched during its "onServiceConnected" callback.
 * */
 public class WordLoaderService extends Service {
 
+    private static final String TAG = "WordLoaderService";
+
     private Looper mServiceLooper;
 
     // Handler that runs on background thread to process message one at a time.
     private ServiceHandler mServiceHandler;
 
-    // Stores array of random words. Only 50 words are fetched in service.
-    // This is because query in DB is done through random "word positions" stored in DB
-    // by using "IN" operation which is slow for large number of arguments
-    private String[] mNextRandomWords;
+    // Stores array of random words (Util.DISTRACTOR_BATCH_SIZE word handles per batch) for current round
+    private volatile int[] mNextRandomWords;
+
+    /*
+    * Words of the next rounds are interned here, rounds carry handles into this table instead of Strings
+    * (and the table itself, QuizRound.getWordTable()). When the dictionary fits in RAM this is the table of
+    * its in-memory copy. Otherwise it only holds words of recent rounds and is replaced by an empty one once
+    * over Util.WORD_TABLE_MAX_BYTES - an old table is collected with the last round built from it.
+    * Used on LoadNextWordThread once rounds are built.
+    * */
+    private WordTable mWordTable;
+
+    // mWordTable is replaced once over budget, dictionary is not in RAM
+    private boolean mIsWordTableBounded;
+
+    // Samplers decode into this batch, words are interned right away. Used on LoadNextWordThread only.
+    private String[] mSampledWords;
+
+    // Strategy fetching random words. Fastest one for current dictionary is picked on first use.
+    private DistractorSampler mDistractorSampler;
+
+    // Total words in dictionary - committed words while the dictionary is still imported.
+    // Written on LoadNextWordThread (grows with mImportReceiver's progress), read on any thread.
+    private volatile int mTotalWordCount;
+
+    // Language pair played, changed on LoadNextWordThread only (switchLanguagePair)
+    private volatile LanguagePair mLanguagePair;
+
+    // Round currently played at WordBuzzerGameActivity
+    private volatile QuizRound mCurrentRound;
+
+    // Rounds ready to be played, guarded by mRoundLock
+    private final ArrayDeque<QuizRound> mReadyRounds = new ArrayDeque<>(Util.ROUND_PREFETCH_DEPTH);
+
+    private final Object mRoundLock = new Object();
+
+    // Activity asked for a round while queue was empty - deliver it as soon as one is built. Guarded by mRoundLock.
+    private boolean mIsWaitingForRound;
+
+    // A FILL_ROUNDS_ID message is pending. Guarded by mRoundLock.
+    private boolean mIsRefillScheduled;
+
+    // Challenges and their answers are read by position from this store (memory-mapped file or DB fallback)
+    private TranslationStore mTranslationStore;
+
+    // Whole dictionary in RAM, null until DictionaryWarmUpThread is done (or if dictionary is too big)
+    private volatile InMemoryTranslationStore mMemoryStore;
+
+    // Positions of random words, used on LoadNextWordThread only
+    private UniquePositionSampler mPositionSampler;
+
+    // Wrong options looking like the answer, reads through mDataSource. Created on first use, LoadNextWordThread only.
+    private PlausibleDistractorFinder mPlausibleFinder;
 
-    // DB holds position of translations.
-    // This variable stores array of random no of positions (of translations)
-    private int[] mNextRandomWordPositions;
+    // Positions of challenges, weighted by answers given so far. Set up on first round, used on LoadNextWordThread only.
+    private QuestionScheduler mScheduler;
 
-    // Total words in dictionary
-    private int mTotalWordCount;
+    // Stops DictionaryWarmUpThread once service is destroyed
+    private volatile boolean mIsDestroyed;
 
-    // Current Challenge being handled at WordBuzzerGameActivity
-    private String mCurrentChallenge;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
 
     private Context mContext;
 
-    private final static int FIND_CORRECT_ANSWER_ID = 2;
+    // Shared DB connection, held for the whole life of the service (see WordBuzzerDatabaseManager)
+    private WordBuzzerDataSource mDataSource;
+
+    // Registered while the dictionary is imported
+    private final BroadcastReceiver mImportReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Util.LOAD_DICTIONARY_PROGRESS.equals(intent.getAction())) {
+                final int committedCount = intent.getIntExtra(Util.EXTRA_COMMITTED_WORDS, 0);
+                // On LoadNextWordThread - the default pair may have been switched away from
+                mServiceHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mLanguagePair.isDefault() && committedCount > mTotalWordCount) {
+                            mTotalWordCount = committedCount;
+                        }
+                    }
+                });
+            } else if (Util.LOAD_DICTIONARY_COMPLETE.equals(intent.getAction())) {
+                onImportComplete();
+            }
+        }
+    };
+
+    private boolean mIsImportReceiverRegistered;
 
     private final static int FIND_NEXT_WRONG_WORDS_ID = 3;
 
-    private final static int FIND_NEXT_QUIZ_ID = 4;
+    private final static int FILL_ROUNDS_ID = 5;
 
-    private final int ARRAY_SIZE = Util.MAX_TRANSLATIONS_IN_MEMORY / 2;
+    private final int ARRAY_SIZE = Util.DISTRACTOR_BATCH_SIZE;
 
     // Handler that receives messages from the thread
     private final class ServiceHandler extends Handler {
@@ -64,27 +181,20 @@ public class WordLoaderService extends Service {
 
         @Override
         public void handleMessage(Message msg) {
+            long startTime = System.nanoTime();
             switch (msg.arg1) {
                 case FIND_NEXT_WRONG_WORDS_ID:
-                    // Prefetch about 50 random words
+                    // Prefetch next batch of random words for the round being played
                     prefetchRandomWords();
-                    // Notify listener (WordBuzzerGameActivity)
-                    mListener.setNextRandomWords(mNextRandomWords);
                     break;
-                case FIND_NEXT_QUIZ_ID:
-                    // Fetch "challenge" that needs to be displayed in center of screen
-                    String next = getNextQuizWord();
-                    mCurrentChallenge = next;
-                    // Notify listener (WordBuzzerGameActivity)
-                    mListener.setNextChallenge(next);
-                    break;
-                case FIND_CORRECT_ANSWER_ID:
-                    // Fetch correct translation of challenge displayed in center of screen
-                    String val = getCorrectAnswer();
-                    // Notify listener (WordBuzzerGameActivity)
-                    mListener.setCorrectAnswer(val);
+                case FILL_ROUNDS_ID:
+                    // Prepare one more round ahead of time
+                    fillRounds();
                     break;
             }
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "Message " + msg.arg1 + " handled in " + (System.nanoTime() - startTime) / 1000 + " us");
+            }
         }
     }
 
@@ -106,24 +216,19 @@ public class WordLoaderService extends Service {
     * */
     public interface QuizChangeListener {
         /*
-        *  Fetch about 50 random words.
-        *  These words (language "two") fade in and out (one at a time).
-        *  Correct answer should be appended in the random words set by this method
-        *  so that player can choose correct answer.
-        */
-        void setNextRandomWords(String[] randomWords);
-
-        /*
-        *  Fetch next word (language "one") that is to be displayed
-        *  at center of screen whose correct translation player needs to select
+        *  Next round is ready - delivered as one object:
+        *  word (language "one") that is to be displayed at center of screen,
+        *  its correct translation (language "two") which players need to select and
+        *  a batch of random words (language "two") which fade in and out (one at a time).
+        *  Correct answer should be appended in the random words so that player can choose correct answer.
+        *  Called on UI thread for a prefetched round, on LoadNextWordThread otherwise.
         */
-        void setNextChallenge(String nextChallenge);
+        void onNextRound(QuizRound round);
+    }
 
-        /*
-        * Fetch correct translation word (language "two") for the
-        * challenge (language "one" word) displayed at center of screen
-        */
-        void setCorrectAnswer(String correctAnswer);
+    public interface LanguagePairsListener {
+        // Language pairs whose dictionary is imported. Called on UI thread.
+        void onLanguagePairsLoaded(List<LanguagePair> languagePairs);
     }
 
     @Override
@@ -133,8 +238,224 @@ public class WordLoaderService extends Service {
         thread.start();
         mServiceLooper = thread.getLooper();
         mServiceHandler = new ServiceHandler(mServiceLooper);
-        mTotalWordCount = getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).getInt(Util.WORDS_COUNT_IN_DICTIONARY, 0);
-        mNextRandomWords = new String[ARRAY_SIZE];
+        SharedPreferences prefs = getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE);
+        mNextRandomWords = new int[0];
+        mSampledWords = new String[ARRAY_SIZE];
+        mPositionSampler = new UniquePositionSampler(new SplitMixRandomSource(System.nanoTime()));
+        mLanguagePair = LanguagePair.DEFAULT;
+        mTotalWordCount = prefs.getInt(Util.WORDS_COUNT_IN_DICTIONARY, 0);
+        String pairId = prefs.getString(Util.ACTIVE_LANGUAGE_PAIR, null);
+        final LanguagePair savedPair = pairId != null && !prefs.getBoolean(Util.IS_CLEAN_LAUNCH, true)
+                ? LanguagePair.fromId(pairId) : LanguagePair.DEFAULT;
+        mDataSource = new WordBuzzerDataSource(mContext, mLanguagePair);
+        mDataSource.open();
+        mTranslationStore = TranslationStoreFactory.open(mContext, mLanguagePair, mTotalWordCount);
+        if (prefs.getBoolean(Util.IS_CLEAN_LAUNCH, true)) {
+            // Import still running - rounds come from committed positions of DB until it is complete
+            Log.d(TAG, "Dictionary import in progress, starting with " + mTotalWordCount + " words");
+            mWordTable = newWordTable(false);
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Util.LOAD_DICTIONARY_PROGRESS);
+            filter.addAction(Util.LOAD_DICTIONARY_COMPLETE);
+            LocalBroadcastManager.getInstance(this).registerReceiver(mImportReceiver, filter);
+            mIsImportReceiverRegistered = true;
+            // Import may have completed before the receiver was registered
+            if (!prefs.getBoolean(Util.IS_CLEAN_LAUNCH, true)) {
+                onImportComplete();
+            }
+            return;
+        }
+        if (!savedPair.isDefault()) {
+            // Word count of the saved pair is read from DB on LoadNextWordThread, before any round is built
+            mServiceHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!switchLanguagePair(savedPair) && !mIsDestroyed) {
+                        setUpWordTable();
+                    }
+                }
+            });
+            return;
+        }
+        setUpWordTable();
+    }
+
+    // New table for the dictionary of the current pair, which is loaded in RAM if it fits
+    private void setUpWordTable() {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        if (InMemoryTranslationStore.fitsInMemory(mTotalWordCount, maxMemory, Util.IN_MEMORY_DICTIONARY_BUDGET_PERCENT)) {
+            mWordTable = newWordTable(true);
+            startDictionaryWarmUp();
+        } else {
+            Log.d(TAG, mTotalWordCount + " words don't fit in " + Util.IN_MEMORY_DICTIONARY_BUDGET_PERCENT
+                    + "% of " + maxMemory + " bytes heap, serving rounds from " + mTranslationStore.getClass().getSimpleName());
+            mWordTable = newWordTable(false);
+        }
+    }
+
+    // Table for words of mTotalWordCount translations - all of them if the dictionary is loaded in RAM
+    private WordTable newWordTable(boolean isInMemory) {
+        mIsWordTableBounded = !isInMemory;
+        if (isInMemory) {
+            // Two words per translation
+            return new WordTable(2 * mTotalWordCount, 2 * mTotalWordCount * Util.AVERAGE_WORD_BYTES);
+        }
+        return new WordTable(Util.WORD_TABLE_INITIAL_WORDS, Util.WORD_TABLE_INITIAL_BYTES);
+    }
+
+    // UI thread - whole dictionary is in DB (and store file)
+    private void onImportComplete() {
+        if (mIsImportReceiverRegistered) {
+            LocalBroadcastManager.getInstance(this).unregisterReceiver(mImportReceiver);
+            mIsImportReceiverRegistered = false;
+        }
+        final int wordCount = getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE)
+                .getInt(Util.WORDS_COUNT_IN_DICTIONARY, mTotalWordCount);
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                switchToCompleteDictionary(wordCount);
+            }
+        });
+    }
+
+    // LoadNextWordThread - store and sampler were chosen for a partial dictionary
+    private void switchToCompleteDictionary(int wordCount) {
+        if (mIsDestroyed || !mLanguagePair.isDefault()) {
+            return;
+        }
+        mTotalWordCount = wordCount;
+        if (mDistractorSampler != null) {
+            mDistractorSampler.close();
+            mDistractorSampler = null;
+        }
+        mTranslationStore.close();
+        mTranslationStore = TranslationStoreFactory.open(mContext, wordCount);
+        Log.d(TAG, "Dictionary import complete, " + wordCount + " words served from "
+                + mTranslationStore.getClass().getSimpleName());
+        // Rounds built meanwhile keep the partial dictionary's table
+        setUpWordTable();
+    }
+
+    /*
+    * Plays the dictionary of languagePair from the next round on. Nothing is imported - the pair must be
+    * registered (see DictionaryBuilderService), otherwise the current pair is kept.
+    * Rounds prepared for the previous pair are dropped, the next round comes with a new WordTable
+    * (QuizRound.getWordTable()). The choice is kept for the next start of the service.
+    * Nothing in the app offers another pair yet - this and getLanguagePairs() are there for a pair picker.
+    * */
+    public void setLanguagePair(final LanguagePair languagePair) {
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                switchLanguagePair(languagePair);
+            }
+        });
+    }
+
+    public LanguagePair getLanguagePair() {
+        return mLanguagePair;
+    }
+
+    // Language pairs whose dictionary is imported, any of them can be passed to setLanguagePair().
+    // Read from DB on LoadNextWordThread, listener is called on UI thread.
+    public void getLanguagePairs(final LanguagePairsListener listener) {
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mIsDestroyed) {
+                    return;
+                }
+                final List<LanguagePair> languagePairs = mDataSource.getLanguagePairs();
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onLanguagePairsLoaded(languagePairs);
+                    }
+                });
+            }
+        });
+    }
+
+    // LoadNextWordThread - words of languagePair in DB, 0 if it is not imported
+    private int getWordCount(LanguagePair languagePair) {
+        if (languagePair.isDefault()) {
+            return getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).getInt(Util.WORDS_COUNT_IN_DICTIONARY, 0);
+        }
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, languagePair);
+        dataSource.open();
+        try {
+            return Math.max(0, dataSource.getRegisteredWordCount());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    // LoadNextWordThread - reopens DB and store on the tables of languagePair, the same way onCreate() does.
+    // False if the current pair is kept.
+    private boolean switchLanguagePair(LanguagePair languagePair) {
+        if (mIsDestroyed || languagePair.equals(mLanguagePair)) {
+            return false;
+        }
+        long startTime = System.nanoTime();
+        int wordCount = getWordCount(languagePair);
+        if (wordCount <= 0) {
+            Log.d(TAG, "Dictionary " + languagePair + " is not imported, staying on " + mLanguagePair);
+            return false;
+        }
+        synchronized (mRoundLock) {
+            mReadyRounds.clear();
+        }
+        // Random words of the new pair must not be shown for the challenge of the previous one
+        mCurrentRound = null;
+        flushWordStats();
+        mScheduler = null;
+        mPlausibleFinder = null;
+        if (mDistractorSampler != null) {
+            mDistractorSampler.close();
+            mDistractorSampler = null;
+        }
+        mTranslationStore.close();
+        mDataSource.close();
+        mLanguagePair = languagePair;
+        mTotalWordCount = wordCount;
+        mMemoryStore = null;
+        mDataSource = new WordBuzzerDataSource(mContext, languagePair);
+        mDataSource.open();
+        mTranslationStore = TranslationStoreFactory.open(mContext, languagePair, wordCount);
+        getSharedPreferences(Util.WORD_BUZZER_PREFS, MODE_PRIVATE).edit()
+                .putString(Util.ACTIVE_LANGUAGE_PAIR, languagePair.getId())
+                .apply();
+        Log.d(TAG, "Switched to " + languagePair + " (" + wordCount + " words, "
+                + mTranslationStore.getClass().getSimpleName() + ") in " + (System.nanoTime() - startTime) / 1000 + " us");
+        // Words of the previous pair go with its last rounds
+        setUpWordTable();
+        scheduleRefill(0);
+        return true;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        mIsDestroyed = true;
+        if (mIsImportReceiverRegistered) {
+            LocalBroadcastManager.getInstance(this).unregisterReceiver(mImportReceiver);
+            mIsImportReceiverRegistered = false;
+        }
+        mServiceHandler.removeCallbacksAndMessages(null);
+        // Release DB and store on LoadNextWordThread, after the message it may be running
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                flushWordStats();
+                if (mDistractorSampler != null) {
+                    mDistractorSampler.close();
+                }
+                mTranslationStore.close();
+                mDataSource.close();
+                mServiceLooper.quit();
+            }
+        });
     }
 
     @Override
@@ -159,116 +480,322 @@ public class WordLoaderService extends Service {
     }
 
     /*
-    *  Fetch about 50 random words.
+    *  Fetch a batch of random words.
     *  These words (language "two") fade in and out (one at a time).
-    *  Correct answer should be appended in the random words set by this method
-    *  so that player can choose correct answer.
+    *  excludePosition - position of the round's challenge, its translation is never part of the batch.
+    *  Words are interned in wordTable, the table of the round.
     */
-    public synchronized void getNextRandomWords() {
-        String[] selectionArgs = new String[ARRAY_SIZE];
-        StringBuilder selectionBuilder = new StringBuilder();
-        // In operator in query is slow for large no of parameters.
-        // Hence we restrict it to 50
-        selectionBuilder.append(Util.WORD_POSITION + " in (");
-        for (int i = 0; i < ARRAY_SIZE - 1; i++) {
-            selectionBuilder.append("?,");
-            selectionArgs[i] = mNextRandomWordPositions[i] + "";
-        }
-        selectionBuilder.append("?)");
-        String selection = selectionBuilder.toString();
-
-        selectionArgs[ARRAY_SIZE - 1] = mNextRandomWordPositions[ARRAY_SIZE - 1] + "";
-        String[] projection = {Util.TEXT_SPA};
-        WordBuzzerDataSource wordBuzzerDataSource = new WordBuzzerDataSource(mContext);
-        wordBuzzerDataSource.open();
-        Cursor cursor = wordBuzzerDataSource.getContents(Util.DATABASE_NAME, projection, selection, selectionArgs);
-        if (cursor == null || cursor.getCount() == 0) {
-            return;
+    private int[] sampleRandomWords(WordTable wordTable, int excludePosition) {
+        InMemoryTranslationStore memoryStore = mMemoryStore;
+        if (memoryStore != null && memoryStore.getWordTable() == wordTable) {
+            return sampleRandomWords(memoryStore, excludePosition);
+        }
+        if (mDistractorSampler == null) {
+            mDistractorSampler = selectDistractorSampler();
+        }
+        int found = mDistractorSampler.sample(mTotalWordCount, ARRAY_SIZE, excludePosition, mSampledWords);
+        int[] randomWords = new int[found];
+        for (int i = 0; i < found; i++) {
+            randomWords[i] = wordTable.intern(mSampledWords[i]);
+            mSampledWords[i] = null;
+        }
+        return randomWords;
+    }
+
+    // Random words straight from RAM - no I/O, no decoding, handles are already interned
+    private int[] sampleRandomWords(InMemoryTranslationStore memoryStore, int excludePosition) {
+        int n = mPositionSampler.sample(mTotalWordCount, ARRAY_SIZE, excludePosition);
+        int[] positions = mPositionSampler.getPositions();
+        int[] randomWords = new int[n];
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            int handle = memoryStore.getWordHandleInLanguageTwo(positions[i]);
+            if (handle != InMemoryTranslationStore.NO_WORD) {
+                randomWords[found++] = handle;
+            }
+        }
+        return found == n ? randomWords : Arrays.copyOf(randomWords, found);
+    }
+
+    // Benchmarks every sampling strategy on this dictionary and keeps the fastest
+    private DistractorSampler selectDistractorSampler() {
+        UniquePositionSampler positionSampler = mPositionSampler;
+        ArrayList<DistractorSampler> candidates = new ArrayList<>();
+        candidates.add(new PointLookupDistractorSampler(mDataSource, positionSampler));
+        candidates.add(new RangeScanDistractorSampler(mDataSource));
+        if (mTranslationStore instanceof MappedTranslationStore) {
+            candidates.add(new StoreDistractorSampler(mTranslationStore, positionSampler));
+        }
+        DistractorSamplerSelector selector = new DistractorSamplerSelector();
+        DistractorSampler sampler = selector.pickFastest(candidates, mTotalWordCount, ARRAY_SIZE);
+        Log.d(TAG, "Distractor sampler for " + mTotalWordCount + " words: " + selector.getReport());
+        return sampler;
+    }
+
+    private void startDictionaryWarmUp() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                loadDictionaryInMemory();
+            }
+        }, "DictionaryWarmUpThread");
+        thread.start();
+    }
+
+    // Runs on DictionaryWarmUpThread - one pass over the dictionary table, with its own (shared, ref-counted) connection
+    private void loadDictionaryInMemory() {
+        long startTime = System.nanoTime();
+        final LanguagePair languagePair = mLanguagePair;
+        final int wordCount = mTotalWordCount;
+        final WordTable wordTable = mWordTable;
+        final InMemoryTranslationStore memoryStore = new InMemoryTranslationStore(wordTable, wordCount);
+        WordBuzzerDataSource dataSource = new WordBuzzerDataSource(mContext, languagePair);
+        dataSource.open();
+        try {
+            String[] projection = {Util.WORD_POSITION, languagePair.getColumnOne(), languagePair.getColumnTwo()};
+            Cursor cursor = dataSource.getContents(languagePair.getTableName(), projection, null, null);
+            if (cursor == null) {
+                return;
+            }
+            try {
+                while (!mIsDestroyed && languagePair == mLanguagePair && cursor.moveToNext()) {
+                    memoryStore.put(cursor.getInt(0), cursor.getString(1), cursor.getString(2));
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            dataSource.close();
         }
-        int i = 0;
-        mNextRandomWords = new String[cursor.getCount()];
-        while (cursor.moveToNext()) {
-            mNextRandomWords[i++] = cursor.getString(cursor.getColumnIndexOrThrow(Util.TEXT_SPA));
+        if (mIsDestroyed || languagePair != mLanguagePair) {
+            return;
         }
-        cursor.close();
-        wordBuzzerDataSource.close();
+        final long loadMs = (System.nanoTime() - startTime) / 1000000;
+        // Published on LoadNextWordThread, so a pair switched away from meanwhile never gets its RAM copy back
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (languagePair != mLanguagePair || wordCount != mTotalWordCount) {
+                    return;
+                }
+                mMemoryStore = memoryStore;
+                Log.d(TAG, "Dictionary " + languagePair + " of " + wordCount + " words loaded in RAM in " + loadMs
+                        + " ms, word table: " + wordTable.getWordCount() + " words in " + wordTable.getFootprintBytes() + " bytes");
+            }
+        });
     }
 
     /*
-    *  Fetch next word (language "one") that is to be displayed
-    *  at center of screen whose correct translation player needs to select
+    * Build a complete round: next random challenge (language "one" word displayed at center of screen),
+    * its correct translation (language "two") and a batch of random wrong words.
+    * Challenge and answer come from a single lookup by position, so the answer is always the translation
+    * of this very entry, even when the challenge word appears more than once in dictionary.
     */
-    private String getNextQuizWord() {
-        int pos = Util.getRandomNumber(1, mTotalWordCount);
-        String[] projection = {Util.TEXT_ENGLISH};
-        String selection = Util.WORD_POSITION + "=?";
-        String[] selectionArgs = {pos + ""};
-        WordBuzzerDataSource wordBuzzerDataSource = new WordBuzzerDataSource(mContext);
-        wordBuzzerDataSource.open();
-        Cursor cursor = wordBuzzerDataSource.getContents(Util.DATABASE_NAME, projection, selection, selectionArgs);
-        if (cursor == null || cursor.getCount() == 0) {
-            return "random string";
-        }
-        cursor.moveToFirst();
-        String val = cursor.getString(cursor.getColumnIndexOrThrow(Util.TEXT_ENGLISH));
-        cursor.close();
-        wordBuzzerDataSource.close();
-        return val;
+    public QuizRound buildRound() {
+        // 1 for an empty dictionary - a round with missing words rather than a failure
+        int pos = getScheduler().nextPosition();
+        InMemoryTranslationStore memoryStore = mMemoryStore;
+        // Handles of a dictionary in RAM are in its own table
+        WordTable wordTable = memoryStore != null ? memoryStore.getWordTable() : getRoundWordTable();
+        int challenge = InMemoryTranslationStore.NO_WORD;
+        int correctAnswer = InMemoryTranslationStore.NO_WORD;
+        if (memoryStore != null) {
+            challenge = memoryStore.getWordHandleInLanguageOne(pos);
+            correctAnswer = memoryStore.getWordHandleInLanguageTwo(pos);
+        } else {
+            Translation translation = mTranslationStore.getTranslation(pos);
+            if (translation != null) {
+                challenge = wordTable.intern(translation.getWordInLanguageOne());
+                correctAnswer = wordTable.intern(translation.getWordInLanguageTwo());
+            }
+        }
+        int[] randomWords = sampleRandomWords(wordTable, pos);
+        if (challenge == InMemoryTranslationStore.NO_WORD || correctAnswer == InMemoryTranslationStore.NO_WORD) {
+            int missing = wordTable.intern("random string");
+            return new QuizRound(wordTable, pos, missing, missing, randomWords);
+        }
+        randomWords = addPlausibleDistractors(wordTable, wordTable.getWord(correctAnswer), pos, randomWords);
+        return new QuizRound(wordTable, pos, challenge, correctAnswer, randomWords);
+    }
+
+    // LoadNextWordThread - table of a round built from DB or store file, started over once over budget
+    private WordTable getRoundWordTable() {
+        if (mIsWordTableBounded && mWordTable.getFootprintBytes() > Util.WORD_TABLE_MAX_BYTES) {
+            mWordTable = newWordTable(false);
+        }
+        return mWordTable;
     }
 
     /*
-    * Fetch correct translation word (language "two") for the
-    * challenge (language "one" word) displayed at center of screen
-    */
-    public String getCorrectAnswer() {
-        String[] projection = {Util.TEXT_SPA};
-        String selection = Util.TEXT_ENGLISH + "=?";
-        String[] selectionArgs = {mCurrentChallenge};
-        WordBuzzerDataSource wordBuzzerDataSource = new WordBuzzerDataSource(mContext);
-        wordBuzzerDataSource.open();
-        Cursor cursor = wordBuzzerDataSource.getContents(Util.DATABASE_NAME, projection, selection, selectionArgs);
-        if (cursor == null || cursor.getCount() == 0) {
-            return "random string";
-        }
-        cursor.moveToFirst();
-        String val = cursor.getString(cursor.getColumnIndexOrThrow(Util.TEXT_SPA));
-        cursor.close();
-        wordBuzzerDataSource.close();
-        return val;
+    * Replaces the first Util.PLAUSIBLE_DISTRACTOR_COUNT random words with words looking like the answer
+    * (one indexed lookup, see PlausibleDistractorFinder) and shuffles them among as many random words,
+    * so they show up early in the round without following a pattern.
+    * */
+    private int[] addPlausibleDistractors(WordTable wordTable, String answer, int pos, int[] randomWords) {
+        if (mPlausibleFinder == null) {
+            mPlausibleFinder = new PlausibleDistractorFinder(mDataSource, Util.getRandomSource());
+        }
+        int found = mPlausibleFinder.find(answer, pos, mTotalWordCount, Util.PLAUSIBLE_DISTRACTOR_COUNT, mSampledWords);
+        if (found > randomWords.length) {
+            randomWords = Arrays.copyOf(randomWords, found);
+        }
+        for (int i = 0; i < found; i++) {
+            randomWords[i] = wordTable.intern(mSampledWords[i]);
+            mSampledWords[i] = null;
+        }
+        int mixed = Math.min(randomWords.length, 2 * found);
+        for (int i = mixed - 1; i > 0; i--) {
+            int j = Util.getRandomNumber(0, i);
+            int tmp = randomWords[i];
+            randomWords[i] = randomWords[j];
+            randomWords[j] = tmp;
+        }
+        return randomWords;
+    }
+
+    // LoadNextWordThread - scheduler of the current pair, following word count while the dictionary is imported
+    private QuestionScheduler getScheduler() {
+        int wordCount = mTotalWordCount;
+        if (mScheduler == null) {
+            long startTime = System.nanoTime();
+            mScheduler = new QuestionScheduler(Util.getRandomSource(), wordCount);
+            mDataSource.readWordBoxes(mScheduler);
+            Log.d(TAG, "Question scheduler for " + wordCount + " words set up in "
+                    + (System.nanoTime() - startTime) / 1000 + " us");
+        } else if (mScheduler.getWordCount() != wordCount) {
+            mScheduler.setWordCount(wordCount);
+        }
+        return mScheduler;
     }
 
     /*
-    * Initializes Game state by loading all required data including:
-    * 1) Initiate loading of 50 random words.
-    * 2) Finding next random challenge and
-    * 3) its correct translation.
-    * Activity is notified through QuizChangeListener callback
+    * Players buzzed on round - isCorrect if the option shown was its correct answer. Called on UI thread.
+    * Answer moves the challenge word between review boxes (QuestionScheduler) and is written to DB with the next batch.
     * */
-    public void initGameWithWords() {
-        Message msg1 = mServiceHandler.obtainMessage();
-        msg1.arg1 = FIND_NEXT_WRONG_WORDS_ID;
-        mServiceHandler.sendMessage(msg1);
+    public void recordAnswer(QuizRound round, final boolean isCorrect) {
+        // Taken before checking the round - a switch in between is seen by one check or the other
+        final LanguagePair languagePair = mLanguagePair;
+        if (round == null || round != mCurrentRound) {
+            // Round of a language pair switched away from
+            return;
+        }
+        final int position = round.getChallengePosition();
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mIsDestroyed || languagePair != mLanguagePair) {
+                    return;
+                }
+                QuestionScheduler scheduler = getScheduler();
+                scheduler.recordAnswer(position, isCorrect);
+                if (scheduler.getPendingAnswerCount() >= Util.WORD_STATS_FLUSH_SIZE) {
+                    flushWordStats();
+                }
+            }
+        });
+    }
+
+    // LoadNextWordThread - one transaction for every answer collected so far
+    private void flushWordStats() {
+        if (mScheduler == null || mScheduler.getPendingAnswerCount() == 0) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        int answerCount = mScheduler.getPendingAnswerCount();
+        List<WordStats> stats = mScheduler.takePendingStats();
+        mDataSource.updateWordStats(stats);
+        Log.d(TAG, answerCount + " answers for " + stats.size() + " words written in "
+                + (System.nanoTime() - startTime) / 1000 + " us");
+    }
+
+    // Runs on LoadNextWordThread - adds one round to the queue and schedules next one until queue is full
+    private void fillRounds() {
+        synchronized (mRoundLock) {
+            mIsRefillScheduled = false;
+            if (mReadyRounds.size() >= Util.ROUND_PREFETCH_DEPTH && !mIsWaitingForRound) {
+                return;
+            }
+        }
+        QuizRound round = buildRound();
+        boolean deliverNow;
+        synchronized (mRoundLock) {
+            deliverNow = mIsWaitingForRound;
+            mIsWaitingForRound = false;
+            if (!deliverNow) {
+                mReadyRounds.add(round);
+            }
+        }
+        if (deliverNow) {
+            deliverRound(round);
+        }
+        scheduleRefill(Util.ROUND_REFILL_INTERVAL_MS);
+    }
 
-        Message msg2 = mServiceHandler.obtainMessage();
-        msg2.arg1 = FIND_NEXT_QUIZ_ID;
-        mServiceHandler.sendMessage(msg2);
+    private void scheduleRefill(long delayMillis) {
+        synchronized (mRoundLock) {
+            if (mIsRefillScheduled || mReadyRounds.size() >= Util.ROUND_PREFETCH_DEPTH) {
+                return;
+            }
+            mIsRefillScheduled = true;
+        }
+        Message msg = mServiceHandler.obtainMessage();
+        msg.arg1 = FILL_ROUNDS_ID;
+        mServiceHandler.sendMessageDelayed(msg, delayMillis);
+    }
+
+    // Hands a round to activity. Callbacks run on the thread calling this method.
+    private void deliverRound(QuizRound round) {
+        mCurrentRound = round;
+        mNextRandomWords = round.getRandomWords();
+        mListener.onNextRound(round);
+        // Have another batch of random words ready in case players go through the whole list without buzzing
+        Message msg = mServiceHandler.obtainMessage();
+        msg.arg1 = FIND_NEXT_WRONG_WORDS_ID;
+        mServiceHandler.sendMessage(msg);
+    }
 
-        Message msg3 = mServiceHandler.obtainMessage();
-        msg3.arg1 = FIND_CORRECT_ANSWER_ID;
-        mServiceHandler.sendMessage(msg3);
+    /*
+    * Starts next round:
+    * 1) next random challenge,
+    * 2) its correct translation and
+    * 3) a batch of random words (never including the challenge's translation).
+    * Activity is notified through QuizChangeListener callback - right away, on calling thread,
+    * if a prefetched round is ready, otherwise from background thread once the round is built.
+    * */
+    public void initGameWithWords() {
+        long startTime = System.nanoTime();
+        QuizRound round;
+        synchronized (mRoundLock) {
+            round = mReadyRounds.poll();
+            mIsWaitingForRound = round == null;
+        }
+        if (round != null) {
+            deliverRound(round);
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, "Prefetched round delivered in " + (System.nanoTime() - startTime) / 1000 + " us");
+            }
+            scheduleRefill(0);
+        } else {
+            Log.d(TAG, "No prefetched round ready, waiting for one");
+            scheduleRefill(0);
+        }
     }
 
-    // Prefetch next 50 random wrong words
+    // Prefetch next batch of random wrong words for current round
     private void prefetchRandomWords() {
-        mNextRandomWordPositions = new int[ARRAY_SIZE];
-        for (int i = 0; i < ARRAY_SIZE; i++) {
-            // Prefetch a random "position" for translation
-            mNextRandomWordPositions[i] = Util.getRandomNumber(1, mTotalWordCount);
+        QuizRound round = mCurrentRound;
+        if (round == null) {
+            return;
+        }
+        int[] randomWords = sampleRandomWords(round.getWordTable(), round.getChallengePosition());
+        if (randomWords.length > 0 && round == mCurrentRound) {
+            mNextRandomWords = randomWords;
         }
-        getNextRandomWords();
     }
 
-    public String[] getRandomWords() {
+    // Handles of random words, in the WordTable of the current round
+    public int[] getRandomWords() {
         return mNextRandomWords;
     }
 }
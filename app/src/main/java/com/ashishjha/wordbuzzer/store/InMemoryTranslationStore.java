@@ -0,0 +1,95 @@
+package com.ashishjha.wordbuzzer.store;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import java.util.Arrays;
+
+/*
+* Whole dictionary held in RAM as two parallel int[] (language "one" and language "two" word of each position)
+* of handles into a WordTable. Text of equal words is stored once.
+* Filled with put() on one thread, then published (e.g. through a volatile field) - read only afterwards.
+* */
+public class InMemoryTranslationStore implements TranslationStore {
+
+    // Handle for a position without word
+    public static final int NO_WORD = -1;
+
+    // Estimated heap used per translation: two handles, two offsets, two hash slots and ~2 x 12 bytes of UTF-8 text
+    public static final int ESTIMATED_BYTES_PER_TRANSLATION = 64;
+
+    private final WordTable mWordTable;
+
+    private final int[] mLanguageOne;
+
+    private final int[] mLanguageTwo;
+
+    public InMemoryTranslationStore(WordTable wordTable, int wordCount) {
+        mWordTable = wordTable;
+        mLanguageOne = new int[wordCount];
+        mLanguageTwo = new int[wordCount];
+        Arrays.fill(mLanguageOne, NO_WORD);
+        Arrays.fill(mLanguageTwo, NO_WORD);
+    }
+
+    /*
+    * Does a dictionary of wordCount translations fit in budgetPercent of heap (maxMemory, see Runtime.maxMemory())
+    * */
+    public static boolean fitsInMemory(int wordCount, long maxMemory, int budgetPercent) {
+        return (long) wordCount * ESTIMATED_BYTES_PER_TRANSLATION <= maxMemory / 100 * budgetPercent;
+    }
+
+    // Stores translation at position (1 based), positions outside the store are ignored
+    public void put(int position, String wordInLanguageOne, String wordInLanguageTwo) {
+        if (position < 1 || position > mLanguageOne.length || wordInLanguageOne == null || wordInLanguageTwo == null) {
+            return;
+        }
+        mLanguageOne[position - 1] = mWordTable.intern(wordInLanguageOne);
+        mLanguageTwo[position - 1] = mWordTable.intern(wordInLanguageTwo);
+    }
+
+    public WordTable getWordTable() {
+        return mWordTable;
+    }
+
+    // WordTable handle of word in language "one" at position, NO_WORD if missing
+    public int getWordHandleInLanguageOne(int position) {
+        return position < 1 || position > mLanguageOne.length ? NO_WORD : mLanguageOne[position - 1];
+    }
+
+    // WordTable handle of word in language "two" at position, NO_WORD if missing
+    public int getWordHandleInLanguageTwo(int position) {
+        return position < 1 || position > mLanguageTwo.length ? NO_WORD : mLanguageTwo[position - 1];
+    }
+
+    @Override
+    public int getWordCount() {
+        return mLanguageOne.length;
+    }
+
+    @Override
+    public Translation getTranslation(int position) {
+        int one = getWordHandleInLanguageOne(position);
+        int two = getWordHandleInLanguageTwo(position);
+        if (one == NO_WORD || two == NO_WORD) {
+            return null;
+        }
+        return new Translation(mWordTable.getWord(one), mWordTable.getWord(two));
+    }
+
+    @Override
+    public String getWordInLanguageOne(int position) {
+        int handle = getWordHandleInLanguageOne(position);
+        return handle == NO_WORD ? null : mWordTable.getWord(handle);
+    }
+
+    @Override
+    public String getWordInLanguageTwo(int position) {
+        int handle = getWordHandleInLanguageTwo(position);
+        return handle == NO_WORD ? null : mWordTable.getWord(handle);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, arrays go with the store
+    }
+}
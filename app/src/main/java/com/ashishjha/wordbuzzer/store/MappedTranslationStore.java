@@ -0,0 +1,116 @@
+package com.ashishjha.wordbuzzer.store;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/*
+* Read-only TranslationStore backed by a memory-mapped store file (see TranslationStoreFormat).
+* A lookup is two reads from the offset table and one copy out of the blob - O(1), no cursor, no query.
+* The only allocation per lookup is the returned String.
+* */
+public class MappedTranslationStore implements TranslationStore {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private MappedByteBuffer mBuffer;
+
+    private final int mWordCount;
+
+    private final int mBlobStart;
+
+    // Version 1 stores have no MISSING_WORD flag
+    private final boolean mIsEmptyWordMissing;
+
+    // Reused for decoding, guarded by "this"
+    private byte[] mScratch = new byte[64];
+
+    public MappedTranslationStore(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size < TranslationStoreFormat.HEADER_SIZE) {
+                throw new IOException("Translation store too small: " + size);
+            }
+            mBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } finally {
+            // Mapping stays valid after the channel is closed
+            randomAccessFile.close();
+        }
+        if (mBuffer.getInt(0) != TranslationStoreFormat.MAGIC) {
+            throw new IOException("Not a translation store: " + file);
+        }
+        int version = mBuffer.getInt(4);
+        if (version < TranslationStoreFormat.MIN_VERSION || version > TranslationStoreFormat.VERSION) {
+            throw new IOException("Unsupported translation store version " + version);
+        }
+        mIsEmptyWordMissing = version == 1;
+        mWordCount = mBuffer.getInt(8);
+        mBlobStart = TranslationStoreFormat.HEADER_SIZE + TranslationStoreFormat.offsetTableSize(mWordCount);
+        if (mWordCount < 0 || mBlobStart > mBuffer.capacity()
+                || mBlobStart + offsetAt(2 * mWordCount) > mBuffer.capacity()) {
+            throw new IOException("Truncated translation store: " + file);
+        }
+    }
+
+    @Override
+    public int getWordCount() {
+        return mWordCount;
+    }
+
+    @Override
+    public synchronized Translation getTranslation(int position) {
+        String wordInLanguageOne = getWordInLanguageOne(position);
+        if (wordInLanguageOne == null) {
+            return null;
+        }
+        return new Translation(wordInLanguageOne, getWordInLanguageTwo(position));
+    }
+
+    @Override
+    public String getWordInLanguageOne(int position) {
+        return readWord(2 * (position - 1));
+    }
+
+    @Override
+    public String getWordInLanguageTwo(int position) {
+        return readWord(2 * (position - 1) + 1);
+    }
+
+    @Override
+    public synchronized void close() {
+        // MappedByteBuffer is unmapped once it is garbage collected
+        mBuffer = null;
+    }
+
+    private int offsetAt(int slot) {
+        return mBuffer.getInt(TranslationStoreFormat.HEADER_SIZE + slot * 4) & TranslationStoreFormat.OFFSET_MASK;
+    }
+
+    private synchronized String readWord(int slot) {
+        if (mBuffer == null || slot < 0 || slot >= 2 * mWordCount) {
+            return null;
+        }
+        int end = mBuffer.getInt(TranslationStoreFormat.HEADER_SIZE + (slot + 1) * 4);
+        if ((end & TranslationStoreFormat.MISSING_WORD) != 0) {
+            return null;
+        }
+        int start = offsetAt(slot);
+        int length = end - start;
+        if (length < 0 || (length == 0 && mIsEmptyWordMissing)) {
+            return null;
+        }
+        if (mScratch.length < length) {
+            mScratch = new byte[Math.max(length, 2 * mScratch.length)];
+        }
+        mBuffer.position(mBlobStart + start);
+        mBuffer.get(mScratch, 0, length);
+        return new String(mScratch, 0, length, UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ashishjha.wordbuzzer.store;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import com.ashishjha.wordbuzzer.database.WordBuzzerDataSource;
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+/*
+* TranslationStore served by queries on DB (one cursor per lookup).
+* The shared connection is held from construction until close().
+* Used when no store file has been built yet, e.g. dictionary imported by an older version of the app
+* or still being imported (store file is written at the end of the import).
+* */
+public class SqliteTranslationStore implements TranslationStore {
+
+    private static final String POSITION_SELECTION = Util.WORD_POSITION + "=?";
+
+    private final WordBuzzerDataSource mDataSource;
+
+    private final LanguagePair mLanguagePair;
+
+    private final String[] mTranslationProjection;
+
+    private final int mWordCount;
+
+    // Default language pair
+    public SqliteTranslationStore(Context context, int wordCount) {
+        this(context, LanguagePair.DEFAULT, wordCount);
+    }
+
+    public SqliteTranslationStore(Context context, LanguagePair languagePair, int wordCount) {
+        mDataSource = new WordBuzzerDataSource(context, languagePair);
+        mDataSource.open();
+        mLanguagePair = languagePair;
+        mTranslationProjection = new String[]{languagePair.getColumnOne(), languagePair.getColumnTwo()};
+        mWordCount = wordCount;
+    }
+
+    @Override
+    public int getWordCount() {
+        return mWordCount;
+    }
+
+    @Override
+    public Translation getTranslation(int position) {
+        String[] selectionArgs = {position + ""};
+        Cursor cursor = mDataSource.getContents(mLanguagePair.getTableName(), mTranslationProjection, POSITION_SELECTION, selectionArgs);
+        Translation translation = null;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                translation = new Translation(cursor.getString(0), cursor.getString(1));
+            }
+            cursor.close();
+        }
+        return translation;
+    }
+
+    @Override
+    public String getWordInLanguageOne(int position) {
+        return queryWord(mLanguagePair.getColumnOne(), position);
+    }
+
+    @Override
+    public String getWordInLanguageTwo(int position) {
+        return queryWord(mLanguagePair.getColumnTwo(), position);
+    }
+
+    @Override
+    public void close() {
+        mDataSource.close();
+    }
+
+    private String queryWord(String column, int position) {
+        String[] projection = {column};
+        String[] selectionArgs = {position + ""};
+        Cursor cursor = mDataSource.getContents(mLanguagePair.getTableName(), projection, POSITION_SELECTION, selectionArgs);
+        String val = null;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                val = cursor.getString(cursor.getColumnIndexOrThrow(column));
+            }
+            cursor.close();
+        }
+        return val;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ashishjha.wordbuzzer.store;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+/*
+* Read access to the dictionary by translation position ("word_position" in DB).
+* Positions start at 1 and go up to getWordCount() (both included).
+* Returns null for a position which holds no translation.
+* */
+public interface TranslationStore {
+
+    int getWordCount();
+
+    // Both words at position, read with one lookup
+    Translation getTranslation(int position);
+
+    // Word in language "one" (challenge) at position
+    String getWordInLanguageOne(int position);
+
+    // Word in language "two" (translation of the challenge) at position
+    String getWordInLanguageTwo(int position);
+
+    void close();
+}
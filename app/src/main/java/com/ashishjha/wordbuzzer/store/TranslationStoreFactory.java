@@ -0,0 +1,56 @@
+package com.ashishjha.wordbuzzer.store;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+
+import java.io.File;
+import java.io.IOException;
+
+/*
+* Chooses TranslationStore implementation:
+* memory-mapped store file if it was built for the current dictionary, otherwise queries on DB.
+* Every language pair has its own store file (LanguagePair.getStoreFileName()).
+* */
+public class TranslationStoreFactory {
+
+    private static final String TAG = "TranslationStore";
+
+    private TranslationStoreFactory() {
+    }
+
+    // Store file of the default language pair
+    public static File getStoreFile(Context context) {
+        return getStoreFile(context, LanguagePair.DEFAULT);
+    }
+
+    public static File getStoreFile(Context context, LanguagePair languagePair) {
+        return new File(context.getFilesDir(), languagePair.getStoreFileName());
+    }
+
+    // wordCount - words in dictionary DB (Util.WORDS_COUNT_IN_DICTIONARY)
+    public static TranslationStore open(Context context, int wordCount) {
+        return open(context, LanguagePair.DEFAULT, wordCount);
+    }
+
+    // wordCount - words of the language pair in DB
+    public static TranslationStore open(Context context, LanguagePair languagePair, int wordCount) {
+        File storeFile = getStoreFile(context, languagePair);
+        if (storeFile.exists()) {
+            try {
+                MappedTranslationStore store = new MappedTranslationStore(storeFile);
+                if (store.getWordCount() == wordCount) {
+                    return store;
+                }
+                // Stale store - built for another dictionary
+                Log.d(TAG, "Store has " + store.getWordCount() + " words, dictionary has " + wordCount);
+                store.close();
+            } catch (IOException ex) {
+                Log.d(TAG, "open() ERROR");
+                ex.printStackTrace();
+            }
+        }
+        return new SqliteTranslationStore(context, languagePair, wordCount);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ashishjha.wordbuzzer.store;
+
+/*
+* Layout of the translation store file (all ints are big-endian):
+*
+*   int MAGIC
+*   int VERSION
+*   int wordCount
+*   int offsets[2 * wordCount + 1]   - byte offsets into blob, relative to blob start, flags in the top bit
+*   byte blob[]                      - UTF-8 words, language "one" then language "two" for every position
+*
+* Word in language "one" at position p spans [offsets[2 * (p - 1)], offsets[2 * (p - 1) + 1]),
+* word in language "two" spans [offsets[2 * (p - 1) + 1], offsets[2 * (p - 1) + 2]), offsets masked with OFFSET_MASK.
+* A position without translation has both words empty, with MISSING_WORD set in their end offsets - an empty
+* word is a valid word. Version 1 had no flag: every empty word was read as missing.
+* Written by TranslationStoreWriter and by app:buildTranslationStore (app/build.gradle) - keep them in sync.
+* */
+final class TranslationStoreFormat {
+
+    // "WBTS"
+    static final int MAGIC = 0x57425453;
+
+    static final int VERSION = 2;
+
+    // Oldest version still read
+    static final int MIN_VERSION = 1;
+
+    // Set in the end offset of a word that is missing
+    static final int MISSING_WORD = 0x80000000;
+
+    static final int OFFSET_MASK = ~MISSING_WORD;
+
+    static final int HEADER_SIZE = 3 * 4;
+
+    private TranslationStoreFormat() {
+    }
+
+    static int offsetTableSize(int wordCount) {
+        return (2 * wordCount + 1) * 4;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ashishjha.wordbuzzer.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/*
+* Streams translations (in position order, starting at 1) into a store file readable by MappedTranslationStore.
+* Words are appended to a temporary blob file while only the int offset table is kept in memory,
+* so the dictionary itself is never held in RAM.
+* The store file is replaced only in finish() - an abandoned writer leaves the previous store untouched.
+* */
+public class TranslationStoreWriter implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final File mTarget;
+
+    private final File mBlobFile;
+
+    private BufferedOutputStream mBlobOut;
+
+    private int[] mOffsets = new int[1025];
+
+    private int mSlotCount;
+
+    private int mBlobSize;
+
+    public TranslationStoreWriter(File target) throws IOException {
+        mTarget = target;
+        mBlobFile = new File(target.getPath() + ".blob");
+        mBlobOut = new BufferedOutputStream(new FileOutputStream(mBlobFile), BUFFER_SIZE);
+    }
+
+    // Appends translation at next position. A null word is stored as "no translation", an empty word as itself.
+    public void add(String wordInLanguageOne, String wordInLanguageTwo) throws IOException {
+        if (wordInLanguageOne == null || wordInLanguageTwo == null) {
+            appendWord(null);
+            appendWord(null);
+        } else {
+            appendWord(wordInLanguageOne);
+            appendWord(wordInLanguageTwo);
+        }
+    }
+
+    public int getWordCount() {
+        return mSlotCount / 2;
+    }
+
+    // Writes header and offset table followed by the blob to the target file
+    public void finish() throws IOException {
+        mBlobOut.close();
+        mBlobOut = null;
+        int wordCount = getWordCount();
+        File tmpFile = new File(mTarget.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), BUFFER_SIZE));
+        InputStream blobIn = null;
+        try {
+            out.writeInt(TranslationStoreFormat.MAGIC);
+            out.writeInt(TranslationStoreFormat.VERSION);
+            out.writeInt(wordCount);
+            out.writeInt(0);
+            for (int i = 0; i < mSlotCount; i++) {
+                out.writeInt(mOffsets[i]);
+            }
+            blobIn = new BufferedInputStream(new FileInputStream(mBlobFile), BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = blobIn.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            if (blobIn != null) {
+                blobIn.close();
+            }
+            out.close();
+        }
+        mBlobFile.delete();
+        if (!tmpFile.renameTo(mTarget)) {
+            tmpFile.delete();
+            throw new IOException("Can not rename " + tmpFile + " to " + mTarget);
+        }
+    }
+
+    // Discards everything written so far (target is not touched) unless finish() was called
+    @Override
+    public void close() throws IOException {
+        if (mBlobOut != null) {
+            mBlobOut.close();
+            mBlobOut = null;
+        }
+        mBlobFile.delete();
+    }
+
+    private void appendWord(String word) throws IOException {
+        if (word != null) {
+            byte[] bytes = word.getBytes(UTF_8);
+            mBlobOut.write(bytes);
+            mBlobSize += bytes.length;
+        }
+        if (mSlotCount == mOffsets.length) {
+            mOffsets = Arrays.copyOf(mOffsets, mOffsets.length * 2);
+        }
+        // Offset table stores the end of each word; the start of the first word (0) is written in finish()
+        mOffsets[mSlotCount++] = word != null ? mBlobSize : mBlobSize | TranslationStoreFormat.MISSING_WORD;
+    }
+}
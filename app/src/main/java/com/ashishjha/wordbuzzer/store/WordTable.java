@@ -0,0 +1,224 @@
+package com.ashishjha.wordbuzzer.store;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/*
+* Interned, append-only table of words.
+* All words are kept UTF-8 encoded back to back in one byte[] arena, word "handle" (0, 1, 2 ...) indexes an int[]
+* of offsets into the arena. Equal words get the same handle, so handles can be compared instead of strings.
+* A word costs its UTF-8 bytes plus ~10 bytes of index (offset and hash slot) - no String, no char[], no object header.
+* String is created only when a word is actually displayed (getWord), or never - getChars() decodes into a buffer.
+*
+* Handles stay valid for the life of the table (nothing is ever removed).
+* Thread safe - words are added on LoadNextWordThread and read on UI thread.
+* */
+public class WordTable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int NO_WORD = -1;
+
+    private byte[] mArena;
+
+    // Word "h" is mArena[mOffsets[h]] .. mArena[mOffsets[h + 1]] (excluded)
+    private int[] mOffsets;
+
+    private int mWordCount;
+
+    // Open addressing hash set of handles, NO_WORD for empty slot. Length is power of 2, at most 3/4 full.
+    private int[] mSlots;
+
+    public WordTable(int expectedWords, int expectedArenaBytes) {
+        mArena = new byte[Math.max(expectedArenaBytes, 16)];
+        mOffsets = new int[Math.max(expectedWords, 4) + 1];
+        mSlots = new int[slotsFor(Math.max(expectedWords, 4))];
+        Arrays.fill(mSlots, NO_WORD);
+    }
+
+    /*
+    * Handle of the word, word is appended if it is not in the table yet.
+    * */
+    public synchronized int intern(String word) {
+        int start = mOffsets[mWordCount];
+        // Encode behind the last word, it is kept only if the word turns out to be new
+        int end = encode(word, start);
+        int hash = hash(start, end);
+        int mask = mSlots.length - 1;
+        int slot = hash & mask;
+        int handle;
+        while ((handle = mSlots[slot]) != NO_WORD) {
+            if (equalsAt(handle, start, end)) {
+                return handle;
+            }
+            slot = (slot + 1) & mask;
+        }
+        handle = mWordCount;
+        if (handle + 2 > mOffsets.length) {
+            mOffsets = Arrays.copyOf(mOffsets, mOffsets.length * 2);
+        }
+        mOffsets[handle + 1] = end;
+        mWordCount++;
+        mSlots[slot] = handle;
+        if (mWordCount > mSlots.length / 4 * 3) {
+            rehash();
+        }
+        return handle;
+    }
+
+    // Word of a handle returned by intern()
+    public synchronized String getWord(int handle) {
+        checkHandle(handle);
+        int start = mOffsets[handle];
+        return new String(mArena, start, mOffsets[handle + 1] - start, UTF_8);
+    }
+
+    // Upper bound of the chars of a word (its UTF-8 byte count) - size of the buffer getChars() needs
+    public synchronized int getMaxChars(int handle) {
+        checkHandle(handle);
+        return mOffsets[handle + 1] - mOffsets[handle];
+    }
+
+    /*
+    * Decodes a word into dest without creating a String, returns its length in chars.
+    * dest must hold at least getMaxChars(handle) chars.
+    * */
+    public synchronized int getChars(int handle, char[] dest) {
+        checkHandle(handle);
+        byte[] arena = mArena;
+        int end = mOffsets[handle + 1];
+        int length = 0;
+        for (int i = mOffsets[handle]; i < end; ) {
+            int b = arena[i] & 0xff;
+            if (b < 0x80) {
+                dest[length++] = (char) b;
+                i++;
+            } else if (b < 0xe0) {
+                dest[length++] = (char) (((b & 0x1f) << 6) | (arena[i + 1] & 0x3f));
+                i += 2;
+            } else if (b < 0xf0) {
+                dest[length++] = (char) (((b & 0x0f) << 12) | ((arena[i + 1] & 0x3f) << 6) | (arena[i + 2] & 0x3f));
+                i += 3;
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((arena[i + 1] & 0x3f) << 12) | ((arena[i + 2] & 0x3f) << 6)
+                        | (arena[i + 3] & 0x3f);
+                length += Character.toChars(codePoint, dest, length);
+                i += 4;
+            }
+        }
+        return length;
+    }
+
+    public synchronized int getWordCount() {
+        return mWordCount;
+    }
+
+    // Bytes held by the table's arrays (capacity, not just used part)
+    public synchronized long getFootprintBytes() {
+        return mArena.length + 4L * mOffsets.length + 4L * mSlots.length;
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= mWordCount) {
+            throw new IndexOutOfBoundsException("No word for handle " + handle);
+        }
+    }
+
+    private int encode(String word, int start) {
+        int length = word.length();
+        ensureArena(start + encodedLength(word));
+        byte[] arena = mArena;
+        int pos = start;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c < 0x80) {
+                arena[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                arena[pos++] = (byte) (0xc0 | (c >> 6));
+                arena[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(word.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, word.charAt(++i));
+                arena[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                arena[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                arena[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                arena[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate - same replacement String.getBytes() uses
+                arena[pos++] = (byte) '?';
+            } else {
+                arena[pos++] = (byte) (0xe0 | (c >> 12));
+                arena[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                arena[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return pos;
+    }
+
+    private static int encodedLength(String word) {
+        int length = word.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (Character.isSurrogate(c)) {
+                // Surrogate pair takes 4 bytes (unpaired surrogate is 1 byte, over estimated)
+                bytes += 1;
+            } else if (c >= 0x800) {
+                bytes += 2;
+            } else if (c >= 0x80) {
+                bytes += 1;
+            }
+        }
+        return bytes;
+    }
+
+    // Smallest power of 2 keeping "words" under 3/4 load
+    private static int slotsFor(int words) {
+        int slots = Integer.highestOneBit(words);
+        while (slots / 4 * 3 < words) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private void ensureArena(int capacity) {
+        if (capacity > mArena.length) {
+            mArena = Arrays.copyOf(mArena, Math.max(capacity, mArena.length * 2));
+        }
+    }
+
+    private int hash(int start, int end) {
+        // FNV-1a, then spread so that low bits (used for slot) depend on all bytes
+        int hash = 0x811c9dc5;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (mArena[i] & 0xff)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean equalsAt(int handle, int start, int end) {
+        int wordStart = mOffsets[handle];
+        if (mOffsets[handle + 1] - wordStart != end - start) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (mArena[wordStart + i] != mArena[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] slots = new int[mSlots.length * 2];
+        Arrays.fill(slots, NO_WORD);
+        int mask = slots.length - 1;
+        for (int handle = 0; handle < mWordCount; handle++) {
+            int slot = hash(mOffsets[handle], mOffsets[handle + 1]) & mask;
+            while (slots[slot] != NO_WORD) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = handle;
+        }
+        mSlots = slots;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ashishjha.wordbuzzer.utils;
+
+/*
+* Source of random numbers for the game (challenges, wrong options, placement of correct answers).
+* Injected into components so tests can replay a game with a fixed seed.
+* Implementations are not required to be thread safe - use one instance per thread (see Util.getRandomNumber).
+* */
+public interface RandomSource {
+
+    // Uniform int in 0 .. bound - 1 (bound must be positive)
+    int nextInt(int bound);
+}
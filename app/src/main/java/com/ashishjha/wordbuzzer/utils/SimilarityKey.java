@@ -0,0 +1,86 @@
+package com.ashishjha.wordbuzzer.utils;
+
+import java.text.Normalizer;
+
+/*
+* Key grouping words that look alike: first two letters (lower case, accents dropped - "Árbol" starts with "ar")
+* and length in letters, in buckets of LENGTH_BUCKET_WIDTH. Stored with every row (Util.SIMILARITY_KEY) and indexed,
+* so plausible wrong options for an answer are one index range scan away.
+*
+* Keys sort by first letter, then second letter, then length bucket: words next to each other in the index
+* share their prefix, so a lookup short of words widens to neighbour keys within firstLetterStart() .. firstLetterEnd().
+* Non-letters are skipped, a word without letters has key 0.
+* Must stay in sync with similarityKey() in app/build.gradle, which stamps the prebuilt dictionary.
+* */
+public final class SimilarityKey {
+
+    private static final int LENGTH_BUCKET_WIDTH = 3;
+
+    private static final int MAX_LENGTH_BUCKET = 0xffff;
+
+    // Layout: first letter << FIRST_LETTER_SHIFT | second letter << SECOND_LETTER_SHIFT | length bucket
+    private static final int FIRST_LETTER_SHIFT = 40;
+
+    private static final int SECOND_LETTER_SHIFT = 16;
+
+    // fold() of Latin letters (up to Latin Extended-B), so imports of Latin script dictionaries never normalize
+    private static final char[] FOLDED_LATIN = new char[0x250];
+
+    static {
+        for (int codePoint = 0; codePoint < FOLDED_LATIN.length; codePoint++) {
+            FOLDED_LATIN[codePoint] = (char) foldSlow(codePoint);
+        }
+    }
+
+    private SimilarityKey() {
+    }
+
+    public static long of(String word) {
+        int first = 0;
+        int second = 0;
+        int letters = 0;
+        int length = word.length();
+        for (int i = 0; i < length; ) {
+            int codePoint = word.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetter(codePoint)) {
+                continue;
+            }
+            letters++;
+            if (letters == 1) {
+                first = fold(codePoint);
+            } else if (letters == 2) {
+                second = fold(codePoint);
+            }
+        }
+        if (letters == 0) {
+            return 0;
+        }
+        long lengthBucket = Math.min(MAX_LENGTH_BUCKET, letters / LENGTH_BUCKET_WIDTH);
+        return (long) first << FIRST_LETTER_SHIFT | (long) second << SECOND_LETTER_SHIFT | lengthBucket;
+    }
+
+    // Smallest key of words starting with the same letter as key
+    public static long firstLetterStart(long key) {
+        return key >>> FIRST_LETTER_SHIFT << FIRST_LETTER_SHIFT;
+    }
+
+    // Largest key of words starting with the same letter as key
+    public static long firstLetterEnd(long key) {
+        return firstLetterStart(key) | ((1L << FIRST_LETTER_SHIFT) - 1);
+    }
+
+    private static int fold(int codePoint) {
+        return codePoint < FOLDED_LATIN.length ? FOLDED_LATIN[codePoint] : foldSlow(codePoint);
+    }
+
+    // Lower case base letter: accents and other combining marks dropped
+    private static int foldSlow(int codePoint) {
+        int lowerCase = Character.toLowerCase(codePoint);
+        if (lowerCase < 0x80) {
+            return lowerCase;
+        }
+        String decomposed = Normalizer.normalize(new String(Character.toChars(lowerCase)), Normalizer.Form.NFD);
+        return decomposed.codePointAt(0);
+    }
+}
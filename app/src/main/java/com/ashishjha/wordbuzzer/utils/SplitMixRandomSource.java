@@ -0,0 +1,45 @@
+package com.ashishjha.wordbuzzer.utils;
+
+/*
+* RandomSource based on the SplitMix64 generator (the one behind java.util.SplittableRandom,
+* which is not available below API 24).
+* State is a single long - no allocation and no synchronization per call, unlike java.util.Random.
+* */
+public class SplitMixRandomSource implements RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long mSeed;
+
+    public SplitMixRandomSource(long seed) {
+        mSeed = seed;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int r = next31();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // Power of two - take high bits
+            return (int) ((bound * (long) r) >> 31);
+        }
+        // Reject values of the last incomplete range so every result is equally likely
+        for (int u = r; u - (r = u % bound) + m < 0; u = next31()) {
+        }
+        return r;
+    }
+
+    private int next31() {
+        return (int) (nextLong() >>> 33);
+    }
+
+    private long nextLong() {
+        long z = (mSeed += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ashishjha.wordbuzzer.utils;
+
+/*
+* Content hash of a translation (64-bit FNV-1a over UTF-8 bytes of both words, separated by a 0 byte).
+* Stored with every row (Util.FINGERPRINT) so a new dictionary can be compared with DB without comparing text.
+* Must stay in sync with fingerprint() in app/build.gradle, which stamps the prebuilt dictionary.
+* */
+public final class TranslationFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private TranslationFingerprint() {
+    }
+
+    public static long of(String wordInLanguageOne, String wordInLanguageTwo) {
+        long hash = hash(FNV_OFFSET_BASIS, wordInLanguageOne);
+        // Separator (0 byte), so that ("ab", "c") and ("a", "bc") differ
+        hash *= FNV_PRIME;
+        return hash(hash, wordInLanguageTwo);
+    }
+
+    // Same bytes as String.getBytes("UTF-8"), without the byte[]
+    private static long hash(long hash, String word) {
+        int length = word.length();
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c < 0x80) {
+                hash = (hash ^ c) * FNV_PRIME;
+            } else if (c < 0x800) {
+                hash = (hash ^ (0xc0 | (c >> 6))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | (c & 0x3f))) * FNV_PRIME;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(word.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, word.charAt(++i));
+                hash = (hash ^ (0xf0 | (codePoint >> 18))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | ((codePoint >> 12) & 0x3f))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | ((codePoint >> 6) & 0x3f))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | (codePoint & 0x3f))) * FNV_PRIME;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate - replaced by '?' in UTF-8
+                hash = (hash ^ '?') * FNV_PRIME;
+            } else {
+                hash = (hash ^ (0xe0 | (c >> 12))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | ((c >> 6) & 0x3f))) * FNV_PRIME;
+                hash = (hash ^ (0x80 | (c & 0x3f))) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+}
@@ -1,6 +1,8 @@
 package com.ashishjha.wordbuzzer.utils;
 
-import java.util.Random;
+import com.ashishjha.wordbuzzer.BuildConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by ashish on 30/1/16.
@@ -13,22 +15,149 @@ public class Util {
 
     public static final String WORD_POSITION = "word_position";
 
+    // Content hash of a translation (TranslationFingerprint), compared by dictionary updates instead of the text
+    public static final String FINGERPRINT = "fingerprint";
+
+    // 1 for translations added at runtime from an extra dictionary file - kept when bundled dictionary is updated
+    public static final String IS_APPENDED = "is_appended";
+
+    // Review box of a word (QuestionScheduler) and answers given for it, see WordStats
+    public static final String BOX = "box";
+
+    public static final String CORRECT_COUNT = "correct_count";
+
+    public static final String WRONG_COUNT = "wrong_count";
+
+    // Words looking alike share a key (SimilarityKey of the language "two" word), indexed for plausible wrong options
+    public static final String SIMILARITY_KEY = "similarity_key";
+
     public static final String DATABASE_NAME = "word_buzzer_db";
 
-    public static final int DATABASE_VERSION = 1;
+    // Progress of dictionary import, one row per dictionary source - committed with every batch
+    public static final String IMPORT_CHECKPOINT_TABLE = "import_checkpoint";
+
+    public static final String CHECKPOINT_SOURCE = "source";
+
+    // First position not imported yet
+    public static final String NEXT_POSITION = "next_position";
+
+    public static final String IS_COMPLETE = "is_complete";
+
+    // Registry of imported language pairs (LanguagePair), one row per pair with its word count
+    public static final String LANGUAGE_PAIR_TABLE = "language_pair";
+
+    public static final String PAIR_ID = "pair_id";
+
+    public static final String LANGUAGE_ONE = "language_one";
+
+    public static final String LANGUAGE_TWO = "language_two";
+
+    public static final String WORD_COUNT = "word_count";
+
+    // Generated from "dictionaryDbVersion" in app/build.gradle so the prebuilt dictionary and the app agree on schema
+    public static final int DATABASE_VERSION = BuildConfig.DATABASE_VERSION;
+
+    // Dictionary compiled at build time (app:buildPrebuiltDictionary) from DICTIONARY_JSON_ASSET
+    public static final String PREBUILT_DICTIONARY_ASSET = "word_buzzer_db.sqlite";
+
+    public static final String DICTIONARY_JSON_ASSET = "words.json";
+
+    // Memory-mapped translation store, compiled at build time (app:buildTranslationStore) and shipped in assets
+    // under the same name. Installed (or written while importing DICTIONARY_JSON_ASSET) in app's files directory.
+    public static final String TRANSLATION_STORE_FILE = "word_buzzer_store.bin";
 
     public static final String WORD_BUZZER_PREFS = "ord_buzzer_prefs";
 
     public static final String IS_CLEAN_LAUNCH = "is_clean_launch";
 
+    // Word count of the default language pair (LanguagePair.DEFAULT), other pairs keep theirs in LANGUAGE_PAIR_TABLE
     public static final String WORDS_COUNT_IN_DICTIONARY = "words_count_in_dirctionary";
 
+    // Id of the language pair played (LanguagePair.getId()), default pair if not set
+    public static final String ACTIVE_LANGUAGE_PAIR = "active_language_pair";
+
     public static final String LOAD_DICTIONARY = "load_dictionary";
 
     public static final String LOAD_DICTIONARY_COMPLETE = "load_dictionary_complete";
 
+    // Sent after every batch committed by a dictionary import, committed word count in EXTRA_COMMITTED_WORDS
+    public static final String LOAD_DICTIONARY_PROGRESS = "load_dictionary_progress";
+
+    // Sent once DICTIONARY_READY_WORD_COUNT words are committed - game can start while the rest is imported
+    public static final String LOAD_DICTIONARY_READY = "load_dictionary_ready";
+
+    public static final String EXTRA_COMMITTED_WORDS = "committed_words";
+
+    // Brings DB in line with a new bundled dictionary (DICTIONARY_JSON_ASSET) by applying only the difference
+    public static final String UPDATE_DICTIONARY = "update_dictionary";
+
+    // Adds translations of an extra dictionary file (path in EXTRA_DICTIONARY_FILE) not yet in DB
+    public static final String APPEND_DICTIONARY = "append_dictionary";
+
+    public static final String EXTRA_DICTIONARY_FILE = "extra_dictionary_file";
+
+    // versionCode of the app whose bundled dictionary is in DB, an update is applied when it differs
+    public static final String DICTIONARY_VERSION = "dictionary_version";
+
     public static final int MAX_TRANSLATIONS_IN_MEMORY = 100;
 
+    // Random words (wrong options) fetched by WordLoaderService per batch
+    public static final int DISTRACTOR_BATCH_SIZE = 50;
+
+    // Random words of a batch replaced by words looking like the correct answer (PlausibleDistractorFinder)
+    public static final int PLAUSIBLE_DISTRACTOR_COUNT = 10;
+
+    // Rounds (challenge, answer and random words) WordLoaderService keeps ready ahead of time
+    public static final int ROUND_PREFETCH_DEPTH = 3;
+
+    // Pause between building two prefetched rounds, so refilling does not compete with the game for CPU
+    public static final long ROUND_REFILL_INTERVAL_MS = 50;
+
+    // Translations committed to DB in one transaction while importing dictionary
+    public static final int IMPORT_BATCH_SIZE = 1000;
+
+    // Words committed before the game may start on a clean launch - the first batch
+    public static final int DICTIONARY_READY_WORD_COUNT = IMPORT_BATCH_SIZE;
+
+    // Parsed batches waiting for the DB writer while importing dictionary (parser blocks beyond that)
+    public static final int IMPORT_QUEUE_CAPACITY = 2;
+
+    // Initial capacity of WordLoaderService's WordTable, it grows as more distinct words are played
+    public static final int WORD_TABLE_INITIAL_WORDS = 1024;
+
+    public static final int WORD_TABLE_INITIAL_BYTES = 16 * 1024;
+
+    // A dictionary not in RAM only has the words of recent rounds in WordTable - once its footprint is over
+    // this budget (a few hundred rounds), next rounds are built with a new table
+    public static final int WORD_TABLE_MAX_BYTES = 256 * 1024;
+
+    // Average UTF-8 bytes of a dictionary word, used to size WordTable
+    public static final int AVERAGE_WORD_BYTES = 12;
+
+    // Share of heap (Runtime.maxMemory()) the whole dictionary may take in RAM, otherwise rounds are served from DB
+    public static final int IN_MEMORY_DICTIONARY_BUDGET_PERCENT = 10;
+
+    // Review boxes of QuestionScheduler: a wrong answer sends a word to box 0, a correct one moves it up a box
+    // (up to MAX_BOX). A word in box b is picked as challenge with weight 2^(MAX_BOX - b), unplayed words are in NEW_WORD_BOX.
+    public static final int MAX_BOX = 6;
+
+    public static final int NEW_WORD_BOX = 3;
+
+    // Answers buffered by WordLoaderService before their word stats are written to DB in one transaction
+    public static final int WORD_STATS_FLUSH_SIZE = 20;
+
+    // Exact frequency of correct answer among options shown to players: CORRECT_ANSWERS_PER_BLOCK in every OPTION_BLOCK_LENGTH options (20%)
+    public static final int CORRECT_ANSWERS_PER_BLOCK = 1;
+
+    public static final int OPTION_BLOCK_LENGTH = 5;
+
+    // Presses happening this long after the first buzz still compete (BuzzerArbiter) - covers late delivery
+    // of touch events, the earliest press wins
+    public static final long BUZZER_TIE_WINDOW_MS = 40;
+
+    // Every option word is on screen this long, in its own slot of WordTimeline
+    public static final long WORD_DURATION_MS = 2000;
+
     public static final String BUZZER_SCORE_1 = "buzzer_score_1";
 
     public static final String BUZZER_SCORE_2 = "buzzer_score_2";
@@ -38,8 +167,29 @@ public class Util {
     public static final String BUZZER_SCORE_4 = "buzzer_score_4";
 
 
+    // Seeds of per-thread RandomSource, so threads starting at the same time do not share a sequence
+    private static final AtomicLong sRandomSeed = new AtomicLong(System.nanoTime());
+
+    // Called from LoadNextWordThread and UI thread - one generator per thread, created once
+    private static final ThreadLocal<RandomSource> sRandomSource = new ThreadLocal<RandomSource>() {
+        @Override
+        protected RandomSource initialValue() {
+            return new SplitMixRandomSource(sRandomSeed.addAndGet(0x9e3779b97f4a7c15L) ^ Thread.currentThread().getId());
+        }
+    };
+
+    // RandomSource of calling thread
+    public static RandomSource getRandomSource() {
+        return sRandomSource.get();
+    }
+
+    // Random number between startNo and lastNo (both included)
     public static int getRandomNumber(int startNo, int lastNo) {
-        Random random = new Random();
-        return random.nextInt(lastNo - startNo) + startNo;
+        return getRandomNumber(sRandomSource.get(), startNo, lastNo);
+    }
+
+    // Random number between startNo and lastNo (both included) drawn from given source, e.g. a seeded one in tests
+    public static int getRandomNumber(RandomSource random, int startNo, int lastNo) {
+        return random.nextInt(lastNo - startNo + 1) + startNo;
     }
 }
@@ -0,0 +1,82 @@
+package com.ashishjha.wordbuzzer.view;
+
+/*
+* Counts frames of an animation and the frames it dropped, from the time of every frame drawn.
+* A gap between two frames longer than 1.5 frame intervals means the frames that should have been drawn
+* in between were dropped (a 50 ms gap at 60 fps is 2 dropped frames).
+*
+* Frames are counted from onFrame() to onFrame() while an animation runs; pause() ends the run, so the time
+* between two animations (game paused, answer shown) is not taken for dropped frames.
+* Pure Java, so counting is tested headless with scripted frame times. Not thread safe - used from UI thread only.
+* */
+public class FrameStats {
+
+    // 60 fps
+    public static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    private static final long NO_FRAME = -1;
+
+    private final long mFrameIntervalNanos;
+
+    private long mLastFrameNanos = NO_FRAME;
+
+    private int mFrames;
+
+    private int mDroppedFrames;
+
+    private long mWorstIntervalNanos;
+
+    public FrameStats() {
+        this(DEFAULT_FRAME_INTERVAL_NANOS);
+    }
+
+    public FrameStats(long frameIntervalNanos) {
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("frameIntervalNanos must be positive");
+        }
+        mFrameIntervalNanos = frameIntervalNanos;
+    }
+
+    // Frame drawn at frameTimeNanos (System.nanoTime() clock)
+    public void onFrame(long frameTimeNanos) {
+        mFrames++;
+        if (mLastFrameNanos != NO_FRAME) {
+            long interval = frameTimeNanos - mLastFrameNanos;
+            mWorstIntervalNanos = Math.max(mWorstIntervalNanos, interval);
+            if (interval * 2 > mFrameIntervalNanos * 3) {
+                // Rounded to nearest number of frame intervals, minus the frame drawn now
+                mDroppedFrames += (int) ((interval + mFrameIntervalNanos / 2) / mFrameIntervalNanos) - 1;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+    }
+
+    // Animation stopped, next frame starts a new run
+    public void pause() {
+        mLastFrameNanos = NO_FRAME;
+    }
+
+    public void reset() {
+        mLastFrameNanos = NO_FRAME;
+        mFrames = 0;
+        mDroppedFrames = 0;
+        mWorstIntervalNanos = 0;
+    }
+
+    public int getFrames() {
+        return mFrames;
+    }
+
+    public int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    public long getWorstIntervalNanos() {
+        return mWorstIntervalNanos;
+    }
+
+    public String getReport() {
+        return mFrames + " frames, " + mDroppedFrames + " dropped, worst frame "
+                + mWorstIntervalNanos / 1000000 + " ms";
+    }
+}
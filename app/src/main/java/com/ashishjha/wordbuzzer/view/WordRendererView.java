@@ -0,0 +1,194 @@
+package com.ashishjha.wordbuzzer.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.View;
+
+import com.ashishjha.wordbuzzer.R;
+import com.ashishjha.wordbuzzer.store.WordTable;
+
+/*
+* Draws the option words (language "two") moving over the screen, one word at a time.
+* Left-to-right words move in the top row, from the left border out of the right border; right-to-left words
+* move in the bottom row, from beyond the right border out of the left one. Both fade in from 0.1 to full alpha
+* from the start to the end time of the word (WordTimeline), linearly.
+* Unless given a fixed height, the view is as high as both rows and the quiz word between them (word_height_tv
+* each), word_margin apart.
+*
+* Everything a word needs is allocated once: the Paint, the char buffer the word is decoded into from WordTable
+* (grown only for a longer word than any before), the frame callback. Text is measured once per word, so a frame
+* is one drawText() - showing words allocates nothing, no Animation inflated, no String, no TextView layout.
+*
+* Motion is driven from the frame callback (ViewCompat.postOnAnimation - Choreographer on API 16+), position is
+* computed from the clock against the word's start and end time, so a late frame puts the word where it should be
+* instead of slowing it down. A word starting in the future is not drawn until its start time.
+* Every frame is counted in getFrameStats(), with the frames dropped.
+* Used from UI thread only.
+* */
+public class WordRendererView extends View {
+
+    private static final float START_ALPHA = 0.1f;
+
+    public interface Listener {
+        // Word moved out of the screen, next word can be shown
+        void onWordEnd();
+    }
+
+    private final Paint mPaint;
+
+    // Distance of the middle of a row from the top (left-to-right) or bottom (right-to-left) of the view
+    private final float mRowMiddle;
+
+    private final int mPreferredHeight;
+
+    private final FrameStats mFrameStats = new FrameStats();
+
+    private final Runnable mFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            onFrame();
+        }
+    };
+
+    private WordTable mWordTable;
+
+    private Listener mListener;
+
+    // Word shown is mChars[0 .. mLength), no word if mLength is 0
+    private char[] mChars = new char[32];
+
+    private int mLength;
+
+    private float mTextWidth;
+
+    private boolean mIsLeftToRight;
+
+    // Time (SystemClock.uptimeMillis() clock) the word enters the screen and leaves it
+    private long mStartTime;
+
+    private long mEndTime;
+
+    // 0 .. 1 of the way of the word as of the last frame, negative before its start time
+    private float mProgress;
+
+    private boolean mIsRunning;
+
+    public WordRendererView(Context context) {
+        this(context, null);
+    }
+
+    public WordRendererView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mPaint.setColor(Color.WHITE);
+        mPaint.setTextSize(getResources().getDimension(R.dimen.word_text_size));
+        float rowHeight = getResources().getDimension(R.dimen.word_height_tv);
+        mRowMiddle = rowHeight / 2;
+        mPreferredHeight = (int) (3 * rowHeight + 2 * getResources().getDimension(R.dimen.word_margin));
+    }
+
+    public void setWordTable(WordTable wordTable) {
+        mWordTable = wordTable;
+    }
+
+    public void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    /*
+    * Moves the word of handle (of the WordTable set) over the screen from startTime to endTime,
+    * replacing the word shown if any. startTime may be in the past - the word then starts part of the way.
+    * */
+    public void showWord(int handle, boolean isLeftToRight, long startTime, long endTime) {
+        int maxChars = mWordTable.getMaxChars(handle);
+        if (maxChars > mChars.length) {
+            mChars = new char[Math.max(maxChars, mChars.length * 2)];
+        }
+        mLength = mWordTable.getChars(handle, mChars);
+        mTextWidth = mPaint.measureText(mChars, 0, mLength);
+        mIsLeftToRight = isLeftToRight;
+        mStartTime = startTime;
+        mEndTime = Math.max(endTime, startTime + 1);
+        mProgress = getProgress(SystemClock.uptimeMillis());
+        if (!mIsRunning) {
+            // Otherwise the frame callback is already posted
+            mIsRunning = true;
+            ViewCompat.postOnAnimation(this, mFrameCallback);
+        }
+        invalidate();
+    }
+
+    // Stops the word where it is, it stays on screen until the next showWord()
+    public void stop() {
+        mIsRunning = false;
+        removeCallbacks(mFrameCallback);
+        mFrameStats.pause();
+    }
+
+    public FrameStats getFrameStats() {
+        return mFrameStats;
+    }
+
+    private void onFrame() {
+        if (!mIsRunning) {
+            return;
+        }
+        mFrameStats.onFrame(System.nanoTime());
+        long now = SystemClock.uptimeMillis();
+        mProgress = getProgress(now);
+        invalidate();
+        if (now >= mEndTime) {
+            stop();
+            if (mListener != null) {
+                mListener.onWordEnd();
+            }
+        } else {
+            ViewCompat.postOnAnimation(this, mFrameCallback);
+        }
+    }
+
+    private float getProgress(long now) {
+        if (now < mStartTime) {
+            return -1;
+        }
+        return Math.min(1f, (float) (now - mStartTime) / (mEndTime - mStartTime));
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(mPreferredHeight, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (mLength == 0 || mProgress < 0) {
+            return;
+        }
+        int width = getWidth();
+        mPaint.setAlpha((int) ((START_ALPHA + (1 - START_ALPHA) * mProgress) * 255));
+        // Baseline putting the text in the middle of its row
+        float baselineOffset = -(mPaint.ascent() + mPaint.descent()) / 2;
+        if (mIsLeftToRight) {
+            // Left edge of the text moves from left border to right border
+            canvas.drawText(mChars, 0, mLength, width * mProgress, mRowMiddle + baselineOffset, mPaint);
+        } else {
+            // Right edge of the text moves from one screen width beyond right border to left border
+            float right = 2 * width * (1 - mProgress);
+            canvas.drawText(mChars, 0, mLength, right - mTextWidth, getHeight() - mRowMiddle + baselineOffset,
+                    mPaint);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        stop();
+        super.onDetachedFromWindow();
+    }
+}
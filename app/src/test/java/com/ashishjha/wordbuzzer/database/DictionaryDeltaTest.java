@@ -0,0 +1,241 @@
+package com.ashishjha.wordbuzzer.database;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.TranslationFingerprint;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class DictionaryDeltaTest {
+
+    // DB table in memory - position -> {word one, word two, "1" if appended}
+    private static TreeMap<Integer, String[]> table(String... words) {
+        TreeMap<Integer, String[]> table = new TreeMap<>();
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != null) {
+                table.put(i + 1, new String[]{words[i], "t_" + words[i], "0"});
+            }
+        }
+        return table;
+    }
+
+    private static DictionaryDelta diff(TreeMap<Integer, String[]> table, boolean isAppend, String... words) {
+        DictionaryDelta delta = new DictionaryDelta(isAppend);
+        for (Integer position : table.keySet()) {
+            String[] row = table.get(position);
+            delta.addRow(position, TranslationFingerprint.of(row[0], row[1]), row[2].equals("1"));
+        }
+        for (String word : words) {
+            delta.offer(word, "t_" + word);
+        }
+        delta.finish();
+        return delta;
+    }
+
+    // Same steps as WordBuzzerDataSource.applyDelta()
+    private static void apply(TreeMap<Integer, String[]> table, DictionaryDelta delta) {
+        for (int position : delta.getDeletedPositions()) {
+            assertNotNull("deleting missing row " + position, table.remove(position));
+        }
+        for (int i = 0; i < delta.getMoveFrom().length; i++) {
+            assertFalse("moving onto row " + delta.getMoveTo()[i], table.containsKey(delta.getMoveTo()[i]));
+            String[] row = table.remove(delta.getMoveFrom()[i]);
+            assertNotNull("moving missing row " + delta.getMoveFrom()[i], row);
+            table.put(delta.getMoveTo()[i], row);
+        }
+        List<Translation> newTranslations = delta.getNewTranslations();
+        for (int i = 0; i < newTranslations.size(); i++) {
+            Translation translation = newTranslations.get(i);
+            String[] row = {translation.getWordInLanguageOne(), translation.getWordInLanguageTwo(),
+                    delta.isAppend() ? "1" : "0"};
+            assertNull("inserting onto row " + delta.getInsertPositions()[i],
+                    table.put(delta.getInsertPositions()[i], row));
+        }
+    }
+
+    private static void assertContiguous(TreeMap<Integer, String[]> table, int lastPosition) {
+        assertEquals(lastPosition, table.size());
+        if (lastPosition > 0) {
+            assertEquals(1, (int) table.firstKey());
+            assertEquals(lastPosition, (int) table.lastKey());
+        }
+    }
+
+    private static List<String> sortedWords(TreeMap<Integer, String[]> table) {
+        List<String> words = new ArrayList<>();
+        for (String[] row : table.values()) {
+            words.add(row[0]);
+        }
+        Collections.sort(words);
+        return words;
+    }
+
+    @Test
+    public void sameDictionaryIsEmptyDelta() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c");
+        DictionaryDelta delta = diff(table, false, "c", "a", "b");
+        assertTrue(delta.isEmpty());
+        assertEquals(3, delta.getLastPosition());
+        assertEquals(3, delta.getOfferedCount());
+    }
+
+    @Test
+    public void newWordsTakeFreedPositions() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c", "d");
+        DictionaryDelta delta = diff(table, false, "a", "x", "c", "d");
+        assertArrayEquals(new int[]{2}, delta.getDeletedPositions());
+        assertArrayEquals(new int[]{2}, delta.getInsertPositions());
+        assertEquals(0, delta.getMoveFrom().length);
+        apply(table, delta);
+        assertEquals("x", table.get(2)[0]);
+        assertContiguous(table, 4);
+    }
+
+    @Test
+    public void removedWordsAreCompactedFromTheEnd() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c", "d", "e", "f");
+        DictionaryDelta delta = diff(table, false, "a", "c", "e", "f");
+        assertArrayEquals(new int[]{2, 4}, delta.getDeletedPositions());
+        // f (6) -> 2, e (5) -> 4
+        assertArrayEquals(new int[]{6, 5}, delta.getMoveFrom());
+        assertArrayEquals(new int[]{2, 4}, delta.getMoveTo());
+        apply(table, delta);
+        assertContiguous(table, 4);
+        assertEquals(Arrays.asList("a", "c", "e", "f"), sortedWords(table));
+        // Untouched rows keep their position
+        assertEquals("a", table.get(1)[0]);
+        assertEquals("c", table.get(3)[0]);
+    }
+
+    @Test
+    public void deletedTailIsNotMoved() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c", "d");
+        DictionaryDelta delta = diff(table, false, "a", "b");
+        assertEquals(0, delta.getMoveFrom().length);
+        apply(table, delta);
+        assertContiguous(table, 2);
+    }
+
+    @Test
+    public void gapsOfMissingWordsAreFilled() {
+        // Positions 2 and 4 were consumed by translations with a missing word
+        TreeMap<Integer, String[]> table = table("a", null, "c", null, "e");
+        DictionaryDelta delta = diff(table, false, "a", "c", "e", "x");
+        assertEquals(0, delta.getDeletedPositions().length);
+        assertArrayEquals(new int[]{2}, delta.getInsertPositions());
+        apply(table, delta);
+        assertContiguous(table, 4);
+    }
+
+    @Test
+    public void moreNewWordsThanHolesGoAfterTheEnd() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c");
+        DictionaryDelta delta = diff(table, false, "a", "x", "c", "y", "z", null);
+        assertArrayEquals(new int[]{2, 4, 5}, delta.getInsertPositions());
+        apply(table, delta);
+        assertContiguous(table, 5);
+        assertEquals(5, delta.getOfferedCount());
+    }
+
+    @Test
+    public void duplicatesAreCounted() {
+        TreeMap<Integer, String[]> table = table("a", "a", "b");
+        DictionaryDelta delta = diff(table, false, "a", "b", "b");
+        assertEquals(1, delta.getDeletedPositions().length);
+        assertEquals(1, delta.getNewTranslations().size());
+        apply(table, delta);
+        assertContiguous(table, 3);
+        assertEquals(Arrays.asList("a", "b", "b"), sortedWords(table));
+    }
+
+    @Test
+    public void appendKeepsEverythingAndSkipsKnownWords() {
+        TreeMap<Integer, String[]> table = table("a", "b", "c");
+        DictionaryDelta delta = diff(table, true, "b", "x");
+        assertEquals(0, delta.getDeletedPositions().length);
+        assertArrayEquals(new int[]{4}, delta.getInsertPositions());
+        apply(table, delta);
+        assertEquals("1", table.get(4)[2]);
+
+        // Next update of bundled dictionary keeps the appended word
+        delta = diff(table, false, "a", "c");
+        assertArrayEquals(new int[]{2}, delta.getDeletedPositions());
+        apply(table, delta);
+        assertContiguous(table, 3);
+        assertEquals(Arrays.asList("a", "c", "x"), sortedWords(table));
+    }
+
+    @Test
+    public void emptyDatabase() {
+        TreeMap<Integer, String[]> table = table();
+        DictionaryDelta delta = diff(table, false, "a", "b");
+        assertArrayEquals(new int[]{1, 2}, delta.getInsertPositions());
+        apply(table, delta);
+        assertContiguous(table, 2);
+
+        delta = diff(table, false);
+        apply(table, delta);
+        assertContiguous(table, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rowsOutOfOrder() {
+        DictionaryDelta delta = new DictionaryDelta(false);
+        delta.addRow(2, 0, false);
+        delta.addRow(1, 0, false);
+    }
+
+    @Test
+    public void randomChangesMatchDictionary() {
+        SplitMixRandomSource random = new SplitMixRandomSource(16);
+        for (int run = 0; run < 200; run++) {
+            int size = Util.getRandomNumber(random, 0, 300);
+            String[] words = new String[size];
+            for (int i = 0; i < size; i++) {
+                // Small vocabulary - plenty of duplicates, some missing words
+                words[i] = Util.getRandomNumber(random, 0, 9) == 0 ? null : "w" + Util.getRandomNumber(random, 0, 150);
+            }
+            TreeMap<Integer, String[]> table = table(words);
+            List<String> dictionary = new ArrayList<>();
+            int dictionarySize = Util.getRandomNumber(random, 0, 300);
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionary.add("w" + Util.getRandomNumber(random, 0, 200));
+            }
+            DictionaryDelta delta = diff(table, false, dictionary.toArray(new String[dictionary.size()]));
+            apply(table, delta);
+            assertContiguous(table, delta.getLastPosition());
+            Collections.sort(dictionary);
+            assertEquals(dictionary, sortedWords(table));
+        }
+    }
+
+    @Test
+    public void onePercentChangeTouchesOnlyChangedRows() {
+        int size = 100000;
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            words[i] = "word" + i;
+        }
+        TreeMap<Integer, String[]> table = table(words);
+        // 1% of the dictionary replaced by new words, 0.5% removed
+        String[] dictionary = words.clone();
+        for (int i = 0; i < size / 100; i++) {
+            dictionary[i * 100] = "new" + i;
+        }
+        String[] shrunk = Arrays.copyOf(dictionary, size - size / 200);
+        DictionaryDelta delta = diff(table, false, shrunk);
+        int written = delta.getDeletedPositions().length + delta.getMoveFrom().length + delta.getInsertPositions().length;
+        assertTrue(written + " row writes", written <= 3 * size / 100);
+        apply(table, delta);
+        assertContiguous(table, shrunk.length);
+    }
+}
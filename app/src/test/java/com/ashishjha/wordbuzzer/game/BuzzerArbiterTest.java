@@ -0,0 +1,121 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuzzerArbiterTest {
+
+    private static final long TIE_WINDOW = 40;
+
+    private static BuzzerArbiter armedAt(long now) {
+        BuzzerArbiter arbiter = new BuzzerArbiter(4, TIE_WINDOW, new SplitMixRandomSource(1));
+        arbiter.arm(now);
+        return arbiter;
+    }
+
+    /*
+    * Scripted event stream, in delivery order: {player, event time} per press.
+    * Returns winner decided at the end of the tie window.
+    * */
+    private static int play(BuzzerArbiter arbiter, long[][] presses) {
+        for (long[] press : presses) {
+            arbiter.onPress((int) press[0], press[1]);
+        }
+        return arbiter.decide(arbiter.getDecisionTime());
+    }
+
+    @Test
+    public void earliestPressWinsWhateverDeliveryOrder() {
+        // Player 3 touched first but was delivered last (busy frame)
+        assertEquals(3, play(armedAt(1000), new long[][]{{0, 1012}, {1, 1015}, {3, 1009}}));
+        assertEquals(0, play(armedAt(1000), new long[][]{{0, 1009}, {1, 1015}, {3, 1012}}));
+    }
+
+    @Test
+    public void decisionWaitsForTieWindow() {
+        BuzzerArbiter arbiter = armedAt(0);
+        assertEquals(-1, arbiter.getDecisionTime());
+        assertEquals(BuzzerArbiter.NO_PLAYER, arbiter.decide(500));
+        assertTrue(arbiter.onPress(2, 100));
+        assertEquals(100 + TIE_WINDOW, arbiter.getDecisionTime());
+        assertEquals(BuzzerArbiter.NO_PLAYER, arbiter.decide(100 + TIE_WINDOW - 1));
+        // Delivered late, happened earlier - window ends earlier
+        assertTrue(arbiter.onPress(1, 95));
+        assertEquals(95 + TIE_WINDOW, arbiter.getDecisionTime());
+        assertEquals(1, arbiter.decide(100 + TIE_WINDOW - 1));
+        assertEquals(95, arbiter.getWinnerPressTime());
+        assertEquals(TIE_WINDOW + 4, arbiter.getLastDecisionLatency());
+    }
+
+    @Test
+    public void pressesAfterTieWindowDoNotCompete() {
+        BuzzerArbiter arbiter = armedAt(0);
+        assertTrue(arbiter.onPress(0, 200));
+        assertTrue(arbiter.onPress(1, 200 + TIE_WINDOW));
+        assertFalse(arbiter.onPress(2, 201 + TIE_WINDOW));
+        assertEquals(0, arbiter.decide(300));
+    }
+
+    @Test
+    public void pressesOutsideRoundAreIgnored() {
+        BuzzerArbiter arbiter = new BuzzerArbiter(4, TIE_WINDOW, new SplitMixRandomSource(2));
+        // Not armed yet
+        assertFalse(arbiter.onPress(0, 10));
+        arbiter.arm(1000);
+        // Touched before the round started, delivered after
+        assertFalse(arbiter.onPress(0, 999));
+        assertFalse(arbiter.onPress(4, 1001));
+        assertFalse(arbiter.onPress(-1, 1001));
+        assertFalse(arbiter.hasPress());
+        assertTrue(arbiter.onPress(3, 1001));
+        assertEquals(3, arbiter.decide(2000));
+        // Decided - disarmed until next round
+        assertFalse(arbiter.isArmed());
+        assertFalse(arbiter.onPress(0, 1002));
+        assertEquals(BuzzerArbiter.NO_PLAYER, arbiter.decide(3000));
+        arbiter.arm(4000);
+        assertFalse(arbiter.hasPress());
+        assertTrue(arbiter.onPress(2, 4001));
+        arbiter.disarm();
+        assertEquals(BuzzerArbiter.NO_PLAYER, arbiter.decide(5000));
+    }
+
+    @Test
+    public void secondFingerKeepsEarliestPress() {
+        // Player 1: ACTION_DOWN at 10, second finger (ACTION_POINTER_DOWN) at 30 - the press stays at 10
+        assertEquals(1, play(armedAt(0), new long[][]{{1, 10}, {0, 12}, {1, 30}}));
+    }
+
+    @Test
+    public void exactTiesAreSharedFairly() {
+        BuzzerArbiter arbiter = new BuzzerArbiter(4, TIE_WINDOW, new SplitMixRandomSource(3));
+        int[] wins = new int[4];
+        int rounds = 30000;
+        for (int i = 0; i < rounds; i++) {
+            arbiter.arm(0);
+            arbiter.onPress(0, 50);
+            arbiter.onPress(2, 50);
+            arbiter.onPress(3, 50);
+            arbiter.onPress(1, 51);
+            wins[arbiter.decide(1000)]++;
+        }
+        assertEquals(0, wins[1]);
+        for (int player : new int[]{0, 2, 3}) {
+            assertEquals(rounds / 3.0, wins[player], 5 * Math.sqrt(rounds / 3.0));
+        }
+    }
+
+    @Test
+    public void zeroTieWindowDecidesOnFirstPress() {
+        BuzzerArbiter arbiter = new BuzzerArbiter(2, 0, new SplitMixRandomSource(4));
+        arbiter.arm(0);
+        assertTrue(arbiter.onPress(1, 7));
+        assertFalse(arbiter.onPress(0, 8));
+        assertEquals(7, arbiter.getDecisionTime());
+        assertEquals(1, arbiter.decide(7));
+        assertEquals(0, arbiter.getLastDecisionLatency());
+    }
+}
@@ -0,0 +1,121 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FenwickTreeTest {
+
+    // Reference - plain array, O(n) per query
+    private static void assertSameAs(long[] weights, int size, FenwickTree tree) {
+        assertEquals(size, tree.size());
+        long sum = 0;
+        for (int i = 1; i <= size; i++) {
+            assertEquals("weight " + i, weights[i], tree.get(i));
+            sum += weights[i];
+            assertEquals("prefix " + i, sum, tree.prefixSum(i));
+        }
+        assertEquals(sum, tree.total());
+    }
+
+    // Reference of find() - linear walk
+    private static int linearFind(long[] weights, int size, long target) {
+        for (int i = 1; i <= size; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void equalWeightsBuild() {
+        for (int size = 0; size <= 70; size++) {
+            long[] weights = new long[size + 1];
+            Arrays.fill(weights, 1, size + 1, 8);
+            assertSameAs(weights, size, new FenwickTree(size, 8));
+        }
+    }
+
+    @Test
+    public void randomUpdatesAndGrowthMatchArray() {
+        RandomSource random = new SplitMixRandomSource(20);
+        long[] weights = new long[5001];
+        int size = 1;
+        Arrays.fill(weights, 1, size + 1, 4);
+        FenwickTree tree = new FenwickTree(size, 4);
+        for (int step = 0; step < 3000; step++) {
+            if (random.nextInt(20) == 0 && size < 5000) {
+                int newSize = Math.min(5000, size + 1 + random.nextInt(300));
+                long weight = random.nextInt(10);
+                Arrays.fill(weights, size + 1, newSize + 1, weight);
+                tree.grow(newSize, weight);
+                size = newSize;
+            } else {
+                int index = 1 + random.nextInt(size);
+                long delta = random.nextInt(64) - weights[index] / 2;
+                weights[index] += delta;
+                tree.add(index, delta);
+            }
+            if (step % 500 == 0) {
+                assertSameAs(weights, size, tree);
+            }
+        }
+        assertSameAs(weights, size, tree);
+        long total = tree.total();
+        for (int i = 0; i < 2000; i++) {
+            long target = (long) (total * (i / 2000.0));
+            assertEquals("target " + target, linearFind(weights, size, target), tree.find(target));
+        }
+        assertEquals(linearFind(weights, size, total - 1), tree.find(total - 1));
+    }
+
+    @Test
+    public void findSkipsZeroWeights() {
+        FenwickTree tree = new FenwickTree(10, 0);
+        tree.add(3, 5);
+        tree.add(9, 1);
+        for (long target = 0; target < 5; target++) {
+            assertEquals(3, tree.find(target));
+        }
+        assertEquals(9, tree.find(5));
+        try {
+            tree.find(6);
+            fail("found past total weight");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void growFromEmpty() {
+        FenwickTree tree = new FenwickTree(0, 1);
+        assertEquals(0, tree.total());
+        tree.grow(1, 2);
+        tree.grow(1000, 3);
+        long[] weights = new long[1001];
+        Arrays.fill(weights, 1, 1001, 3);
+        weights[1] = 2;
+        assertSameAs(weights, 1000, tree);
+    }
+
+    @Test
+    public void outOfRangeIndex() {
+        FenwickTree tree = new FenwickTree(5, 1);
+        int[] invalid = {0, 6, -1};
+        for (int index : invalid) {
+            try {
+                tree.add(index, 1);
+                fail("add at " + index);
+            } catch (IndexOutOfBoundsException ex) {
+                // Expected
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.utils.AllocationCounter;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+import static org.junit.Assert.*;
+
+public class OptionSequencerTest {
+
+    private static final int CORRECT = 1000;
+
+    private static final int BATCH_SIZE = 50;
+
+    private int[] mBatch;
+
+    private int mBatchesRequested;
+
+    private OptionSequencer.RandomWordsProvider mProvider;
+
+    @Before
+    public void setUp() {
+        mBatch = new int[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mBatch[i] = i;
+        }
+        mBatchesRequested = 0;
+        mProvider = new OptionSequencer.RandomWordsProvider() {
+            @Override
+            public int[] getRandomWords() {
+                mBatchesRequested++;
+                return mBatch;
+            }
+        };
+    }
+
+    @Test
+    public void correctAnswerFrequencyIsExactPerBlock() {
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(11), mProvider, 1, 5);
+        sequencer.start(CORRECT, mBatch);
+        for (int block = 0; block < 1000; block++) {
+            int correct = 0;
+            for (int i = 0; i < 5; i++) {
+                if (sequencer.next() == CORRECT) {
+                    correct++;
+                }
+            }
+            assertEquals(1, correct);
+        }
+    }
+
+    @Test
+    public void configurableRatio() {
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(5), mProvider, 3, 10);
+        sequencer.start(CORRECT, mBatch);
+        int correct = 0;
+        int options = 10 * 1000;
+        for (int i = 0; i < options; i++) {
+            if (sequencer.next() == CORRECT) {
+                correct++;
+            }
+        }
+        assertEquals(options * 3 / 10, correct);
+    }
+
+    @Test
+    public void correctAnswerSlotIsUniformInBlock() {
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(7), mProvider, 1, 5);
+        sequencer.start(CORRECT, mBatch);
+        int blocks = 50000;
+        int[] hits = new int[5];
+        for (int block = 0; block < blocks; block++) {
+            for (int i = 0; i < 5; i++) {
+                if (sequencer.next() == CORRECT) {
+                    hits[i]++;
+                }
+            }
+        }
+        for (int hit : hits) {
+            assertEquals(blocks / 5, hit, blocks / 5 * 0.05);
+        }
+    }
+
+    @Test
+    public void everyRandomWordIsShownBeforeNextBatch() {
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(3), mProvider, 1, 5);
+        sequencer.start(CORRECT, mBatch);
+        boolean[] seen = new boolean[BATCH_SIZE];
+        // 50 wrong words make 12 full blocks of 4, remaining 2 are dropped
+        for (int i = 0; i < 12 * 5; i++) {
+            int option = sequencer.next();
+            if (option != CORRECT) {
+                assertFalse("shown twice " + option, seen[option]);
+                seen[option] = true;
+            }
+        }
+        for (int i = 0; i < 48; i++) {
+            assertTrue(seen[i]);
+        }
+        assertEquals(0, mBatchesRequested);
+        sequencer.next();
+        assertEquals(1, mBatchesRequested);
+    }
+
+    @Test
+    public void startDropsPreviousBlock() {
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(9), mProvider, 1, 5);
+        sequencer.start(CORRECT + 1, mBatch);
+        sequencer.next();
+        sequencer.start(CORRECT, mBatch);
+        for (int i = 0; i < 100; i++) {
+            assertNotEquals(CORRECT + 1, sequencer.next());
+        }
+    }
+
+    @Test
+    public void shortBatchesRepeatTheirWords() {
+        for (int size : new int[]{1, 3}) {
+            mBatch = new int[size];
+            for (int i = 0; i < size; i++) {
+                mBatch[i] = i;
+            }
+            OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(size), mProvider, 1, 5);
+            sequencer.start(CORRECT, mBatch);
+            for (int block = 0; block < 100; block++) {
+                int correct = 0;
+                for (int i = 0; i < 5; i++) {
+                    int option = sequencer.next();
+                    if (option == CORRECT) {
+                        correct++;
+                    } else {
+                        assertTrue("not in batch " + option, option >= 0 && option < size);
+                    }
+                }
+                assertEquals(1, correct);
+            }
+        }
+    }
+
+    @Test
+    public void emptyBatchShowsCorrectAnswerUntilWordsArrive() {
+        mBatch = new int[0];
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(17), mProvider, 1, 5);
+        sequencer.start(CORRECT, null);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(CORRECT, sequencer.next());
+        }
+        // Asked again for every block
+        assertEquals(10, mBatchesRequested);
+
+        // Import went on - a full batch fills whole blocks again
+        mBatch = new int[BATCH_SIZE];
+        int correct = 0;
+        for (int i = 0; i < 50; i++) {
+            if (sequencer.next() == CORRECT) {
+                correct++;
+            }
+        }
+        assertEquals(10, correct);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBlockWithoutWrongWords() {
+        new OptionSequencer(new SplitMixRandomSource(1), mProvider, 5, 5);
+    }
+
+    @Test
+    public void nextDoesNotAllocate() {
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        OptionSequencer sequencer = new OptionSequencer(new SplitMixRandomSource(13), mProvider, 1, 5);
+        sequencer.start(CORRECT, mBatch);
+        int calls = 100000;
+        long checksum = 0;
+        // Warm up
+        for (int i = 0; i < 1000; i++) {
+            checksum += sequencer.next();
+        }
+
+        long before = counter.getAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            checksum += sequencer.next();
+        }
+        long allocated = counter.getAllocatedBytes() - before;
+
+        // Allowance for the allocation counter itself
+        assertTrue("checksum " + checksum + ": " + allocated + " bytes", allocated < 1024);
+    }
+}
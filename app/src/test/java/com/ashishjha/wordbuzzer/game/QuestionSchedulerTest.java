@@ -0,0 +1,119 @@
+package com.ashishjha.wordbuzzer.game;
+
+import com.ashishjha.wordbuzzer.model.WordStats;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QuestionSchedulerTest {
+
+    @Test
+    public void answersMoveWordsBetweenBoxes() {
+        QuestionScheduler scheduler = new QuestionScheduler(new SplitMixRandomSource(1), 10);
+        assertEquals(Util.NEW_WORD_BOX, scheduler.getBox(4));
+        scheduler.recordAnswer(4, true);
+        assertEquals(Util.NEW_WORD_BOX + 1, scheduler.getBox(4));
+        scheduler.recordAnswer(4, false);
+        assertEquals(0, scheduler.getBox(4));
+        for (int i = 0; i < 2 * Util.MAX_BOX; i++) {
+            scheduler.recordAnswer(4, true);
+        }
+        assertEquals(Util.MAX_BOX, scheduler.getBox(4));
+        // Outside of dictionary - ignored
+        scheduler.recordAnswer(0, false);
+        scheduler.recordAnswer(11, false);
+    }
+
+    @Test
+    public void pickFrequencyFollowsBoxes() {
+        int wordCount = 100;
+        QuestionScheduler scheduler = new QuestionScheduler(new SplitMixRandomSource(5), wordCount);
+        // Word 1 missed, word 2 mastered, rest new
+        scheduler.recordAnswer(1, false);
+        scheduler.restoreBox(2, Util.MAX_BOX);
+        int[] picks = new int[wordCount + 1];
+        int rounds = 400000;
+        for (int i = 0; i < rounds; i++) {
+            int position = scheduler.nextPosition();
+            assertTrue(position >= 1 && position <= wordCount);
+            picks[position]++;
+        }
+        long total = QuestionScheduler.weightOf(0) + QuestionScheduler.weightOf(Util.MAX_BOX)
+                + (wordCount - 2) * QuestionScheduler.weightOf(Util.NEW_WORD_BOX);
+        assertFrequency(picks[1], rounds, QuestionScheduler.weightOf(0), total);
+        assertFrequency(picks[2], rounds, QuestionScheduler.weightOf(Util.MAX_BOX), total);
+        assertFrequency(picks[50], rounds, QuestionScheduler.weightOf(Util.NEW_WORD_BOX), total);
+        assertTrue(picks[1] > picks[50] && picks[50] > picks[2]);
+    }
+
+    private static void assertFrequency(int picks, int rounds, long weight, long total) {
+        double expected = (double) rounds * weight / total;
+        // Well within 5 standard deviations
+        double tolerance = 5 * Math.sqrt(expected) + 1;
+        assertEquals(expected, picks, tolerance);
+    }
+
+    @Test
+    public void pendingStatsAreBatchedPerWord() {
+        QuestionScheduler scheduler = new QuestionScheduler(new SplitMixRandomSource(2), 50);
+        scheduler.recordAnswer(7, true);
+        scheduler.recordAnswer(7, false);
+        scheduler.recordAnswer(7, true);
+        scheduler.recordAnswer(9, false);
+        assertEquals(4, scheduler.getPendingAnswerCount());
+        List<WordStats> stats = scheduler.takePendingStats();
+        assertEquals(2, stats.size());
+        for (WordStats wordStats : stats) {
+            if (wordStats.getPosition() == 7) {
+                assertEquals(2, wordStats.getCorrectCount());
+                assertEquals(1, wordStats.getWrongCount());
+                assertEquals(1, wordStats.getBox());
+            } else {
+                assertEquals(9, wordStats.getPosition());
+                assertEquals(0, wordStats.getCorrectCount());
+                assertEquals(1, wordStats.getWrongCount());
+                assertEquals(0, wordStats.getBox());
+            }
+        }
+        assertEquals(0, scheduler.getPendingAnswerCount());
+        assertTrue(scheduler.takePendingStats().isEmpty());
+    }
+
+    @Test
+    public void growingDictionaryKeepsBoxes() {
+        QuestionScheduler scheduler = new QuestionScheduler(new SplitMixRandomSource(3), 1000);
+        scheduler.recordAnswer(10, false);
+        scheduler.restoreBox(999, Util.MAX_BOX);
+        scheduler.setWordCount(50000);
+        assertEquals(50000, scheduler.getWordCount());
+        assertEquals(0, scheduler.getBox(10));
+        assertEquals(Util.MAX_BOX, scheduler.getBox(999));
+        assertEquals(Util.NEW_WORD_BOX, scheduler.getBox(50000));
+        boolean pickedNewWord = false;
+        for (int i = 0; i < 1000; i++) {
+            int position = scheduler.nextPosition();
+            assertTrue(position >= 1 && position <= 50000);
+            pickedNewWord |= position > 1000;
+        }
+        assertTrue(pickedNewWord);
+        // Shrinks back (dictionary update) - words past the end are never picked
+        scheduler.setWordCount(20);
+        assertEquals(0, scheduler.getBox(10));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(scheduler.nextPosition() <= 20);
+        }
+    }
+
+    @Test
+    public void emptyDictionary() {
+        QuestionScheduler scheduler = new QuestionScheduler(new SplitMixRandomSource(4), 0);
+        assertEquals(1, scheduler.nextPosition());
+        scheduler.recordAnswer(1, false);
+        assertEquals(0, scheduler.getPendingAnswerCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ashishjha.wordbuzzer.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WordTimelineTest {
+
+    private static final long DURATION = 2000;
+
+    private static WordTimeline startedAt(long now) {
+        WordTimeline timeline = new WordTimeline(DURATION, 4);
+        timeline.start(now);
+        return timeline;
+    }
+
+    @Test
+    public void lateFramesDoNotDelayLaterWords() {
+        WordTimeline timeline = startedAt(1000);
+        assertEquals(1000, timeline.scheduleWord(10, 1000));
+        // Every word end is noticed a frame or two late - slots stay 2 seconds apart
+        assertEquals(3000, timeline.scheduleWord(11, 3016));
+        assertEquals(5000, timeline.scheduleWord(12, 5033));
+        assertEquals(7000, timeline.scheduleWord(13, 7016));
+        assertEquals(0, timeline.getSkippedSlots());
+        assertEquals(33, timeline.getMaxLateMillis());
+    }
+
+    @Test
+    public void stallCompressesOrSkipsWords() {
+        WordTimeline timeline = startedAt(0);
+        timeline.scheduleWord(10, 0);
+        // Stall of 700 ms - word 11 shown for the rest of its slot
+        assertEquals(2000, timeline.scheduleWord(11, 2700));
+        assertEquals(0, timeline.getSkippedSlots());
+        // Stall of 1500 ms - rest of slot too short, word 12 waits for the next one
+        assertEquals(6000, timeline.scheduleWord(12, 5500));
+        assertEquals(1, timeline.getSkippedSlots());
+        // Stall over several slots
+        assertEquals(14000, timeline.scheduleWord(13, 14100));
+        assertEquals(4, timeline.getSkippedSlots());
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(5800));
+        assertEquals(12, timeline.getWordAt(6000));
+    }
+
+    @Test
+    public void buzzIsJudgedByWordVisibleAtPressTime() {
+        WordTimeline timeline = startedAt(0);
+        timeline.scheduleWord(10, 0);
+        // Word 11 replaces word 10 a frame after its slot ended
+        timeline.scheduleWord(11, 2016);
+        assertEquals(10, timeline.getWordAt(1999));
+        assertEquals(10, timeline.getWordAt(2010));
+        assertEquals(11, timeline.getWordAt(2016));
+        assertEquals(11, timeline.getWordAt(3999));
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(4000));
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(-1));
+
+        // Answer shown - word taken off before end of its slot
+        timeline.stop(2500);
+        assertEquals(11, timeline.getWordAt(2499));
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(2500));
+    }
+
+    @Test
+    public void keepsOnlyRecentWords() {
+        WordTimeline timeline = startedAt(0);
+        for (int i = 0; i < 6; i++) {
+            timeline.scheduleWord(100 + i, i * DURATION);
+        }
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(DURATION));
+        assertEquals(102, timeline.getWordAt(2 * DURATION));
+        assertEquals(105, timeline.getWordAt(5 * DURATION + 1));
+
+        // Next round starts from a clean history
+        timeline.start(20000);
+        assertEquals(WordTimeline.NO_WORD, timeline.getWordAt(5 * DURATION + 1));
+        assertEquals(20000, timeline.scheduleWord(7, 20000));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsWordsBeforeStart() {
+        new WordTimeline(DURATION, 4).scheduleWord(1, 0);
+    }
+}
@@ -0,0 +1,250 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import com.ashishjha.wordbuzzer.model.LanguagePair;
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.AllocationCounter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DictionaryJsonParserTest {
+
+    private static List<Translation> parse(String json) throws IOException {
+        return parse(json.getBytes("UTF-8"));
+    }
+
+    private static List<Translation> parse(byte[] json) throws IOException {
+        DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+        List<Translation> translations = new ArrayList<>();
+        Translation translation = new Translation(null, null);
+        while (parser.next(translation)) {
+            translations.add(new Translation(translation.getWordInLanguageOne(), translation.getWordInLanguageTwo()));
+        }
+        // Stays at end
+        assertFalse(parser.next(translation));
+        return translations;
+    }
+
+    private static void assertTranslation(Translation translation, String one, String two) {
+        assertEquals(one, translation.getWordInLanguageOne());
+        assertEquals(two, translation.getWordInLanguageTwo());
+    }
+
+    private static void assertMalformed(String json) {
+        try {
+            parse(json);
+            fail("Accepted " + json);
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains(" at byte "));
+        }
+    }
+
+    @Test
+    public void dictionaryFormat() throws IOException {
+        List<Translation> translations = parse("[{\"text_eng\":\"primary school\",\"text_spa\":\"escuela primaria\"},"
+                + "{\"text_eng\":\"teacher\",\"text_spa\":\"profesor / profesora\"}]");
+        assertEquals(2, translations.size());
+        assertTranslation(translations.get(0), "primary school", "escuela primaria");
+        assertTranslation(translations.get(1), "teacher", "profesor / profesora");
+    }
+
+    @Test
+    public void keysOfLanguagePair() throws IOException {
+        byte[] json = ("[{\"text_eng\":\"teacher\",\"text_fra\":\"professeur\",\"text_spa\":\"profesor\"},"
+                + "{\"text_fra\":\"élève\",\"text_eng\":\"pupil\"}]").getBytes("UTF-8");
+        DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json), LanguagePair.of("eng", "fra"));
+        Translation translation = new Translation(null, null);
+        assertTrue(parser.next(translation));
+        assertTranslation(translation, "teacher", "professeur");
+        assertTrue(parser.next(translation));
+        assertTranslation(translation, "pupil", "élève");
+        assertFalse(parser.next(translation));
+        // Reversed pair reads the same file the other way round
+        parser = new DictionaryJsonParser(new ByteArrayInputStream(json), LanguagePair.of("fra", "eng"));
+        assertTrue(parser.next(translation));
+        assertTranslation(translation, "professeur", "teacher");
+    }
+
+    @Test
+    public void emptyArrayAndObject() throws IOException {
+        assertEquals(0, parse("[]").size());
+        assertEquals(0, parse(" \n[ \t]\r\n").size());
+        List<Translation> translations = parse("[{}]");
+        assertEquals(1, translations.size());
+        assertTranslation(translations.get(0), null, null);
+    }
+
+    @Test
+    public void whitespaceAndKeyOrder() throws IOException {
+        List<Translation> translations = parse("\n[\n  {\n    \"text_spa\" : \"hola\" ,\n    \"text_eng\"\t:\t\"hello\"\n  }\n]\n");
+        assertTranslation(translations.get(0), "hello", "hola");
+    }
+
+    @Test
+    public void escapes() throws IOException {
+        List<Translation> translations = parse("[{\"text_eng\":\"say \\\"hi\\\"\\\\\\/\\b\\f\\n\\r\\t\","
+                + "\"text_spa\":\"\\u00f1and\\u00FA \\ud83d\\ude00\"}]");
+        assertTranslation(translations.get(0), "say \"hi\"\\/\b\f\n\r\t", "ñandú 😀");
+    }
+
+    @Test
+    public void multiByteUtf8() throws IOException {
+        List<Translation> translations = parse("[{\"text_eng\":\"naïve café\",\"text_spa\":\"año 日本 😀\"}]");
+        assertTranslation(translations.get(0), "naïve café", "año 日本 😀");
+    }
+
+    @Test
+    public void malformedUtf8IsReplaced() throws IOException {
+        byte[] json = "[{\"text_eng\":\"a#b\",\"text_spa\":\"c##\"}]".getBytes("UTF-8");
+        // Lone continuation byte, then a truncated 3 byte sequence followed by a quote
+        json[15] = (byte) 0x80;
+        json[32] = (byte) 0xe6;
+        json[33] = (byte) 0x97;
+        List<Translation> translations = parse(json);
+        assertTranslation(translations.get(0), "a\ufffdb", "c\ufffd");
+    }
+
+    @Test
+    public void unknownKeysAreSkipped() throws IOException {
+        List<Translation> translations = parse("[{\"id\":12,\"text_eng\":\"dog\",\"tags\":[\"animal\",{\"x\":[1,2,{}]}],"
+                + "\"meta\":{\"text_spa\":\"not this one\",\"q\":\"}]\\\"\"},\"ok\":true,\"no\":null,\"f\":-1.5e3,"
+                + "\"text_spa\":\"perro\",\"text_eng_extra\":\"x\",\"text\":\"y\"}]");
+        assertEquals(1, translations.size());
+        assertTranslation(translations.get(0), "dog", "perro");
+    }
+
+    @Test
+    public void escapedKeyMatches() throws IOException {
+        List<Translation> translations = parse("[{\"text\\u005feng\":\"cat\",\"text_sp\\u0061\":\"gato\"}]");
+        assertTranslation(translations.get(0), "cat", "gato");
+    }
+
+    @Test
+    public void missingAndNullWords() throws IOException {
+        List<Translation> translations = parse("[{\"text_eng\":\"alone\"},{\"text_eng\":null,\"text_spa\":\"solo\"}]");
+        assertTranslation(translations.get(0), "alone", null);
+        assertTranslation(translations.get(1), null, "solo");
+    }
+
+    @Test
+    public void numbersAndLiteralsAsText() throws IOException {
+        List<Translation> translations = parse("[{\"text_eng\":42,\"text_spa\":-0.5}]");
+        assertTranslation(translations.get(0), "42", "-0.5");
+    }
+
+    @Test
+    public void duplicateKeyLastWins() throws IOException {
+        assertTranslation(parse("[{\"text_eng\":\"a\",\"text_eng\":\"b\",\"text_spa\":\"c\"}]").get(0), "b", "c");
+    }
+
+    @Test
+    public void byteOrderMark() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xef);
+        out.write(0xbb);
+        out.write(0xbf);
+        out.write("[{\"text_eng\":\"bom\",\"text_spa\":\"bom\"}]".getBytes("UTF-8"));
+        assertTranslation(parse(out.toByteArray()).get(0), "bom", "bom");
+    }
+
+    @Test
+    public void longValuesAndKeys() throws IOException {
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        StringBuilder longKey = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longKey.append('k');
+        }
+        List<Translation> translations = parse("[{\"" + longKey + "\":\"x\",\"text_eng\":\"" + longWord
+                + "\",\"text_spa\":\"ñ" + longWord + "\"}]");
+        assertTranslation(translations.get(0), longWord.toString(), "ñ" + longWord);
+    }
+
+    @Test
+    public void readsAcrossBufferBoundaries() throws IOException {
+        // Tiny reads make every token and multi-byte character straddle a refill
+        final byte[] json = buildDictionary(500);
+        InputStream trickle = new ByteArrayInputStream(json) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        DictionaryJsonParser parser = new DictionaryJsonParser(trickle);
+        Translation translation = new Translation(null, null);
+        int count = 0;
+        while (parser.next(translation)) {
+            count++;
+            assertTranslation(translation, "english word " + count, "palabra española " + count + " 日本");
+        }
+        assertEquals(500, count);
+    }
+
+    @Test
+    public void malformedInput() {
+        assertMalformed("");
+        assertMalformed("{}");
+        assertMalformed("[");
+        assertMalformed("[{]");
+        assertMalformed("[{\"text_eng\":\"a\"}");
+        assertMalformed("[{\"text_eng\":\"a\"},]");
+        assertMalformed("[{\"text_eng\":\"a\"} {\"text_eng\":\"b\"}]");
+        assertMalformed("[{\"text_eng\" \"a\"}]");
+        assertMalformed("[{\"text_eng\":\"a}]");
+        assertMalformed("[{\"text_eng\":\"\\x\"}]");
+        assertMalformed("[{\"text_eng\":\"\\u12G4\"}]");
+        assertMalformed("[{\"text_eng\":[\"a\"]}]");
+        assertMalformed("[{\"text_eng\":nul}]");
+        assertMalformed("[{\"other\":[1,2}]");
+        assertMalformed("[{\"other\":}]");
+        assertMalformed("[{text_eng:\"a\"}]");
+        assertMalformed("[] []");
+    }
+
+    @Test
+    public void allocatesOnlyValueStrings() throws IOException {
+        int words = 100000;
+        byte[] json = buildDictionary(words);
+        Translation translation = new Translation(null, null);
+        // Warm up
+        for (int i = 0; i < 3; i++) {
+            DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+            while (parser.next(translation)) {
+            }
+        }
+
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        long before = counter.getAllocatedBytes();
+        DictionaryJsonParser parser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+        long valueChars = 0;
+        int count = 0;
+        while (parser.next(translation)) {
+            valueChars += translation.getWordInLanguageOne().length() + translation.getWordInLanguageTwo().length();
+            count++;
+        }
+        long allocated = counter.getAllocatedBytes() - before;
+        assertEquals(words, count);
+        // Only the two value Strings are allocated - 2 x (String + backing array) plus the text itself
+        assertTrue(allocated / count + " bytes per translation", allocated / count < 2 * 64 + 2 * valueChars / count);
+    }
+
+    private static byte[] buildDictionary(int words) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            json.append("  {\"text_eng\": \"english word ").append(i)
+                    .append("\", \"text_spa\": \"palabra española ").append(i).append(" 日本\"}");
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,198 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ImportPipelineTest {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    // Synthetic dictionary - ~200k translations, ~8 MB of text
+    private static final int WORD_COUNT = 200000;
+
+    // Generates translations like words.json entries, counts how far the parser got
+    private static class SyntheticSource implements ImportPipeline.TranslationSource {
+
+        final int mCount;
+
+        final AtomicInteger mProduced = new AtomicInteger();
+
+        final IdentityHashMap<Translation, Boolean> mRecycled = new IdentityHashMap<>();
+
+        SyntheticSource(int count) {
+            mCount = count;
+        }
+
+        @Override
+        public boolean next(Translation translation) throws IOException {
+            int pos = mProduced.get() + 1;
+            if (pos > mCount) {
+                return false;
+            }
+            mRecycled.put(translation, Boolean.TRUE);
+            translation.set("english word number " + pos, "palabra española número " + pos);
+            mProduced.incrementAndGet();
+            return true;
+        }
+    }
+
+    // Checks positions and content, encodes every word like a DB / store write would
+    private static class CheckingWriter implements ImportPipeline.BatchWriter {
+
+        final ByteArrayOutputStream mOut = new ByteArrayOutputStream();
+
+        int mNextPos = 1;
+
+        SyntheticSource mSource;
+
+        int mMaxAhead;
+
+        @Override
+        public void write(List<Translation> batch, int startPos) throws IOException {
+            assertEquals(mNextPos, startPos);
+            for (Translation translation : batch) {
+                assertEquals("english word number " + mNextPos, translation.getWordInLanguageOne());
+                assertEquals("palabra española número " + mNextPos, translation.getWordInLanguageTwo());
+                mOut.write(translation.getWordInLanguageOne().getBytes("UTF-8"));
+                mOut.write(translation.getWordInLanguageTwo().getBytes("UTF-8"));
+                mNextPos++;
+            }
+            if (mSource != null) {
+                mMaxAhead = Math.max(mMaxAhead, mSource.mProduced.get() - (mNextPos - 1));
+            }
+        }
+    }
+
+    @Test
+    public void writesEveryTranslationInOrder() throws IOException {
+        SyntheticSource source = new SyntheticSource(WORD_COUNT);
+        CheckingWriter writer = new CheckingWriter();
+        writer.mSource = source;
+        ImportPipeline pipeline = new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY);
+        assertEquals(WORD_COUNT, pipeline.run(source, writer));
+        assertEquals(WORD_COUNT + 1, writer.mNextPos);
+        // Only the preallocated batches were ever filled
+        assertEquals((QUEUE_CAPACITY + 2) * BATCH_SIZE, source.mRecycled.size());
+    }
+
+    @Test
+    public void slowWriterBoundsParser() throws IOException {
+        SyntheticSource source = new SyntheticSource(20 * BATCH_SIZE);
+        CheckingWriter writer = new CheckingWriter() {
+            @Override
+            public void write(List<Translation> batch, int startPos) throws IOException {
+                super.write(batch, startPos);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+        };
+        writer.mSource = source;
+        new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(source, writer);
+        assertTrue(writer.mMaxAhead > 0);
+        // Queued batches plus the one being parsed
+        assertTrue("parser ran " + writer.mMaxAhead + " ahead", writer.mMaxAhead <= (QUEUE_CAPACITY + 1) * BATCH_SIZE);
+    }
+
+    @Test
+    public void partialLastBatch() throws IOException {
+        SyntheticSource source = new SyntheticSource(2 * BATCH_SIZE + 7);
+        CheckingWriter writer = new CheckingWriter();
+        assertEquals(2 * BATCH_SIZE + 7, new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(source, writer));
+        assertEquals(2 * BATCH_SIZE + 8, writer.mNextPos);
+    }
+
+    @Test
+    public void emptySource() throws IOException {
+        CheckingWriter writer = new CheckingWriter();
+        assertEquals(0, new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(new SyntheticSource(0), writer));
+        assertEquals(1, writer.mNextPos);
+    }
+
+    @Test
+    public void parserFailureIsRethrown() {
+        ImportPipeline.TranslationSource source = new SyntheticSource(WORD_COUNT) {
+            @Override
+            public boolean next(Translation translation) throws IOException {
+                if (mProduced.get() == 3 * BATCH_SIZE + 10) {
+                    throw new IOException("Malformed JSON");
+                }
+                return super.next(translation);
+            }
+        };
+        try {
+            new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(source, new CheckingWriter());
+            fail();
+        } catch (IOException ex) {
+            assertEquals("Malformed JSON", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void writerFailureStopsParser() throws InterruptedException {
+        SyntheticSource source = new SyntheticSource(WORD_COUNT);
+        ImportPipeline.BatchWriter writer = new ImportPipeline.BatchWriter() {
+            @Override
+            public void write(List<Translation> batch, int startPos) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        try {
+            new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(source, writer);
+            fail();
+        } catch (IOException ex) {
+            assertEquals("disk full", ex.getMessage());
+        }
+        // run() returns only after parser thread is gone, and parser never got far
+        assertTrue(source.mProduced.get() <= (QUEUE_CAPACITY + 2) * BATCH_SIZE);
+    }
+
+    @Test
+    public void parserFillsNextBatchWhileWriterWrites() throws IOException {
+        final CountDownLatch nextBatchParsed = new CountDownLatch(1);
+        SyntheticSource source = new SyntheticSource(10 * BATCH_SIZE) {
+            @Override
+            public boolean next(Translation translation) throws IOException {
+                boolean hasNext = super.next(translation);
+                if (mProduced.get() == 2 * BATCH_SIZE) {
+                    nextBatchParsed.countDown();
+                }
+                return hasNext;
+            }
+        };
+        final AtomicBoolean isOverlapped = new AtomicBoolean();
+        ImportPipeline.BatchWriter writer = new ImportPipeline.BatchWriter() {
+            @Override
+            public void write(List<Translation> batch, int startPos) throws IOException {
+                if (startPos != 1) {
+                    return;
+                }
+                // Still inside the first write - a pipeline parses the second batch meanwhile,
+                // alternating stages would wait here until the timeout
+                try {
+                    isOverlapped.set(nextBatchParsed.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+        };
+        assertEquals(10 * BATCH_SIZE, new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY).run(source, writer));
+        assertTrue(isOverlapped.get());
+    }
+}
@@ -0,0 +1,205 @@
+package com.ashishjha.wordbuzzer.loader;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/*
+* Kills the import (parser or writer, in the middle of a batch or between batches) at random points
+* and resumes it from the committed checkpoint, the same way WordLoader does on the next launch.
+* Final DB must be identical to an uninterrupted import.
+* */
+public class ResumableImportTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int WORD_COUNT = 5000;
+
+    // Thrown in place of the process dying
+    private static class ProcessDeath extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /*
+    * Stands in for the DB - a batch and the checkpoint are committed together or not at all,
+    * like WordBuzzerDataSource.insertTranslations(batch, startPos, checkpointSource).
+    * */
+    private static class TransactionalTable implements ImportPipeline.BatchWriter {
+
+        final TreeMap<Integer, String> mRows = new TreeMap<>();
+
+        // First position not committed, 0 - no checkpoint
+        int mNextPosition;
+
+        // Rows still written before the process dies, -1 - never dies
+        int mRowsBeforeDeath = -1;
+
+        @Override
+        public void write(List<Translation> batch, int startPos) throws IOException {
+            assertEquals("batch does not start at checkpoint", Math.max(1, mNextPosition), startPos);
+            TreeMap<Integer, String> pending = new TreeMap<>();
+            int pos = startPos;
+            for (Translation translation : batch) {
+                if (mRowsBeforeDeath == 0) {
+                    // Transaction is rolled back
+                    throw new ProcessDeath();
+                }
+                if (mRowsBeforeDeath > 0) {
+                    mRowsBeforeDeath--;
+                }
+                if (translation.getWordInLanguageOne() != null && translation.getWordInLanguageTwo() != null) {
+                    pending.put(pos, translation.getWordInLanguageOne() + "=" + translation.getWordInLanguageTwo());
+                }
+                pos++;
+            }
+            // Commit
+            mRows.putAll(pending);
+            mNextPosition = pos;
+        }
+    }
+
+    // Source that dies after a number of translations
+    private static class DyingSource implements ImportPipeline.TranslationSource {
+
+        final DictionaryJsonParser mParser;
+
+        int mTranslationsBeforeDeath;
+
+        DyingSource(byte[] json, int translationsBeforeDeath) {
+            mParser = new DictionaryJsonParser(new ByteArrayInputStream(json));
+            mTranslationsBeforeDeath = translationsBeforeDeath;
+        }
+
+        @Override
+        public boolean next(Translation translation) throws IOException {
+            if (mTranslationsBeforeDeath-- == 0) {
+                throw new ProcessDeath();
+            }
+            return mParser.next(translation);
+        }
+    }
+
+    // One launch - resumes from checkpoint (or starts over without one), true once the import is complete
+    private static boolean launch(TransactionalTable table, ImportPipeline.TranslationSource source) throws IOException {
+        int startPos = 1;
+        if (table.mNextPosition == 0) {
+            table.mRows.clear();
+        } else {
+            startPos = table.mNextPosition;
+        }
+        try {
+            int count = new ImportPipeline(BATCH_SIZE, Util.IMPORT_QUEUE_CAPACITY).run(source, table, startPos);
+            assertTrue(startPos - 1 + count >= table.mNextPosition - 1);
+            return true;
+        } catch (ProcessDeath ex) {
+            return false;
+        } catch (RuntimeException ex) {
+            if (ex.getCause() instanceof ProcessDeath) {
+                // Parser thread died
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private static byte[] buildDictionary(int words) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= words; i++) {
+            if (i % 97 == 0) {
+                // Consumes a position without a row
+                json.append("  {\"text_eng\": \"lonely ").append(i).append("\"}");
+            } else {
+                json.append("  {\"text_eng\": \"english ").append(i)
+                        .append("\", \"text_spa\": \"español ").append(i).append("\"}");
+            }
+            json.append(i == words ? "\n" : ",\n");
+        }
+        return json.append("]").toString().getBytes("UTF-8");
+    }
+
+    @Test
+    public void killedImportsEndIdentical() throws IOException {
+        byte[] json = buildDictionary(WORD_COUNT);
+        TransactionalTable expected = new TransactionalTable();
+        assertTrue(launch(expected, new DictionaryJsonParser(new ByteArrayInputStream(json))));
+        assertEquals(WORD_COUNT + 1, expected.mNextPosition);
+
+        SplitMixRandomSource random = new SplitMixRandomSource(17);
+        for (int run = 0; run < 30; run++) {
+            TransactionalTable table = new TransactionalTable();
+            int launches = 0;
+            boolean isComplete = false;
+            while (!isComplete) {
+                launches++;
+                int lastCheckpoint = table.mNextPosition;
+                ImportPipeline.TranslationSource source;
+                if (launches > 20) {
+                    // Enough deaths - let it finish
+                    source = new DictionaryJsonParser(new ByteArrayInputStream(json));
+                    table.mRowsBeforeDeath = -1;
+                } else if (Util.getRandomNumber(random, 0, 1) == 0) {
+                    source = new DyingSource(json, Util.getRandomNumber(random, 0, WORD_COUNT + 10));
+                    table.mRowsBeforeDeath = -1;
+                } else {
+                    source = new DictionaryJsonParser(new ByteArrayInputStream(json));
+                    table.mRowsBeforeDeath = Util.getRandomNumber(random, 0, WORD_COUNT / 2);
+                }
+                isComplete = launch(table, source);
+                // Checkpoint never goes back and always ends a batch (or the dictionary)
+                assertTrue(table.mNextPosition >= lastCheckpoint);
+                assertTrue(table.mNextPosition == 0 || (table.mNextPosition - 1) % BATCH_SIZE == 0
+                        || table.mNextPosition == WORD_COUNT + 1);
+                // Committed rows are exactly the ones before the checkpoint
+                if (table.mNextPosition > 0) {
+                    assertEquals(expected.mRows.headMap(table.mNextPosition), table.mRows);
+                }
+            }
+            assertEquals(expected.mRows, table.mRows);
+            assertEquals(expected.mNextPosition, table.mNextPosition);
+        }
+    }
+
+    @Test
+    public void resumeSkipsCommittedTranslations() throws IOException {
+        byte[] json = buildDictionary(1000);
+        TransactionalTable table = new TransactionalTable();
+        table.mRowsBeforeDeath = 450;
+        assertFalse(launch(table, new DictionaryJsonParser(new ByteArrayInputStream(json))));
+        assertEquals(401, table.mNextPosition);
+
+        final int[] written = new int[1];
+        ImportPipeline.BatchWriter counting = new ImportPipeline.BatchWriter() {
+            @Override
+            public void write(List<Translation> batch, int startPos) throws IOException {
+                assertTrue(startPos >= 401);
+                written[0] += batch.size();
+            }
+        };
+        int count = new ImportPipeline(BATCH_SIZE, Util.IMPORT_QUEUE_CAPACITY)
+                .run(new DictionaryJsonParser(new ByteArrayInputStream(json)), counting, table.mNextPosition);
+        assertEquals(600, count);
+        assertEquals(600, written[0]);
+    }
+
+    @Test
+    public void checkpointPastEndWritesNothing() throws IOException {
+        byte[] json = buildDictionary(10);
+        ImportPipeline.BatchWriter failing = new ImportPipeline.BatchWriter() {
+            @Override
+            public void write(List<Translation> batch, int startPos) throws IOException {
+                fail("wrote " + batch.size() + " at " + startPos);
+            }
+        };
+        assertEquals(0, new ImportPipeline(BATCH_SIZE, Util.IMPORT_QUEUE_CAPACITY)
+                .run(new DictionaryJsonParser(new ByteArrayInputStream(json)), failing, 11));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ashishjha.wordbuzzer.model;
+
+import com.ashishjha.wordbuzzer.utils.Util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LanguagePairTest {
+
+    @Test
+    public void defaultPairKeepsItsNames() {
+        LanguagePair pair = LanguagePair.of("eng", "spa");
+        assertSame(LanguagePair.DEFAULT, pair);
+        assertTrue(pair.isDefault());
+        assertEquals(Util.DATABASE_NAME, pair.getTableName());
+        assertEquals(Util.TEXT_ENGLISH, pair.getColumnOne());
+        assertEquals(Util.TEXT_SPA, pair.getColumnTwo());
+        assertEquals(Util.DICTIONARY_JSON_ASSET, pair.getAssetName());
+        assertEquals(Util.TRANSLATION_STORE_FILE, pair.getStoreFileName());
+    }
+
+    @Test
+    public void otherPairsAreNamedAfterTheirLanguages() {
+        LanguagePair pair = LanguagePair.of("eng", "fra");
+        assertFalse(pair.isDefault());
+        assertEquals("eng_fra", pair.getId());
+        assertEquals(Util.DATABASE_NAME + "_eng_fra", pair.getTableName());
+        assertEquals("text_eng", pair.getColumnOne());
+        assertEquals("text_fra", pair.getColumnTwo());
+        assertEquals("words_eng_fra.json", pair.getAssetName());
+        assertEquals("word_buzzer_store_eng_fra.bin", pair.getStoreFileName());
+        assertEquals("eng_fra:words_eng_fra.json@1", pair.getCheckpointSource("words_eng_fra.json@1"));
+        // Reversed pair is another dictionary
+        assertNotEquals(pair, LanguagePair.of("fra", "eng"));
+        assertNotEquals(pair.getTableName(), LanguagePair.of("fra", "eng").getTableName());
+    }
+
+    @Test
+    public void idAndAssetNameRoundTrip() {
+        LanguagePair[] pairs = {LanguagePair.DEFAULT, LanguagePair.of("deu", "ita"), LanguagePair.of("pt", "spa")};
+        for (LanguagePair pair : pairs) {
+            assertEquals(pair, LanguagePair.fromId(pair.getId()));
+            assertEquals(pair.hashCode(), LanguagePair.fromId(pair.getId()).hashCode());
+            assertEquals(pair, LanguagePair.fromAssetName(pair.getAssetName()));
+        }
+        assertSame(LanguagePair.DEFAULT, LanguagePair.fromId("eng_spa"));
+    }
+
+    @Test
+    public void otherAssetsAreNotDictionaries() {
+        String[] assets = {"word_buzzer_db.sqlite", "word_buzzer_store.bin", "words_eng.json", "words_eng_fra.txt",
+                "words_ENG_fra.json", "words_eng_eng.json", "words_eng_fra_deu.json", "images", ""};
+        for (String asset : assets) {
+            assertNull(asset, LanguagePair.fromAssetName(asset));
+        }
+    }
+
+    @Test
+    public void languageCodesAreSafeIdentifiers() {
+        String[][] invalid = {{"eng", "spa; drop table x"}, {"e", "spa"}, {"eng", "Spa"}, {"eng", ""},
+                {null, "spa"}, {"eng", "eng"}, {"eng", "sp_a"}};
+        for (String[] languages : invalid) {
+            try {
+                LanguagePair.of(languages[0], languages[1]);
+                fail("Accepted " + languages[0] + " -> " + languages[1]);
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+        try {
+            LanguagePair.fromId("engspa");
+            fail("Accepted id without separator");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ashishjha.wordbuzzer.sampler;
+
+import com.ashishjha.wordbuzzer.utils.RandomSource;
+import com.ashishjha.wordbuzzer.utils.SplitMixRandomSource;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class UniquePositionSamplerTest {
+
+    @Test
+    public void positionsAreDistinctInRangeAndSkipExcluded() {
+        RandomSource random = new SplitMixRandomSource(7);
+        UniquePositionSampler sampler = new UniquePositionSampler(random);
+        for (int trial = 0; trial < 2000; trial++) {
+            int wordCount = 1 + random.nextInt(300);
+            int count = 1 + random.nextInt(80);
+            int exclude = random.nextInt(wordCount + 2);
+            int n = sampler.sample(wordCount, count, exclude);
+            boolean excludable = exclude >= 1 && exclude <= wordCount;
+            assertEquals(Math.min(count, excludable ? wordCount - 1 : wordCount), n);
+            HashSet<Integer> seen = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                int position = sampler.getPositions()[i];
+                assertTrue("out of range " + position, position >= 1 && position <= wordCount);
+                assertTrue("excluded position returned", position != exclude);
+                assertTrue("duplicate " + position, seen.add(position));
+            }
+        }
+    }
+
+    @Test
+    public void takesWholeDictionaryWhenBatchIsLarger() {
+        UniquePositionSampler sampler = new UniquePositionSampler(new SplitMixRandomSource(1));
+        int n = sampler.sample(10, 50, 4);
+        assertEquals(9, n);
+        HashSet<Integer> seen = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            seen.add(sampler.getPositions()[i]);
+        }
+        assertFalse(seen.contains(4));
+        assertEquals(9, seen.size());
+    }
+
+    @Test
+    public void emptyDictionaryGivesNothing() {
+        UniquePositionSampler sampler = new UniquePositionSampler(new SplitMixRandomSource(1));
+        assertEquals(0, sampler.sample(0, 50, 0));
+        assertEquals(0, sampler.sample(1, 50, 1));
+    }
+
+    @Test
+    public void everyPositionIsEquallyLikely() {
+        int wordCount = 20;
+        int count = 5;
+        int trials = 40000;
+        int[] hits = new int[wordCount + 1];
+        // Slot 0 of every batch must be uniform too - Floyd alone is not
+        int[] firstSlotHits = new int[wordCount + 1];
+        UniquePositionSampler sampler = new UniquePositionSampler(new SplitMixRandomSource(3));
+        for (int trial = 0; trial < trials; trial++) {
+            int n = sampler.sample(wordCount, count, 0);
+            for (int i = 0; i < n; i++) {
+                hits[sampler.getPositions()[i]]++;
+            }
+            firstSlotHits[sampler.getPositions()[0]]++;
+        }
+        double expected = (double) trials * count / wordCount;
+        double expectedFirst = (double) trials / wordCount;
+        for (int position = 1; position <= wordCount; position++) {
+            assertEquals("position " + position, expected, hits[position], expected * 0.05);
+            assertEquals("first slot " + position, expectedFirst, firstSlotHits[position], expectedFirst * 0.12);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ashishjha.wordbuzzer.store;
+
+import com.ashishjha.wordbuzzer.model.Translation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InMemoryTranslationStoreTest {
+
+    private WordTable mWordTable;
+
+    private InMemoryTranslationStore mStore;
+
+    @Before
+    public void setUp() {
+        mWordTable = new WordTable(8, 64);
+        mStore = new InMemoryTranslationStore(mWordTable, 4);
+        mStore.put(1, "teacher", "profesor / profesora");
+        mStore.put(2, "school", "escuela");
+        mStore.put(4, "teacher", "maestro");
+    }
+
+    @Test
+    public void readsTranslationsByPosition() {
+        assertEquals(4, mStore.getWordCount());
+        Translation translation = mStore.getTranslation(2);
+        assertEquals("school", translation.getWordInLanguageOne());
+        assertEquals("escuela", translation.getWordInLanguageTwo());
+        assertEquals("maestro", mStore.getWordInLanguageTwo(4));
+        assertEquals("teacher", mStore.getWordInLanguageOne(1));
+    }
+
+    @Test
+    public void equalWordsShareHandle() {
+        assertEquals(mStore.getWordHandleInLanguageOne(1), mStore.getWordHandleInLanguageOne(4));
+        assertEquals(5, mWordTable.getWordCount());
+        assertEquals(mWordTable.intern("escuela"), mStore.getWordHandleInLanguageTwo(2));
+    }
+
+    @Test
+    public void missingPositions() {
+        assertNull(mStore.getTranslation(3));
+        assertNull(mStore.getWordInLanguageOne(0));
+        assertNull(mStore.getWordInLanguageTwo(5));
+        assertEquals(InMemoryTranslationStore.NO_WORD, mStore.getWordHandleInLanguageTwo(3));
+        // Outside the store - ignored
+        mStore.put(5, "five", "cinco");
+        assertNull(mStore.getWordInLanguageOne(5));
+    }
+
+    @Test
+    public void fitsInMemoryBudget() {
+        long maxMemory = 64L * 1024 * 1024;
+        // 10% of 64 MB is ~104857 translations of ESTIMATED_BYTES_PER_TRANSLATION
+        assertTrue(InMemoryTranslationStore.fitsInMemory(100000, maxMemory, 10));
+        assertFalse(InMemoryTranslationStore.fitsInMemory(110000, maxMemory, 10));
+        assertTrue(InMemoryTranslationStore.fitsInMemory(0, maxMemory, 0));
+    }
+}
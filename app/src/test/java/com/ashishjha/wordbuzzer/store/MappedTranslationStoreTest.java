@@ -0,0 +1,136 @@
+package com.ashishjha.wordbuzzer.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class MappedTranslationStoreTest {
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("translation_store", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void readsWordsByPosition() throws Exception {
+        TranslationStoreWriter writer = new TranslationStoreWriter(mFile);
+        writer.add("primary school", "escuela primaria");
+        writer.add("teacher", "profesor / profesora");
+        writer.add("year", "año");
+        writer.finish();
+        writer.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertEquals(3, store.getWordCount());
+        assertEquals("primary school", store.getWordInLanguageOne(1));
+        assertEquals("escuela primaria", store.getWordInLanguageTwo(1));
+        assertEquals("teacher", store.getWordInLanguageOne(2));
+        assertEquals("profesor / profesora", store.getWordInLanguageTwo(2));
+        assertEquals("año", store.getWordInLanguageTwo(3));
+        store.close();
+    }
+
+    @Test
+    public void missingTranslationAndOutOfRangePositionReturnNull() throws Exception {
+        TranslationStoreWriter writer = new TranslationStoreWriter(mFile);
+        writer.add("bell", null);
+        writer.add("class", "curso");
+        writer.finish();
+        writer.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertNull(store.getWordInLanguageOne(1));
+        assertNull(store.getWordInLanguageTwo(1));
+        assertEquals("curso", store.getWordInLanguageTwo(2));
+        assertNull(store.getWordInLanguageOne(0));
+        assertNull(store.getWordInLanguageTwo(3));
+    }
+
+    @Test
+    public void emptyWordIsNotMissingTranslation() throws Exception {
+        TranslationStoreWriter writer = new TranslationStoreWriter(mFile);
+        writer.add("", "vacío");
+        writer.add("bell", null);
+        writer.add("school", "");
+        writer.finish();
+        writer.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertEquals("", store.getWordInLanguageOne(1));
+        assertEquals("vacío", store.getWordInLanguageTwo(1));
+        assertNull(store.getTranslation(2));
+        assertEquals("school", store.getTranslation(3).getWordInLanguageOne());
+        assertEquals("", store.getTranslation(3).getWordInLanguageTwo());
+    }
+
+    @Test
+    public void readsVersionOneStore() throws Exception {
+        // Version 1 has no missing flag - position 1 without translation, position 2 "a" / "b"
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(mFile));
+        out.writeInt(TranslationStoreFormat.MAGIC);
+        out.writeInt(1);
+        out.writeInt(2);
+        for (int offset : new int[]{0, 0, 0, 1, 2}) {
+            out.writeInt(offset);
+        }
+        out.writeBytes("ab");
+        out.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertNull(store.getTranslation(1));
+        assertEquals("a", store.getWordInLanguageOne(2));
+        assertEquals("b", store.getWordInLanguageTwo(2));
+    }
+
+    @Test
+    public void largeStoreIsIndexAddressable() throws Exception {
+        int count = 100000;
+        TranslationStoreWriter writer = new TranslationStoreWriter(mFile);
+        for (int i = 1; i <= count; i++) {
+            writer.add("word " + i, "palabra " + i);
+        }
+        writer.finish();
+        writer.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertEquals(count, store.getWordCount());
+        assertEquals("word 1", store.getWordInLanguageOne(1));
+        assertEquals("palabra 54321", store.getWordInLanguageTwo(54321));
+        assertEquals("word " + count, store.getWordInLanguageOne(count));
+    }
+
+    @Test
+    public void abandonedWriterKeepsPreviousStore() throws Exception {
+        TranslationStoreWriter writer = new TranslationStoreWriter(mFile);
+        writer.add("pupil", "alumno / alumna");
+        writer.finish();
+        writer.close();
+
+        writer = new TranslationStoreWriter(mFile);
+        writer.add("holidays", "vacaciones");
+        writer.close();
+
+        MappedTranslationStore store = new MappedTranslationStore(mFile);
+        assertEquals(1, store.getWordCount());
+        assertEquals("pupil", store.getWordInLanguageOne(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsFileWhichIsNotAStore() throws Exception {
+        new MappedTranslationStore(mFile);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ashishjha.wordbuzzer.store;
+
+import com.ashishjha.wordbuzzer.utils.AllocationCounter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WordTableTest {
+
+    @Test
+    public void equalWordsShareHandle() {
+        WordTable table = new WordTable(4, 16);
+        int hola = table.intern("hola");
+        int adios = table.intern("adiós");
+        assertNotEquals(hola, adios);
+        assertEquals(hola, table.intern(new String("hola")));
+        assertEquals(adios, table.intern("adi" + "ós"));
+        assertEquals(2, table.getWordCount());
+    }
+
+    @Test
+    public void wordsSurviveGrowth() {
+        WordTable table = new WordTable(4, 16);
+        int[] handles = new int[10000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = table.intern("palabra" + i);
+        }
+        assertEquals(handles.length, table.getWordCount());
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals("palabra" + i, table.getWord(handles[i]));
+            assertEquals(handles[i], table.intern("palabra" + i));
+        }
+    }
+
+    @Test
+    public void encodesLikeString() {
+        WordTable table = new WordTable(4, 16);
+        String[] words = {"", "año", "straße", "日本語", "😀 emoji", "aࠀ߿\u0080\u007f"};
+        for (String word : words) {
+            assertEquals(word, table.getWord(table.intern(word)));
+        }
+    }
+
+    @Test
+    public void decodesIntoBufferLikeString() {
+        WordTable table = new WordTable(4, 16);
+        String[] words = {"", "año", "straße", "日本語", "😀 emoji", "aࠀ߿\u0080\u007f", "lone \ud83d surrogate"};
+        char[] buffer = new char[0];
+        for (String word : words) {
+            int handle = table.intern(word);
+            if (table.getMaxChars(handle) > buffer.length) {
+                buffer = new char[table.getMaxChars(handle)];
+            }
+            int length = table.getChars(handle, buffer);
+            assertEquals(table.getWord(handle), new String(buffer, 0, length));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsUnknownHandle() {
+        new WordTable(4, 16).getWord(0);
+    }
+
+    @Test
+    public void footprintIsFractionOfStrings() {
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        int words = 100000;
+        // Distinct words of ~7 letters on average, like bundled words.json
+        char[][] source = new char[words][];
+        long letters = 0;
+        for (int i = 0; i < words; i++) {
+            source[i] = (Integer.toString(i, 36) + "abcdef".substring(i % 6)).toCharArray();
+            letters += source[i].length;
+        }
+
+        // Same words as decoded from a cursor - one String per word, held in an array
+        long before = counter.getAllocatedBytes();
+        String[] strings = new String[words];
+        for (int i = 0; i < words; i++) {
+            strings[i] = new String(source[i]);
+        }
+        long stringBytes = counter.getAllocatedBytes() - before;
+
+        WordTable table = new WordTable(words, (int) letters);
+        int[] handles = new int[words];
+        for (int i = 0; i < words; i++) {
+            handles[i] = table.intern(strings[i]);
+        }
+        long tableBytes = table.getFootprintBytes() + 4L * words;
+
+        assertEquals(words, table.getWordCount());
+        assertTrue("String[] " + stringBytes + " bytes, WordTable + handles " + tableBytes + " bytes",
+                tableBytes * 2 < stringBytes);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ashishjha.wordbuzzer.utils;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+* Bytes allocated by the thread of a test, for tests checking how much a code path allocates.
+* Allocation counters are HotSpot only (com.sun.management.ThreadMXBean) - on other JVMs forCurrentThread()
+* skips the calling test.
+* */
+public class AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean mThreadBean;
+
+    private final long mThreadId;
+
+    private AllocationCounter(com.sun.management.ThreadMXBean threadBean, long threadId) {
+        mThreadBean = threadBean;
+        mThreadId = threadId;
+    }
+
+    public static AllocationCounter forCurrentThread() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Allocation counters are HotSpot only", bean instanceof com.sun.management.ThreadMXBean);
+        return new AllocationCounter((com.sun.management.ThreadMXBean) bean, Thread.currentThread().getId());
+    }
+
+    // Bytes allocated by the thread so far - the difference of two calls is what the code in between allocated
+    public long getAllocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+}
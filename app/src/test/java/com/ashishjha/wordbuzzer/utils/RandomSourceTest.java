@@ -0,0 +1,85 @@
+package com.ashishjha.wordbuzzer.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RandomSourceTest {
+
+    @Test
+    public void sameSeedReplaysSameSequence() {
+        RandomSource first = new SplitMixRandomSource(2016);
+        RandomSource second = new SplitMixRandomSource(2016);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextInt(1000), second.nextInt(1000));
+        }
+    }
+
+    @Test
+    public void randomNumberIncludesBothEnds() {
+        RandomSource random = new SplitMixRandomSource(1);
+        boolean sawFirst = false, sawLast = false;
+        for (int i = 0; i < 10000; i++) {
+            int n = Util.getRandomNumber(random, 1, 10);
+            assertTrue("out of range " + n, n >= 1 && n <= 10);
+            sawFirst |= n == 1;
+            sawLast |= n == 10;
+        }
+        // Last dictionary word must be reachable
+        assertTrue(sawFirst);
+        assertTrue(sawLast);
+    }
+
+    @Test
+    public void singleValueRange() {
+        assertEquals(5, Util.getRandomNumber(5, 5));
+    }
+
+    @Test
+    public void nextIntIsUniform() {
+        RandomSource random = new SplitMixRandomSource(3);
+        int bound = 7;
+        int draws = 70000;
+        int[] hits = new int[bound];
+        for (int i = 0; i < draws; i++) {
+            hits[random.nextInt(bound)]++;
+        }
+        for (int hit : hits) {
+            assertEquals(draws / bound, hit, draws / bound * 0.05);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBound() {
+        new SplitMixRandomSource(1).nextInt(0);
+    }
+
+    @Test
+    public void allocatesLessThanRandomPerCall() {
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        int calls = 100000;
+        long sum = 0;
+        // Warm up both paths (class loading, thread local initialization)
+        for (int i = 0; i < 1000; i++) {
+            sum += new Random().nextInt(100) + Util.getRandomNumber(0, 99);
+        }
+
+        long before = counter.getAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            // Previous implementation of Util.getRandomNumber
+            sum += new Random().nextInt(100);
+        }
+        long perCallRandom = counter.getAllocatedBytes() - before;
+
+        before = counter.getAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            sum += Util.getRandomNumber(0, 99);
+        }
+        long threadLocalSource = counter.getAllocatedBytes() - before;
+
+        assertTrue("checksum " + sum + ": new Random()=" + perCallRandom + " bytes, RandomSource=" + threadLocalSource
+                + " bytes", threadLocalSource * 10 < perCallRandom);
+    }
+}
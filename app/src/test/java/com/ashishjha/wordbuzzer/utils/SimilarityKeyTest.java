@@ -0,0 +1,67 @@
+package com.ashishjha.wordbuzzer.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SimilarityKeyTest {
+
+    @Test
+    public void caseAndAccentsDoNotMatter() {
+        assertEquals(SimilarityKey.of("arbol"), SimilarityKey.of("Árbol"));
+        assertEquals(SimilarityKey.of("nino"), SimilarityKey.of("NIÑO"));
+        // Leading punctuation is not a letter
+        assertEquals(SimilarityKey.of("que"), SimilarityKey.of("¿qué?"));
+    }
+
+    @Test
+    public void sameKeyForSamePrefixAndSimilarLength() {
+        assertEquals(SimilarityKey.of("perro"), SimilarityKey.of("perla"));
+        assertNotEquals(SimilarityKey.of("perro"), SimilarityKey.of("pato"));
+        assertNotEquals(SimilarityKey.of("pe"), SimilarityKey.of("perezosamente"));
+        // Letters only - "la casa" is 6 letters like "casita"
+        assertEquals(SimilarityKey.of("la casa") & 0xffff, SimilarityKey.of("casita") & 0xffff);
+    }
+
+    @Test
+    public void keysSortByPrefixThenLength() {
+        String[] words = {"zorro", "abeja", "perla", "pez", "pato", "perezosamente", "a", "ábaco"};
+        long[] keys = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            keys[i] = SimilarityKey.of(words[i]);
+        }
+        Arrays.sort(keys);
+        long[] expected = {SimilarityKey.of("a"), SimilarityKey.of("abaco"), SimilarityKey.of("abeja"),
+                SimilarityKey.of("pato"), SimilarityKey.of("pez"), SimilarityKey.of("perla"),
+                SimilarityKey.of("perezosamente"), SimilarityKey.of("zorro")};
+        assertArrayEquals(expected, keys);
+    }
+
+    @Test
+    public void firstLetterRange() {
+        long key = SimilarityKey.of("perro");
+        long start = SimilarityKey.firstLetterStart(key);
+        long end = SimilarityKey.firstLetterEnd(key);
+        String[] sameLetter = {"p", "pa", "pzzzzzzzzzzzzzzzzzzzzzzzzzz", "Púa"};
+        for (String word : sameLetter) {
+            long other = SimilarityKey.of(word);
+            assertTrue(word, other >= start && other <= end);
+        }
+        String[] otherLetter = {"o", "ozzzzzzzzzz", "q", "qa"};
+        for (String word : otherLetter) {
+            long other = SimilarityKey.of(word);
+            assertTrue(word, other < start || other > end);
+        }
+    }
+
+    @Test
+    public void wordsWithoutLetters() {
+        assertEquals(0, SimilarityKey.of(""));
+        assertEquals(0, SimilarityKey.of("42 / ?"));
+        assertTrue(SimilarityKey.of("x") > 0);
+        // Letters outside the BMP
+        assertTrue(SimilarityKey.of("𐐀") > 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ashishjha.wordbuzzer.utils;
+
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+
+import static org.junit.Assert.*;
+
+public class TranslationFingerprintTest {
+
+    // Reference - FNV-1a 64 over String.getBytes("UTF-8")
+    private static long reference(String one, String two) throws UnsupportedEncodingException {
+        long hash = -3750763034362895579L;
+        for (byte b : one.getBytes("UTF-8")) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        hash = hash * 0x100000001b3L;
+        for (byte b : two.getBytes("UTF-8")) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Test
+    public void offsetBasisAsSignedLong() {
+        // Used by app/build.gradle, where the hex literal does not fit a long
+        assertEquals(0xcbf29ce484222325L, -3750763034362895579L);
+    }
+
+    @Test
+    public void matchesUtf8Bytes() throws UnsupportedEncodingException {
+        String[][] translations = {
+                {"", ""},
+                {"teacher", "profesor / profesora"},
+                {"naïve café", "año 日本 😀"},
+                {"lone \ud83d surrogate", "end \ude00"},
+                {"߿ࠀ￿", "𐀀"},
+        };
+        for (String[] translation : translations) {
+            assertEquals(translation[0], reference(translation[0], translation[1]),
+                    TranslationFingerprint.of(translation[0], translation[1]));
+        }
+    }
+
+    @Test
+    public void wordBoundaryMatters() {
+        assertNotEquals(TranslationFingerprint.of("ab", "c"), TranslationFingerprint.of("a", "bc"));
+        assertNotEquals(TranslationFingerprint.of("dog", "perro"), TranslationFingerprint.of("perro", "dog"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ashishjha.wordbuzzer.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameStatsTest {
+
+    private static final long FRAME = FrameStats.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    private static final long MS = 1000000;
+
+    @Test
+    public void steadyFramesDropNothing() {
+        FrameStats stats = new FrameStats();
+        long time = 5 * MS;
+        for (int i = 0; i < 120; i++) {
+            // Vsync jitter of a couple of ms is not a dropped frame
+            stats.onFrame(time + (i % 2) * 3 * MS);
+            time += FRAME;
+        }
+        assertEquals(120, stats.getFrames());
+        assertEquals(0, stats.getDroppedFrames());
+    }
+
+    @Test
+    public void countsFramesMissedInLongGaps() {
+        FrameStats stats = new FrameStats();
+        stats.onFrame(0);
+        stats.onFrame(FRAME);
+        // 3 intervals - 2 frames missed
+        stats.onFrame(4 * FRAME);
+        // Just over 1.5 intervals - one missed
+        stats.onFrame(4 * FRAME + 26 * MS);
+        assertEquals(4, stats.getFrames());
+        assertEquals(3, stats.getDroppedFrames());
+        assertEquals(3 * FRAME, stats.getWorstIntervalNanos());
+    }
+
+    @Test
+    public void pauseDoesNotCountTimeBetweenAnimations() {
+        FrameStats stats = new FrameStats();
+        stats.onFrame(0);
+        stats.onFrame(FRAME);
+        stats.pause();
+        stats.onFrame(2000 * MS);
+        stats.onFrame(2000 * MS + FRAME);
+        assertEquals(0, stats.getDroppedFrames());
+        assertEquals(FRAME, stats.getWorstIntervalNanos());
+
+        stats.reset();
+        assertEquals(0, stats.getFrames());
+        stats.onFrame(3000 * MS);
+        assertEquals(0, stats.getDroppedFrames());
+        assertEquals("1 frames, 0 dropped, worst frame 0 ms", stats.getReport());
+    }
+}